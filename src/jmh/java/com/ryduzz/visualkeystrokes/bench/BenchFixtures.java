@@ -0,0 +1,52 @@
+package com.ryduzz.visualkeystrokes.bench;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+
+/**
+ * Synthetic overlay layouts for benchmarks.
+ */
+public final class BenchFixtures {
+    public static final int KEY_SIZE = 22;
+    public static final int KEY_GAP = 2;
+    public static final int COLUMNS = 20;
+    /**
+     * Size of a click interval graph key, the same as the sidebar template's, so its bars have room to draw.
+     */
+    public static final int GRAPH_WIDTH = 96;
+    public static final int GRAPH_HEIGHT = 44;
+
+    private static final int FIRST_KEY = 65;
+    private static final int KEY_RANGE = 26;
+
+    private BenchFixtures() {
+    }
+
+    /**
+     * A grid of {@code keyCount} keys, {@link #COLUMNS} per row. Every hundredth key is a click interval graph, every
+     * other tenth a CPS counter and every seventh a mouse button, so all three input types and the graph are
+     * exercised. Graph keys are {@link #GRAPH_WIDTH} by {@link #GRAPH_HEIGHT} and overlap the cells after them.
+     */
+    public static OverlayConfig layout(int keyCount) {
+        OverlayConfig config = new OverlayConfig();
+        config.keys.clear();
+        for (int i = 0; i < keyCount; i++) {
+            int x = (i % COLUMNS) * (KEY_SIZE + KEY_GAP);
+            int y = (i / COLUMNS) * (KEY_SIZE + KEY_GAP);
+            String group = "group" + (i / COLUMNS);
+            if (i % 100 == 99) {
+                config.keys.add(new OverlayConfig.KeyDefinition(
+                    "GAP", "cps_intervals", x, y, GRAPH_WIDTH, GRAPH_HEIGHT, group));
+            } else if (i % 10 == 9) {
+                config.keys.add(new OverlayConfig.KeyDefinition("CPS", "cps", x, y, KEY_SIZE, KEY_SIZE, group));
+            } else if (i % 7 == 6) {
+                config.keys.add(new OverlayConfig.KeyDefinition(
+                    "LMB", OverlayConfig.InputType.MOUSE, i % 3, x, y, KEY_SIZE, KEY_SIZE, group));
+            } else {
+                int code = FIRST_KEY + i % KEY_RANGE;
+                config.keys.add(new OverlayConfig.KeyDefinition(
+                    String.valueOf((char) code), OverlayConfig.InputType.KEY, code, x, y, KEY_SIZE, KEY_SIZE, group));
+            }
+        }
+        return config;
+    }
+}
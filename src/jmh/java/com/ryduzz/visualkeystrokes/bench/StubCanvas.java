@@ -0,0 +1,55 @@
+package com.ryduzz.visualkeystrokes.bench;
+
+import com.ryduzz.visualkeystrokes.render.OverlayCanvas;
+
+/**
+ * Canvas that only folds its draw calls into a checksum, standing in for {@code DrawContext} and
+ * {@code TextRenderer}. Text is measured as six pixels per character with a nine pixel line height, matching the
+ * vanilla font closely enough for layout work.
+ */
+public final class StubCanvas implements OverlayCanvas {
+    private int fills;
+    private int texts;
+    private int checksum;
+
+    @Override
+    public void fill(int x1, int y1, int x2, int y2, int color) {
+        fills++;
+        checksum = checksum * 31 + (x1 ^ y2) + color;
+    }
+
+    @Override
+    public void drawText(String text, int x, int y, int color) {
+        texts++;
+        checksum = checksum * 31 + text.length() + x + y + color;
+    }
+
+    @Override
+    public int getWidth(String text) {
+        return text.length() * 6;
+    }
+
+    @Override
+    public int fontHeight() {
+        return 9;
+    }
+
+    public int fills() {
+        return fills;
+    }
+
+    public int texts() {
+        return texts;
+    }
+
+    /**
+     * Returns the checksum of everything drawn since the last call and resets the counters.
+     */
+    public int drain() {
+        int result = checksum;
+        fills = 0;
+        texts = 0;
+        checksum = 0;
+        return result;
+    }
+}
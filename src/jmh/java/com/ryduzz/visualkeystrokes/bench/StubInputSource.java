@@ -0,0 +1,30 @@
+package com.ryduzz.visualkeystrokes.bench;
+
+import com.ryduzz.visualkeystrokes.input.InputSource;
+
+/**
+ * GLFW stand-in whose pressed state follows a frame counter: every third key is down on even frames and the left
+ * mouse button toggles every frame, so polling sees a steady stream of click edges.
+ */
+public final class StubInputSource implements InputSource {
+    private int frame;
+
+    public void advance() {
+        frame++;
+    }
+
+    @Override
+    public boolean isKeyPressed(int code) {
+        return (frame & 1) == 0 && code % 3 == 0;
+    }
+
+    @Override
+    public boolean isMousePressed(int button) {
+        return button == 0 && (frame & 1) == 0;
+    }
+
+    @Override
+    public boolean isSuppressed() {
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ryduzz.visualkeystrokes.config;
+
+import com.google.gson.Gson;
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Config commit and persistence. {@code publish} and {@code copy} run on the game thread on every commit;
+ * {@code write} and {@code load} run on the saver thread and at startup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigSaveBenchmark {
+    @Param({"10", "100", "1000"})
+    public int keys;
+
+    private final Gson gson = new Gson();
+    private OverlayConfig config;
+    private OverlayConfig copy;
+    private Path directory;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        config = BenchFixtures.layout(keys);
+        copy = ConfigPersistence.copyOf(config);
+        directory = Files.createTempDirectory("visualkeystrokes-bench");
+        target = directory.resolve("visualkeystrokes.json");
+        ConfigPersistence.writeAtomically(target, copy, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public ConfigSnapshot publish() {
+        return ConfigStore.publish(config);
+    }
+
+    @Benchmark
+    public OverlayConfig copy() {
+        return ConfigPersistence.copyOf(config);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        ConfigPersistence.writeAtomically(target, copy, false);
+        return target;
+    }
+
+    @Benchmark
+    public OverlayConfig load() throws IOException {
+        try (Reader reader = Files.newBufferedReader(target, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, OverlayConfig.class);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.bench.StubInputSource;
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputTrackerBenchmark {
+    private static final int MOUSE_LEFT = 0;
+    private static final int PRESS = 1;
+    private static final int RELEASE = 0;
+
+    private final StubInputSource source = new StubInputSource();
+    private final InputEventBus bus = new InputEventBus(1024);
+    private InputTracker polling;
+    private InputTracker eventDriven;
+    private int[] keyCodes;
+    private int[] mouseButtons;
+
+    @Setup
+    public void setup() {
+        polling = new InputTracker(source);
+        eventDriven = new InputTracker(source);
+        eventDriven.listen(bus);
+        keyCodes = new int[100];
+        for (int i = 0; i < keyCodes.length; i++) {
+            keyCodes[i] = 32 + i;
+        }
+        mouseButtons = new int[] {0, 1, 2};
+    }
+
+    /**
+     * Client tick with polled mouse edges; the stub produces a click every other tick.
+     */
+    @Benchmark
+    public void updatePolling() {
+        source.advance();
+        polling.update();
+    }
+
+    /**
+     * One press/release pair published to the event bus and drained as the callbacks do, followed by the client
+     * tick.
+     */
+    @Benchmark
+    public void updateEventDriven() {
+        long now = System.nanoTime();
+        bus.publish(now, OverlayConfig.InputType.MOUSE, MOUSE_LEFT, PRESS);
+        eventDriven.drainEvents();
+        bus.publish(now, OverlayConfig.InputType.MOUSE, MOUSE_LEFT, RELEASE);
+        eventDriven.drainEvents();
+        eventDriven.update();
+    }
+
+    @Benchmark
+    public String getStatValue() {
+        return polling.getStatValue("cps");
+    }
+
+    @Benchmark
+    public InputSnapshot snapshotPolling() {
+        source.advance();
+        return polling.snapshot(keyCodes, mouseButtons);
+    }
+}
@@ -0,0 +1,107 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.bench.StubInputSource;
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Per-click cost of the interval histogram and the rolling click stats, and the click interval export.
+ * {@code histogramOnClick} and {@code statsOnClick} run on the game thread for every click; {@code copy} is the
+ * game-thread half of an export and {@code export} the whole export, including the background CSV write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntervalHistogramBenchmark {
+    private static final int GAPS = 4096;
+    private static final int EXPORT_CLICKS = 10_000;
+    private static final int MOUSE_LEFT = 0;
+    private static final int MOUSE_RIGHT = 1;
+    private static final int PRESS = 1;
+    private static final int RELEASE = 0;
+
+    private final long[] gaps = new long[GAPS];
+    private final IntervalHistogram histogram = new IntervalHistogram();
+    private final ClickStats stats = new ClickStats(100_000_000L, 10, 60);
+    private InputTracker tracker;
+    private Path directory;
+    private long now;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        // Intervals from a few to a few hundred milliseconds, so clicks land across many histogram buckets.
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < GAPS; i++) {
+            gaps[i] = 5_000_000L + random.nextLong(300_000_000L);
+        }
+
+        InputEventBus bus = new InputEventBus(EXPORT_CLICKS * 4);
+        tracker = new InputTracker(new StubInputSource());
+        tracker.listen(bus);
+        long time = 0L;
+        for (int i = 0; i < EXPORT_CLICKS; i++) {
+            time += gaps[i % GAPS];
+            int button = i % 3 == 0 ? MOUSE_RIGHT : MOUSE_LEFT;
+            bus.publish(time, OverlayConfig.InputType.MOUSE, button, PRESS);
+            bus.publish(time, OverlayConfig.InputType.MOUSE, button, RELEASE);
+        }
+        tracker.drainEvents();
+        directory = Files.createTempDirectory("visualkeystrokes-bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long histogramOnClick() {
+        now += gaps[next++ & (GAPS - 1)];
+        histogram.onClick(now);
+        return histogram.totalCount();
+    }
+
+    @Benchmark
+    public int statsOnClick() {
+        now += gaps[next++ & (GAPS - 1)];
+        stats.onClick(now);
+        return stats.peakCps();
+    }
+
+    @Benchmark
+    public IntervalHistogram copy() {
+        return tracker.clickIntervals(MOUSE_LEFT).copy();
+    }
+
+    @Benchmark
+    public Path export() {
+        return IntervalExport.exportAsync(tracker, directory).join();
+    }
+}
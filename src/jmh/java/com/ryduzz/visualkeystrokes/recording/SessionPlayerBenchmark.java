@@ -0,0 +1,98 @@
+package com.ryduzz.visualkeystrokes.recording;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Playback over a synthetic session written straight to segments: a random seek, and one 60 fps frame of
+ * continuous playback.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionPlayerBenchmark {
+    private static final long FRAME_NANOS = 16_666_667L;
+    private static final long MEAN_GAP_NANOS = 50_000_000L;
+
+    @Param({"100000", "1000000"})
+    public int events;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Path directory;
+    private SessionPlayer player;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("visualkeystrokes-bench");
+        int index = 0;
+        SegmentWriter writer = new SegmentWriter(segment(index), SessionRecorder.DEFAULT_SEGMENT_BYTES);
+        long time = 0L;
+        for (int i = 0; i < events; i++) {
+            time += random.nextLong(MEAN_GAP_NANOS * 2);
+            boolean mouse = random.nextInt(4) == 0;
+            int code = mouse ? random.nextInt(3) : 65 + random.nextInt(26);
+            int action = random.nextInt(2);
+            if (!writer.append(time, mouse ? 1 : 0, code, action)) {
+                writer.close();
+                writer = new SegmentWriter(segment(++index), SessionRecorder.DEFAULT_SEGMENT_BYTES);
+                writer.append(time, mouse ? 1 : 0, code, action);
+            }
+        }
+        writer.close();
+        player = SessionPlayer.open(SessionLog.open(directory, "bench"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        player.log().close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long seek() {
+        now += FRAME_NANOS;
+        player.seek(random.nextLong(player.durationNanos() + 1), now);
+        return player.positionNanos();
+    }
+
+    @Benchmark
+    public long advanceFrame() {
+        now += FRAME_NANOS;
+        player.advance(now);
+        if (player.isFinished()) {
+            player.seek(0L, now);
+        }
+        return player.positionNanos();
+    }
+
+    private Path segment(int index) {
+        return directory.resolve(String.format("bench-%03d", index) + SessionFormat.EXTENSION);
+    }
+}
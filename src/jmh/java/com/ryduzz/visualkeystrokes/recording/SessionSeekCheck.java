@@ -0,0 +1,151 @@
+package com.ryduzz.visualkeystrokes.recording;
+
+import com.ryduzz.visualkeystrokes.input.InputSnapshot;
+import com.ryduzz.visualkeystrokes.util.IntStrings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Correctness check for {@link SessionPlayer#seek}: writes a synthetic session across many small segments, seeks to
+ * random positions and compares the replayed pressed state with a linear scan of the log from the first event. A
+ * third of the seeks land on a random event's timestamp and a third just around a keyframe boundary, where picking
+ * the wrong keyframe shows. Fails with status 1 on the first mismatch.
+ * <p>
+ * Arguments: {@code [events] [seeks]}, 50000 and 200 by default.
+ */
+public final class SessionSeekCheck {
+    private static final String SESSION = "seek-check";
+    private static final int SEGMENT_BYTES = 16 * 1024;
+    private static final long MEAN_GAP_NANOS = 20_000_000L;
+
+    private SessionSeekCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int seeks = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Path directory = Files.createTempDirectory("visualkeystrokes-seek");
+        String failure;
+        try {
+            failure = check(directory, events, seeks);
+        } finally {
+            delete(directory);
+        }
+        if (failure != null) {
+            System.err.println(failure);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Writes the session, runs the seeks and returns a description of the first mismatch, or {@code null} if there
+     * was none.
+     */
+    private static String check(Path directory, int events, int seeks) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] times = write(directory, events, random);
+        try (SessionLog log = SessionLog.open(directory, SESSION)) {
+            return check(log, times, events, seeks, random);
+        }
+    }
+
+    private static String check(SessionLog log, long[] times, int events, int seeks, SplittableRandom random) {
+        SessionPlayer player = SessionPlayer.open(log);
+        if (player.eventCount() != events) {
+            return "Read back " + player.eventCount() + " of " + events + " events.";
+        }
+        System.out.println(events + " events in " + log.segmentCount() + " segments");
+
+        InputSnapshot expected = new InputSnapshot();
+        long seekNanos = 0L;
+        long scanNanos = 0L;
+        for (int i = 0; i < seeks; i++) {
+            long position = switch (i % 3) {
+                case 0 -> random.nextLong(player.durationNanos() + 1);
+                case 1 -> times[random.nextInt(events)] - times[0];
+                default -> keyframeBoundary(times, random) - times[0];
+            };
+            long start = System.nanoTime();
+            player.seek(position, start);
+            InputSnapshot actual = player.tracker().snapshot(new int[0], new int[0]);
+            seekNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            scan(log, times[0] + position, expected);
+            scanNanos += System.nanoTime() - start;
+
+            if (!actual.sameState(expected)) {
+                return "Seek to " + position + " ns restored a different pressed state than a linear scan.";
+            }
+        }
+        System.out.printf("%d seeks match a linear scan; seek %.1f us, scan %.1f us on average%n",
+            seeks, seekNanos / 1_000.0 / seeks, scanNanos / 1_000.0 / seeks);
+        return null;
+    }
+
+    /**
+     * Writes {@code events} random key and mouse edges, rolling to a new segment whenever one fills, and returns
+     * their timestamps.
+     */
+    private static long[] write(Path directory, int events, SplittableRandom random) throws IOException {
+        long[] times = new long[events];
+        int index = 0;
+        SegmentWriter writer = new SegmentWriter(segment(directory, index), SEGMENT_BYTES);
+        long time = 0L;
+        for (int i = 0; i < events; i++) {
+            // Zero gaps put several events on one timestamp.
+            time += random.nextInt(8) == 0 ? 0L : random.nextLong(MEAN_GAP_NANOS * 2);
+            times[i] = time;
+            boolean mouse = random.nextInt(4) == 0;
+            int code = mouse ? random.nextInt(3) : 65 + random.nextInt(26);
+            int action = random.nextInt(3);
+            if (!writer.append(time, mouse ? 1 : 0, code, action)) {
+                writer.close();
+                writer = new SegmentWriter(segment(directory, ++index), SEGMENT_BYTES);
+                writer.append(time, mouse ? 1 : 0, code, action);
+            }
+        }
+        writer.close();
+        return times;
+    }
+
+    /**
+     * A time just before, at or just after the last event preceding a random keyframe.
+     */
+    private static long keyframeBoundary(long[] times, SplittableRandom random) {
+        int keyframes = (times.length - 1) / SessionPlayer.KEYFRAME_INTERVAL;
+        if (keyframes == 0) {
+            return times[random.nextInt(times.length)];
+        }
+        int last = (1 + random.nextInt(keyframes)) * SessionPlayer.KEYFRAME_INTERVAL - 1;
+        return Math.max(times[0], times[last] + random.nextInt(3) - 1);
+    }
+
+    /**
+     * Pressed state after every event at or before {@code targetNanos}, decoded from the start of the log.
+     */
+    private static void scan(SessionLog log, long targetNanos, InputSnapshot out) {
+        out.clear();
+        SessionLog.Reader reader = log.reader();
+        while (reader.next() && reader.timeNanos <= targetNanos) {
+            out.apply(reader.type, reader.code, reader.action);
+        }
+    }
+
+    private static Path segment(Path directory, int index) {
+        return directory.resolve(SESSION + "-" + IntStrings.zeroPadded(index, 3) + SessionFormat.EXTENSION);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import com.ryduzz.visualkeystrokes.bench.StubCanvas;
+import com.ryduzz.visualkeystrokes.bench.StubInputSource;
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import com.ryduzz.visualkeystrokes.input.InputTracker;
+import com.ryduzz.visualkeystrokes.perf.PerfMonitor;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Allocation regression check for the per-frame paths: the tick update, the HUD render through the batching canvas
+ * and the frame instrumentation. Each layout size is run three ways: the plan walk alone, and the HUD's own frame
+ * path ({@code renderBatch}, with its draw counting) with the frame cache off and on. After a warm-up that lets the
+ * buffers reach their steady size and the JIT compile the loop, it runs thousands of simulated frames per mode and
+ * fails with status 1 if the thread allocated anything at all.
+ * <p>
+ * Arguments: {@code [frames]}, 10000 by default.
+ */
+public final class AllocationRegressionCheck {
+    private static final int[] LAYOUT_SIZES = {10, 100, 1000};
+    private static final int WARMUP_FRAMES = 50_000;
+    /**
+     * Measured runs per mode; the least allocated is reported. A steady-state allocation shows up in every run, while
+     * a late JIT event (a deoptimization materializing scalar-replaced objects) occasionally adds a few hundred bytes
+     * to a single one.
+     */
+    private static final int ATTEMPTS = 3;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationRegressionCheck() {
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        boolean failed = false;
+        for (int keys : LAYOUT_SIZES) {
+            for (Mode mode : Mode.values()) {
+                long allocated = measure(keys, mode, frames);
+                System.out.println(keys + " keys, " + mode.label + ": " + allocated + " bytes over " + frames
+                    + " frames");
+                failed |= allocated != 0;
+            }
+        }
+        if (failed) {
+            System.err.println("Steady-state frames allocated memory.");
+            System.exit(1);
+        }
+        System.out.println("No steady-state allocation.");
+    }
+
+    private static long measure(int keys, Mode mode, int frames) {
+        OverlayConfig config = BenchFixtures.layout(keys);
+        ConfigStore.setFrameCacheEnabled(mode == Mode.FRAME_CACHED);
+        ConfigSnapshot snapshot = ConfigStore.publish(config);
+        StubInputSource source = new StubInputSource();
+        InputTracker tracker = new InputTracker(source);
+        KeystrokeOverlayRenderer renderer = new KeystrokeOverlayRenderer(tracker, () -> snapshot);
+        StubCanvas canvas = new StubCanvas();
+        BatchingCanvas batch = new BatchingCanvas(canvas);
+
+        run(source, tracker, renderer, mode, snapshot, batch, canvas, WARMUP_FRAMES);
+        long least = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < ATTEMPTS && least != 0; attempt++) {
+            // Measure the probe itself so only the frames are counted.
+            long probe = THREADS.getCurrentThreadAllocatedBytes();
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            long overhead = before - probe;
+            run(source, tracker, renderer, mode, snapshot, batch, canvas, frames);
+            long after = THREADS.getCurrentThreadAllocatedBytes();
+            least = Math.min(least, after - before - overhead);
+        }
+        return least;
+    }
+
+    private static int run(
+        StubInputSource source,
+        InputTracker tracker,
+        KeystrokeOverlayRenderer renderer,
+        Mode mode,
+        ConfigSnapshot snapshot,
+        BatchingCanvas batch,
+        StubCanvas canvas,
+        int frames
+    ) {
+        int checksum = 0;
+        for (int i = 0; i < frames; i++) {
+            source.advance();
+            tracker.update();
+            if (mode == Mode.PLAN) {
+                PerfMonitor.beginFrame();
+                renderer.render(batch, snapshot);
+                int rects = batch.rectCount();
+                int texts = batch.textCount();
+                batch.flush();
+                PerfMonitor.endFrame(rects, texts);
+            } else {
+                renderer.renderFrame(batch, snapshot);
+            }
+            checksum += canvas.drain();
+        }
+        return checksum;
+    }
+
+    private enum Mode {
+        PLAN("plan walk"),
+        FRAME("HUD frame"),
+        FRAME_CACHED("HUD frame, cached");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+    }
+}
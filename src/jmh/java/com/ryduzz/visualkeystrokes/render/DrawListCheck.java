@@ -0,0 +1,110 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import com.ryduzz.visualkeystrokes.bench.StubInputSource;
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
+import com.ryduzz.visualkeystrokes.input.InputSnapshot;
+import com.ryduzz.visualkeystrokes.input.InputTracker;
+
+import java.util.List;
+
+/**
+ * Checks that the renderer's frame loop over the parallel-array {@link RenderPlan} draws exactly what the
+ * one-object-per-key {@link ObjectKeyWalk} draws: the same fills and texts, in the same order, for idle and pressed
+ * frames at every layout size. Both are recorded on a {@link RecordingCanvas}; on a mismatch the first differing
+ * command is printed and the process exits with status 1. Input is driven for longer than the interval graphs'
+ * refresh period first, and a layout with graphs fails if none of them has a bar to compare.
+ */
+public final class DrawListCheck {
+    private static final int[] LAYOUT_SIZES = {10, 100, 1000};
+    private static final int FRAMES = 8;
+    private static final long GRAPH_WARMUP_NANOS = 300_000_000L;
+
+    private DrawListCheck() {
+    }
+
+    public static void main(String[] args) {
+        boolean failed = false;
+        for (int keys : LAYOUT_SIZES) {
+            String mismatch = compare(keys);
+            if (mismatch != null) {
+                System.err.println(keys + " keys: " + mismatch);
+                failed = true;
+            } else {
+                System.out.println(keys + " keys: draw lists match over " + FRAMES + " frames");
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static String compare(int keys) {
+        ConfigSnapshot snapshot = ConfigStore.publish(BenchFixtures.layout(keys));
+        StubInputSource source = new StubInputSource();
+        InputTracker tracker = new InputTracker(source);
+        KeystrokeOverlayRenderer renderer = new KeystrokeOverlayRenderer(tracker, () -> snapshot);
+        RecordingCanvas actual = new RecordingCanvas();
+        RecordingCanvas expected = new RecordingCanvas();
+        RenderPlan plan = RenderPlan.build(snapshot, expected, tracker.stats());
+        ObjectKeyWalk walk = new ObjectKeyWalk(snapshot, expected, tracker.stats());
+
+        long graphsReady = System.nanoTime() + GRAPH_WARMUP_NANOS;
+        while (System.nanoTime() < graphsReady) {
+            source.advance();
+            tracker.update();
+        }
+        if (!hasBars(plan)) {
+            return "no interval graph has a bar to compare";
+        }
+        for (int frame = 0; frame < FRAMES; frame++) {
+            source.advance();
+            tracker.update();
+            actual.clear();
+            expected.clear();
+            // The renderer updates the stats; the walk then reads the same values.
+            renderer.render(actual, snapshot);
+            InputSnapshot input = tracker.snapshot(plan.keyCodes(), plan.mouseButtons());
+            walk.draw(expected, input);
+
+            String mismatch = firstMismatch(actual.commands(), expected.commands());
+            if (mismatch != null) {
+                return "frame " + frame + ": " + mismatch;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether some graph key has a bar above zero, or the layout has no graph keys at all.
+     */
+    private static boolean hasBars(RenderPlan plan) {
+        boolean graphs = false;
+        for (int i = 0; i < plan.size; i++) {
+            if (plan.graph[i] == null) {
+                continue;
+            }
+            graphs = true;
+            for (int bar = 0; bar < plan.graph[i].barCount(); bar++) {
+                if (plan.graph[i].barLevel(bar) > 0) {
+                    return true;
+                }
+            }
+        }
+        return !graphs;
+    }
+
+    private static String firstMismatch(List<RecordingCanvas.Command> actual, List<RecordingCanvas.Command> expected) {
+        int common = Math.min(actual.size(), expected.size());
+        for (int i = 0; i < common; i++) {
+            if (!actual.get(i).equals(expected.get(i))) {
+                return "command " + i + " is " + actual.get(i) + ", expected " + expected.get(i);
+            }
+        }
+        if (actual.size() != expected.size()) {
+            return actual.size() + " commands drawn, expected " + expected.size();
+        }
+        return null;
+    }
+}
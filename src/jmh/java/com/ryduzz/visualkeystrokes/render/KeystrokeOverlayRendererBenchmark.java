@@ -0,0 +1,81 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import com.ryduzz.visualkeystrokes.bench.StubCanvas;
+import com.ryduzz.visualkeystrokes.bench.StubInputSource;
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import com.ryduzz.visualkeystrokes.input.InputTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One HUD frame: plan lookup, input snapshot, stat update and key draws.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeystrokeOverlayRendererBenchmark {
+    @Param({"10", "100", "1000"})
+    public int keys;
+
+    private final StubCanvas canvas = new StubCanvas();
+    private final BatchingCanvas batch = new BatchingCanvas(canvas);
+    private final StubInputSource source = new StubInputSource();
+    private KeystrokeOverlayRenderer renderer;
+    private ConfigSnapshot snapshot;
+    private ConfigSnapshot alternate;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        OverlayConfig config = BenchFixtures.layout(keys);
+        snapshot = ConfigStore.publish(config);
+        alternate = ConfigStore.publish(config);
+        renderer = new KeystrokeOverlayRenderer(new InputTracker(source), () -> snapshot);
+    }
+
+    @Benchmark
+    public int renderFrame() {
+        source.advance();
+        renderer.render(canvas, snapshot);
+        return canvas.drain();
+    }
+
+    /**
+     * Same frame through the batching canvas the HUD uses: draws are buffered, then replayed rectangles first.
+     */
+    @Benchmark
+    public int renderFrameBatched() {
+        source.advance();
+        renderer.render(batch, snapshot);
+        batch.flush();
+        return canvas.drain();
+    }
+
+    /**
+     * Alternates between two snapshot versions so every frame pays for a plan rebuild, as right after an edit.
+     */
+    @Benchmark
+    public int renderFrameAfterCommit() {
+        source.advance();
+        flip = !flip;
+        renderer.render(canvas, flip ? alternate : snapshot);
+        return canvas.drain();
+    }
+}
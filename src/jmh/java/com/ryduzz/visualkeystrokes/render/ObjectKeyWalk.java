@@ -0,0 +1,129 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import com.ryduzz.visualkeystrokes.input.BarGraphProvider;
+import com.ryduzz.visualkeystrokes.input.InputSnapshot;
+import com.ryduzz.visualkeystrokes.input.StatProvider;
+import com.ryduzz.visualkeystrokes.input.StatRegistry;
+
+/**
+ * Reference frame loop over one object per key, the layout the render plan used before it became parallel arrays.
+ * It is the baseline for {@link RenderPlanLayoutBenchmark} and the expected output for {@link DrawListCheck}.
+ */
+final class ObjectKeyWalk {
+    private final ObjectKey[] keys;
+
+    ObjectKeyWalk(ConfigSnapshot config, OverlayCanvas canvas, StatRegistry stats) {
+        int visible = 0;
+        for (ConfigSnapshot.Key key : config.keys()) {
+            if (key.isVisible()) {
+                visible++;
+            }
+        }
+        keys = new ObjectKey[visible];
+        int i = 0;
+        for (ConfigSnapshot.Key key : config.keys()) {
+            if (key.isVisible()) {
+                StatProvider stat = key.type() == OverlayConfig.InputType.STAT ? stats.get(key.statId()) : null;
+                keys[i++] = new ObjectKey(key, canvas, stat);
+            }
+        }
+    }
+
+    /**
+     * Draws every key for {@code input}. Stat values are read as they are; the caller decides when to update them.
+     */
+    void draw(OverlayCanvas canvas, InputSnapshot input) {
+        for (ObjectKey key : keys) {
+            boolean pressed = input.isPressed(key.type, key.code);
+            int fillColor = pressed ? key.pressedColor : key.backgroundColor;
+
+            canvas.fill(key.x, key.y, key.right, key.bottom, fillColor);
+            canvas.drawBorder(key.x, key.y, key.right, key.bottom, key.borderColor);
+            canvas.drawText(key.label, key.labelX, key.labelY, key.textColor);
+
+            if (key.stat != null) {
+                String value = key.stat.value();
+                int valueWidth = canvas.getWidth(value);
+                int valueX = key.x + (key.width - valueWidth) / 2;
+                canvas.drawText(value, valueX, key.valueY, key.textColor);
+            }
+            if (key.graph != null) {
+                drawBars(canvas, key);
+            }
+        }
+    }
+
+    private static void drawBars(OverlayCanvas canvas, ObjectKey key) {
+        int height = key.graphBottom - key.graphTop;
+        for (int bar = 0; bar < key.graph.barCount(); bar++) {
+            int barHeight = key.graph.barLevel(bar) * height / BarGraphProvider.MAX_LEVEL;
+            if (barHeight > 0) {
+                int barX = key.graphX + bar * key.barWidth;
+                canvas.fill(barX, key.graphBottom - barHeight, barX + Math.max(1, key.barWidth - 1), key.graphBottom,
+                    key.textColor);
+            }
+        }
+    }
+
+    private static final class ObjectKey {
+        final OverlayConfig.InputType type;
+        final int code;
+        final StatProvider stat;
+        final BarGraphProvider graph;
+        final String label;
+        final int x;
+        final int y;
+        final int right;
+        final int bottom;
+        final int width;
+        final int backgroundColor;
+        final int pressedColor;
+        final int borderColor;
+        final int textColor;
+        final int labelX;
+        final int labelY;
+        final int valueY;
+        final int graphX;
+        final int graphTop;
+        final int graphBottom;
+        final int barWidth;
+
+        private ObjectKey(ConfigSnapshot.Key key, OverlayCanvas canvas, StatProvider stat) {
+            this.type = key.type();
+            this.code = key.code();
+            this.stat = stat;
+            this.graph = stat instanceof BarGraphProvider provider ? provider : null;
+            this.label = key.label();
+            this.x = key.x();
+            this.y = key.y();
+            this.right = key.x() + key.width();
+            this.bottom = key.y() + key.height();
+            this.width = key.width();
+            this.backgroundColor = key.backgroundColor();
+            this.pressedColor = key.pressedColor();
+            this.borderColor = key.borderColor();
+            this.textColor = key.textColor();
+            this.labelX = key.x() + (key.width() - canvas.getWidth(key.label())) / 2;
+            if (key.type() == OverlayConfig.InputType.STAT) {
+                this.labelY = key.y() + 2;
+                this.valueY = key.y() + key.height() - canvas.fontHeight() - 2;
+            } else {
+                this.labelY = key.y() + (key.height() - canvas.fontHeight()) / 2;
+                this.valueY = 0;
+            }
+            if (graph != null) {
+                this.barWidth = Math.max(1, (key.width() - 4) / graph.barCount());
+                this.graphX = key.x() + (key.width() - barWidth * graph.barCount()) / 2;
+                this.graphTop = labelY + canvas.fontHeight();
+                this.graphBottom = valueY - 1;
+            } else {
+                this.barWidth = 0;
+                this.graphX = 0;
+                this.graphTop = 0;
+                this.graphBottom = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Canvas that keeps every draw as a {@link Command} instead of rendering it, so tests can check exactly what a layout
+ * draws, and in which order, without a game window. Text is measured with a fixed advance per character.
+ */
+public final class RecordingCanvas implements OverlayCanvas {
+    public static final int DEFAULT_CHAR_WIDTH = 6;
+    public static final int DEFAULT_FONT_HEIGHT = 9;
+
+    private final int charWidth;
+    private final int fontHeight;
+    private final List<Command> commands = new ArrayList<>();
+
+    public RecordingCanvas() {
+        this(DEFAULT_CHAR_WIDTH, DEFAULT_FONT_HEIGHT);
+    }
+
+    public RecordingCanvas(int charWidth, int fontHeight) {
+        this.charWidth = charWidth;
+        this.fontHeight = fontHeight;
+    }
+
+    @Override
+    public void fill(int x1, int y1, int x2, int y2, int color) {
+        commands.add(new Command(Command.Kind.FILL, x1, y1, x2, y2, color, null));
+    }
+
+    @Override
+    public void drawText(String text, int x, int y, int color) {
+        commands.add(new Command(Command.Kind.TEXT, x, y, x + getWidth(text), y + fontHeight, color, text));
+    }
+
+    @Override
+    public int getWidth(String text) {
+        return text.length() * charWidth;
+    }
+
+    @Override
+    public int fontHeight() {
+        return fontHeight;
+    }
+
+    public List<Command> commands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    public int count(Command.Kind kind) {
+        int count = 0;
+        for (Command command : commands) {
+            if (command.kind == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void clear() {
+        commands.clear();
+    }
+
+    /**
+     * One recorded draw. For text, the rectangle is the measured extent of the string.
+     */
+    public static final class Command {
+        public enum Kind {
+            FILL,
+            TEXT
+        }
+
+        public final Kind kind;
+        public final int x1;
+        public final int y1;
+        public final int x2;
+        public final int y2;
+        public final int color;
+        public final String text;
+
+        private Command(Kind kind, int x1, int y1, int x2, int y2, int color, String text) {
+            this.kind = kind;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.x2 = x2;
+            this.y2 = y2;
+            this.color = color;
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Command command
+                && kind == command.kind
+                && x1 == command.x1
+                && y1 == command.y1
+                && x2 == command.x2
+                && y2 == command.y2
+                && color == command.color
+                && Objects.equals(text, command.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, x1, y1, x2, y2, color, text);
+        }
+
+        @Override
+        public String toString() {
+            if (kind == Kind.TEXT) {
+                return String.format("TEXT \"%s\" at %d,%d #%08X", text, x1, y1, color);
+            }
+            return String.format("FILL %d,%d..%d,%d #%08X", x1, y1, x2, y2, color);
+        }
+    }
+}
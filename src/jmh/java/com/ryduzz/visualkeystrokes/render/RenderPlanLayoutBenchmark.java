@@ -0,0 +1,71 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import com.ryduzz.visualkeystrokes.bench.StubCanvas;
+import com.ryduzz.visualkeystrokes.bench.StubInputSource;
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
+import com.ryduzz.visualkeystrokes.input.InputSnapshot;
+import com.ryduzz.visualkeystrokes.input.InputTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The frame loop over the struct-of-arrays {@link RenderPlan} against the previous layout, one object per key with
+ * the same pre-resolved fields. Both walk the same keys with the same input snapshot and emit identical draws, which
+ * {@link DrawListCheck} verifies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderPlanLayoutBenchmark {
+    @Param({"1000"})
+    public int keys;
+
+    private final StubCanvas canvas = new StubCanvas();
+    private final StubInputSource source = new StubInputSource();
+    private InputTracker tracker;
+    private KeystrokeOverlayRenderer renderer;
+    private ConfigSnapshot snapshot;
+    private RenderPlan plan;
+    private ObjectKeyWalk objectKeys;
+
+    @Setup
+    public void setup() {
+        snapshot = ConfigStore.publish(BenchFixtures.layout(keys));
+        tracker = new InputTracker(source);
+        renderer = new KeystrokeOverlayRenderer(tracker, () -> snapshot);
+        plan = RenderPlan.build(snapshot, canvas, tracker.stats());
+        objectKeys = new ObjectKeyWalk(snapshot, canvas, tracker.stats());
+    }
+
+    @Benchmark
+    public int structOfArrays() {
+        source.advance();
+        renderer.render(canvas, snapshot);
+        return canvas.drain();
+    }
+
+    @Benchmark
+    public int objectWalk() {
+        source.advance();
+        InputSnapshot input = tracker.snapshot(plan.keyCodes(), plan.mouseButtons());
+        tracker.stats().update(System.nanoTime());
+        objectKeys.draw(canvas, input);
+        return canvas.drain();
+    }
+}
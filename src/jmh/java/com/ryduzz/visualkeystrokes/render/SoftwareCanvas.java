@@ -0,0 +1,189 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import java.util.Arrays;
+
+/**
+ * Reference rasterizer that draws into an {@code int[]} of ARGB pixels on the CPU, so overlay output can be compared
+ * pixel for pixel and timed without a GPU or a game window.
+ * <p>
+ * Fills blend source-over like the GUI pipeline. Text uses a built-in monospaced 5x7 bitmap font with the vanilla
+ * line height and a vanilla-style drop shadow; it is not the game's font, so output is only comparable against other
+ * software renders.
+ */
+public final class SoftwareCanvas implements OverlayCanvas {
+    public static final int CHAR_ADVANCE = 6;
+    public static final int FONT_HEIGHT = 9;
+
+    private static final int GLYPH_WIDTH = 5;
+    private static final int GLYPH_HEIGHT = 7;
+    private static final char FIRST_GLYPH = ' ';
+    // Column bitmaps for ' ' through '~', least significant bit at the top.
+    private static final long[] ASCII_GLYPHS = {
+        0x0000000000L, 0x00005F0000L, 0x0007000700L, 0x147F147F14L, 0x242A7F2A12L, 0x2313086462L,
+        0x3649552250L, 0x0005030000L, 0x001C224100L, 0x0041221C00L, 0x082A1C2A08L, 0x08083E0808L,
+        0x0050300000L, 0x0808080808L, 0x0060600000L, 0x2010080402L, 0x3E5149453EL, 0x00427F4000L,
+        0x4261514946L, 0x2141454B31L, 0x1814127F10L, 0x2745454539L, 0x3C4A494930L, 0x0171090503L,
+        0x3649494936L, 0x064949291EL, 0x0036360000L, 0x0056360000L, 0x0814224100L, 0x1414141414L,
+        0x0041221408L, 0x0201510906L, 0x324979413EL, 0x7E1111117EL, 0x7F49494936L, 0x3E41414122L,
+        0x7F4141221CL, 0x7F49494941L, 0x7F09090101L, 0x3E41415132L, 0x7F0808087FL, 0x00417F4100L,
+        0x2040413F01L, 0x7F08142241L, 0x7F40404040L, 0x7F0204027FL, 0x7F0408107FL, 0x3E4141413EL,
+        0x7F09090906L, 0x3E4151215EL, 0x7F09192946L, 0x4649494931L, 0x01017F0101L, 0x3F4040403FL,
+        0x1F2040201FL, 0x7F2018207FL, 0x6314081463L, 0x0304780403L, 0x6151494543L, 0x007F414100L,
+        0x0204081020L, 0x0041417F00L, 0x0402010204L, 0x4040404040L, 0x0001020400L, 0x2054545478L,
+        0x7F48444438L, 0x3844444420L, 0x384444487FL, 0x3854545418L, 0x087E090102L, 0x081454543CL,
+        0x7F08040478L, 0x00447D4000L, 0x2040443D00L, 0x007F102844L, 0x00417F4000L, 0x7C04180478L,
+        0x7C08040478L, 0x3844444438L, 0x7C14141408L, 0x081414187CL, 0x7C08040408L, 0x4854545420L,
+        0x043F444020L, 0x3C4040207CL, 0x1C2040201CL, 0x3C4030403CL, 0x4428102844L, 0x0C5050503CL,
+        0x4464544C44L, 0x0008364100L, 0x00007F0000L, 0x0041360800L, 0x0804081008L
+    };
+    private static final long GLYPH_ARROW_UP = 0x04027F0204L;
+    private static final long GLYPH_ARROW_DOWN = 0x10207F2010L;
+    private static final long GLYPH_ARROW_LEFT = 0x081C2A0808L;
+    private static final long GLYPH_ARROW_RIGHT = 0x08082A1C08L;
+    private static final long GLYPH_MISSING = 0x7F4141417FL;
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private int originX;
+    private int originY;
+
+    public SoftwareCanvas(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Canvas size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.pixels = new int[width * height];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * The backing buffer, row-major, {@code width * height} ARGB pixels. Returned without copying.
+     */
+    public int[] pixels() {
+        return pixels;
+    }
+
+    public int pixel(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    public void clear(int argb) {
+        Arrays.fill(pixels, argb);
+    }
+
+    /**
+     * Sets where overlay coordinate (0, 0) lands in the buffer.
+     */
+    public void setOrigin(int x, int y) {
+        this.originX = x;
+        this.originY = y;
+    }
+
+    @Override
+    public void fill(int x1, int y1, int x2, int y2, int color) {
+        int left = Math.min(x1, x2) + originX;
+        int right = Math.max(x1, x2) + originX;
+        int top = Math.min(y1, y2) + originY;
+        int bottom = Math.max(y1, y2) + originY;
+        left = Math.max(left, 0);
+        top = Math.max(top, 0);
+        right = Math.min(right, width);
+        bottom = Math.min(bottom, height);
+        if (left >= right || top >= bottom) {
+            return;
+        }
+
+        int alpha = color >>> 24;
+        if (alpha == 0) {
+            return;
+        }
+        for (int y = top; y < bottom; y++) {
+            int row = y * width;
+            if (alpha == 0xFF) {
+                Arrays.fill(pixels, row + left, row + right, color);
+            } else {
+                for (int i = row + left; i < row + right; i++) {
+                    pixels[i] = blend(pixels[i], color, alpha);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void drawText(String text, int x, int y, int color) {
+        // Like the vanilla renderer, a color without alpha is drawn opaque.
+        if ((color & 0xFC000000) == 0) {
+            color |= 0xFF000000;
+        }
+        int shadow = (color & 0xFF000000) | ((color & 0xFCFCFC) >> 2);
+        drawGlyphs(text, x + 1, y + 1, shadow);
+        drawGlyphs(text, x, y, color);
+    }
+
+    @Override
+    public int getWidth(String text) {
+        return text.length() * CHAR_ADVANCE;
+    }
+
+    @Override
+    public int fontHeight() {
+        return FONT_HEIGHT;
+    }
+
+    private void drawGlyphs(String text, int x, int y, int color) {
+        int alpha = color >>> 24;
+        int baseX = x + originX;
+        int baseY = y + originY;
+        for (int i = 0; i < text.length(); i++) {
+            long glyph = glyph(text.charAt(i));
+            int glyphX = baseX + i * CHAR_ADVANCE;
+            for (int column = 0; column < GLYPH_WIDTH; column++) {
+                int bits = (int) (glyph >>> ((GLYPH_WIDTH - 1 - column) * 8)) & 0xFF;
+                int px = glyphX + column;
+                if (bits == 0 || px < 0 || px >= width) {
+                    continue;
+                }
+                for (int row = 0; row < GLYPH_HEIGHT; row++) {
+                    int py = baseY + row;
+                    if ((bits & (1 << row)) == 0 || py < 0 || py >= height) {
+                        continue;
+                    }
+                    int index = py * width + px;
+                    pixels[index] = alpha == 0xFF ? color : blend(pixels[index], color, alpha);
+                }
+            }
+        }
+    }
+
+    private static long glyph(char c) {
+        if (c >= FIRST_GLYPH && c < FIRST_GLYPH + ASCII_GLYPHS.length) {
+            return ASCII_GLYPHS[c - FIRST_GLYPH];
+        }
+        return switch (c) {
+            case '↑' -> GLYPH_ARROW_UP;
+            case '↓' -> GLYPH_ARROW_DOWN;
+            case '←' -> GLYPH_ARROW_LEFT;
+            case '→' -> GLYPH_ARROW_RIGHT;
+            default -> GLYPH_MISSING;
+        };
+    }
+
+    private static int blend(int dst, int src, int alpha) {
+        int inverse = 255 - alpha;
+        int dstAlpha = dst >>> 24;
+        int outAlpha = alpha + (dstAlpha * inverse + 127) / 255;
+        int r = (((src >> 16) & 0xFF) * alpha + ((dst >> 16) & 0xFF) * inverse + 127) / 255;
+        int g = (((src >> 8) & 0xFF) * alpha + ((dst >> 8) & 0xFF) * inverse + 127) / 255;
+        int b = ((src & 0xFF) * alpha + (dst & 0xFF) * inverse + 127) / 255;
+        return (outAlpha << 24) | (r << 16) | (g << 8) | b;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import com.ryduzz.visualkeystrokes.bench.StubInputSource;
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
+import com.ryduzz.visualkeystrokes.input.InputTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full HUD frames rasterized on the CPU, so render-path changes can be timed end to end, pixels included, without a
+ * GPU. The canvas is cleared every frame like a real framebuffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoftwareCanvasBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    @Param({"10", "100", "1000"})
+    public int keys;
+
+    private final SoftwareCanvas canvas = new SoftwareCanvas(WIDTH, HEIGHT);
+    private final BatchingCanvas batch = new BatchingCanvas(canvas);
+    private final StubInputSource source = new StubInputSource();
+    private KeystrokeOverlayRenderer renderer;
+    private ConfigSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        snapshot = ConfigStore.publish(BenchFixtures.layout(keys));
+        renderer = new KeystrokeOverlayRenderer(new InputTracker(source), () -> snapshot);
+    }
+
+    @Benchmark
+    public int rasterizeFrame() {
+        source.advance();
+        canvas.clear(0);
+        renderer.render(batch, snapshot);
+        batch.flush();
+        return canvas.pixel(1, 1);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic group rectangles scattered over a 1080p overlay, for the editor benchmarks.
+ */
+final class EditorLayouts {
+    static final int WIDTH = 1920;
+    static final int HEIGHT = 1080;
+
+    private EditorLayouts() {
+    }
+
+    static List<Bounds> scatter(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Bounds> bounds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int width = 20 + random.nextInt(100);
+            int height = 20 + random.nextInt(60);
+            bounds.add(new Bounds(random.nextInt(WIDTH - width), random.nextInt(HEIGHT - height), width, height));
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Editor interactions driven through the headless model at sizes far beyond a hand-built layout. Each benchmark is
+ * one complete gesture, from press to release, so it includes the per-drag snap preparation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EditorModelBenchmark {
+    private static final int VIEWPORT_WIDTH = 1920;
+    private static final int VIEWPORT_HEIGHT = 1080;
+    private static final int DRAG_STEPS = 10;
+    private static final int ROW_HEIGHT = BenchFixtures.KEY_SIZE + BenchFixtures.KEY_GAP;
+
+    @Param({"1000", "5000"})
+    public int keys;
+
+    private EditorModel model;
+    private int rows;
+    private int step;
+
+    @Setup
+    public void setup() {
+        model = new EditorModel(BenchFixtures.layout(keys));
+        model.setViewport(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+        rows = (keys + BenchFixtures.COLUMNS - 1) / BenchFixtures.COLUMNS;
+    }
+
+    @Benchmark
+    public Group clickSelect() {
+        double y = nextRow() * ROW_HEIGHT + 4;
+        Group hit = model.hitTest(4, y);
+        model.beginMove(hit, 4, y);
+        model.endDrag(false);
+        return hit;
+    }
+
+    /**
+     * Drags one row sideways and back with snapping, guides and distance labels enabled.
+     */
+    @Benchmark
+    public int dragMoveWithSnap() {
+        double y = nextRow() * ROW_HEIGHT + 4;
+        Group hit = model.hitTest(4, y);
+        model.beginMove(hit, 4, y);
+        for (int i = 1; i <= DRAG_STEPS; i++) {
+            model.dragTo(4 + i * 3, y + i);
+        }
+        model.dragTo(4, y);
+        model.endDrag(false);
+        return model.snapEngine().verticalGuideCount();
+    }
+
+    @Benchmark
+    public Bounds resize() {
+        double y = nextRow() * ROW_HEIGHT + 4;
+        model.select(model.hitTest(4, y));
+        Bounds start = model.selectedBounds();
+        double handleX = start.x + start.width;
+        double handleY = start.y + start.height;
+        model.beginResize(EditorModel.ResizeHandle.BOTTOM_RIGHT, handleX, handleY);
+        for (int i = 1; i <= DRAG_STEPS; i++) {
+            model.dragTo(handleX + i * 4, handleY + i * 2);
+        }
+        model.dragTo(handleX, handleY);
+        model.endDrag(false);
+        return model.selectedBounds();
+    }
+
+    @Benchmark
+    public int lasso() {
+        double top = nextRow() * ROW_HEIGHT - 2;
+        model.beginLasso(-2, top);
+        for (int i = 1; i <= DRAG_STEPS; i++) {
+            model.dragTo(i * 40, top + i * ROW_HEIGHT);
+        }
+        model.endDrag(false);
+        return model.selection().size();
+    }
+
+    /**
+     * Drops a template from the sidebar and drags it back onto the sidebar, which hides it again.
+     */
+    @Benchmark
+    public int addAndHideTemplate() {
+        Template template = model.templates("").get(step++ % 3);
+        model.beginTemplateDrag(template, VIEWPORT_WIDTH / 2.0, VIEWPORT_HEIGHT / 2.0);
+        model.dragTo(VIEWPORT_WIDTH / 2.0 + 8, VIEWPORT_HEIGHT / 2.0 + 8);
+        model.endDrag(true);
+        return model.groups().size();
+    }
+
+    private int nextRow() {
+        step = (step + 7) % rows;
+        return step;
+    }
+}
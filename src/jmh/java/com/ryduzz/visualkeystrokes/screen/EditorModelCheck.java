@@ -0,0 +1,97 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+
+import java.util.List;
+
+/**
+ * Correctness check for editor gestures that change several groups at once: selects two rows of the benchmark
+ * layout, resizes them together from the bottom-right handle and compares {@link EditorModel#selectedBounds()} and
+ * {@link EditorModel#hitTest} with bounds recomputed from the keys. Stale cached bounds or index cells on any of the
+ * groups fail the check with status 1.
+ */
+public final class EditorModelCheck {
+    private static final int KEYS = 100;
+    private static final int VIEWPORT_WIDTH = 1920;
+    private static final int VIEWPORT_HEIGHT = 1080;
+    private static final int ROW_HEIGHT = BenchFixtures.KEY_SIZE + BenchFixtures.KEY_GAP;
+
+    private EditorModelCheck() {
+    }
+
+    public static void main(String[] args) {
+        String failure = multiGroupResize();
+        if (failure != null) {
+            System.err.println(failure);
+            System.exit(1);
+        }
+        System.out.println("two-group resize: bounds and hit-tests match the keys");
+    }
+
+    /**
+     * Doubles the size of the first two rows and returns a description of the first mismatch, or {@code null}.
+     */
+    private static String multiGroupResize() {
+        OverlayConfig config = BenchFixtures.layout(KEYS);
+        config.snappingEnabled = false;
+        EditorModel model = new EditorModel(config);
+        model.setViewport(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+        model.selectInRect(new Bounds(0, 0, 4, ROW_HEIGHT + 4));
+        List<Group> selected = List.copyOf(model.selection());
+        if (selected.size() != 2) {
+            return "Expected two selected rows, got " + selected.size() + ".";
+        }
+
+        Bounds start = model.selectedBounds();
+        double handleX = start.x + start.width;
+        double handleY = start.y + start.height;
+        model.beginResize(EditorModel.ResizeHandle.BOTTOM_RIGHT, handleX, handleY);
+        model.dragTo(handleX + start.width, handleY);
+        model.endDrag(false);
+
+        Bounds expected = keyBounds(selected);
+        Bounds actual = model.selectedBounds();
+        if (actual.width != start.width * 2 || !same(actual, expected)) {
+            return "Selected bounds after resize are " + describe(actual) + ", keys span " + describe(expected) + ".";
+        }
+        for (Group group : selected) {
+            if (!same(group.getBounds(), group.computeBounds())) {
+                return "Group " + group.id + " kept bounds " + describe(group.getBounds()) + " after resize.";
+            }
+            // The rightmost key only lies inside the group's resized bounds, never its old ones.
+            OverlayConfig.KeyDefinition last = group.keys.get(group.keys.size() - 1);
+            double x = last.x + last.width / 2.0;
+            double y = last.y + last.height / 2.0;
+            Group hit = model.hitTest(x, y);
+            if (hit != group) {
+                return "Hit-test at " + x + "," + y + " found " + (hit == null ? "nothing" : hit.id)
+                    + ", expected " + group.id + ".";
+            }
+        }
+        return null;
+    }
+
+    private static Bounds keyBounds(List<Group> groups) {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Group group : groups) {
+            Bounds bounds = group.computeBounds();
+            minX = Math.min(minX, bounds.x);
+            minY = Math.min(minY, bounds.y);
+            maxX = Math.max(maxX, bounds.x + bounds.width);
+            maxY = Math.max(maxY, bounds.y + bounds.height);
+        }
+        return new Bounds(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    private static boolean same(Bounds a, Bounds b) {
+        return a.x == b.x && a.y == b.y && a.width == b.width && a.height == b.height;
+    }
+
+    private static String describe(Bounds bounds) {
+        return bounds.width + "x" + bounds.height + " at " + bounds.x + "," + bounds.y;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import com.ryduzz.visualkeystrokes.bench.BenchFixtures;
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds work for one idle editor frame. The editor asks each group for its bounds and visibility several times per
+ * frame (overlay, selection, hit tests); with caching those calls should cost next to nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupBoundsBenchmark {
+    private static final int CALLS_PER_FRAME = 6;
+
+    @Param({"100", "1000"})
+    public int keys;
+
+    private final List<Group> groups = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        OverlayConfig config = BenchFixtures.layout(keys);
+        GroupIndex<Group> index = new GroupIndex<>(5);
+        List<OverlayConfig.KeyDefinition> current = new ArrayList<>();
+        String currentId = null;
+        for (OverlayConfig.KeyDefinition key : config.keys) {
+            if (currentId != null && !currentId.equals(key.group)) {
+                addGroup(currentId, current, index);
+                current = new ArrayList<>();
+            }
+            currentId = key.group;
+            current.add(key);
+        }
+        if (currentId != null) {
+            addGroup(currentId, current, index);
+        }
+    }
+
+    @Benchmark
+    public int idleFrameCached() {
+        int sum = 0;
+        for (int call = 0; call < CALLS_PER_FRAME; call++) {
+            for (Group group : groups) {
+                if (group.isVisible()) {
+                    sum += group.getBounds().area();
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int idleFrameUncached() {
+        int sum = 0;
+        for (int call = 0; call < CALLS_PER_FRAME; call++) {
+            for (Group group : groups) {
+                sum += group.computeBounds().area();
+            }
+        }
+        return sum;
+    }
+
+    private void addGroup(String id, List<OverlayConfig.KeyDefinition> keys, GroupIndex<Group> index) {
+        Group group = new Group(id, id, keys, groups.size(), index);
+        group.reindex();
+        groups.add(group);
+    }
+}
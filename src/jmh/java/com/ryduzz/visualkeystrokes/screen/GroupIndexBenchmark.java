@@ -0,0 +1,99 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Editor hit-testing and lasso queries through the grid index against the previous stream scan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupIndexBenchmark {
+    @Param({"10", "100", "1000"})
+    public int groups;
+
+    private final GroupIndex<Bounds> index = new GroupIndex<>(5);
+    private final List<Bounds> selection = new ArrayList<>();
+    private List<Bounds> bounds;
+    private int step;
+
+    @Setup
+    public void setup() {
+        bounds = EditorLayouts.scatter(groups, 7L);
+        for (int i = 0; i < bounds.size(); i++) {
+            index.update(bounds.get(i), i, bounds.get(i), true);
+        }
+    }
+
+    @Benchmark
+    public Bounds hitTestIndexed() {
+        step = (step + 13) % EditorLayouts.WIDTH;
+        return index.queryPoint(step, step % EditorLayouts.HEIGHT);
+    }
+
+    @Benchmark
+    public Bounds hitTestLinear() {
+        step = (step + 13) % EditorLayouts.WIDTH;
+        double x = step;
+        double y = step % EditorLayouts.HEIGHT;
+        return bounds.stream()
+            .sorted(Comparator.comparingInt(b -> -b.area()))
+            .filter(b -> b.contains(x, y))
+            .findFirst()
+            .orElse(null);
+    }
+
+    @Benchmark
+    public int lassoIndexed() {
+        Bounds lasso = nextLasso();
+        selection.clear();
+        index.queryRect(lasso, selection);
+        return selection.size();
+    }
+
+    @Benchmark
+    public int lassoLinear() {
+        Bounds lasso = nextLasso();
+        selection.clear();
+        for (Bounds candidate : bounds) {
+            if (candidate.intersects(lasso)) {
+                selection.add(candidate);
+            }
+        }
+        return selection.size();
+    }
+
+    /**
+     * Simulates moving a group: one index update per drag event.
+     */
+    @Benchmark
+    public GroupIndex<Bounds> updateOnMove() {
+        step = (step + 13) % (EditorLayouts.WIDTH - 100);
+        Bounds moved = new Bounds(step, step % (EditorLayouts.HEIGHT - 60), 100, 60);
+        index.update(bounds.get(0), 0, moved, true);
+        return index;
+    }
+
+    private Bounds nextLasso() {
+        step = (step + 13) % (EditorLayouts.WIDTH - 300);
+        return new Bounds(step, step % (EditorLayouts.HEIGHT - 200), 300, 200);
+    }
+}
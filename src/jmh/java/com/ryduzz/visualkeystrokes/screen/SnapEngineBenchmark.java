@@ -0,0 +1,96 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event drag latency of the sorted-edge snap engine against the previous per-group scan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapEngineBenchmark {
+    private static final int THRESHOLD = 6;
+
+    @Param({"10", "100", "500"})
+    public int groups;
+
+    private final SnapEngine engine = new SnapEngine();
+    private List<Bounds> stationary;
+    private int step;
+
+    @Setup
+    public void setup() {
+        stationary = EditorLayouts.scatter(groups, 42L);
+        engine.begin(stationary, 0.0, 0.0, 1.0, EditorLayouts.WIDTH, EditorLayouts.HEIGHT);
+    }
+
+    /**
+     * Cost paid once when a drag starts.
+     */
+    @Benchmark
+    public SnapEngine beginDrag() {
+        engine.begin(stationary, 0.0, 0.0, 1.0, EditorLayouts.WIDTH, EditorLayouts.HEIGHT);
+        return engine;
+    }
+
+    @Benchmark
+    public double snapPerEvent() {
+        int x = nextX();
+        int y = nextY();
+        engine.snap(x, x + 64, x + 32.0, y, y + 28, y + 14.0, true, true, true, true, true, true, THRESHOLD);
+        return engine.bestDeltaX() + engine.bestDeltaY() + engine.verticalGuideCount();
+    }
+
+    /**
+     * The pre-index algorithm: every edge of every group per event, with a boxed guide list.
+     */
+    @Benchmark
+    public double linearScanPerEvent() {
+        int x = nextX();
+        int y = nextY();
+        List<Integer> guides = new ArrayList<>();
+        double best = Double.NaN;
+        double[] moving = {x, x + 64, x + 32.0};
+        for (Bounds bounds : stationary) {
+            double[] edges = {bounds.x, bounds.x + bounds.width, bounds.x + bounds.width / 2.0};
+            for (double edge : moving) {
+                for (double candidate : edges) {
+                    double delta = candidate - edge;
+                    if (Math.abs(delta) <= THRESHOLD) {
+                        guides.add((int) Math.round(candidate));
+                        if (Double.isNaN(best) || Math.abs(delta) < Math.abs(best)) {
+                            best = delta;
+                        }
+                    }
+                }
+            }
+        }
+        return best + guides.size() + y;
+    }
+
+    private int nextX() {
+        step = (step + 7) % (EditorLayouts.WIDTH - 64);
+        return step;
+    }
+
+    private int nextY() {
+        return (step * 3) % (EditorLayouts.HEIGHT - 28);
+    }
+}
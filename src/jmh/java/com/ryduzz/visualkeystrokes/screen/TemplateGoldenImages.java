@@ -0,0 +1,166 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import com.ryduzz.visualkeystrokes.input.InputSource;
+import com.ryduzz.visualkeystrokes.input.InputTracker;
+import com.ryduzz.visualkeystrokes.render.BatchingCanvas;
+import com.ryduzz.visualkeystrokes.render.KeystrokeOverlayRenderer;
+import com.ryduzz.visualkeystrokes.render.SoftwareCanvas;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Golden-image check for the HUD render path. Every sidebar template is drawn through the renderer and batching
+ * canvas onto a {@link SoftwareCanvas}, idle and with every input held, and compared pixel for pixel with the PNGs
+ * in the golden directory.
+ * <p>
+ * Arguments: {@code <golden dir> <output dir> [--update]}. A missing golden is a failure like a mismatch; only
+ * {@code --update} records goldens, after an intended visual change or a new template. On a failure the actual image
+ * is written to the output directory and the process exits with status 1.
+ * <p>
+ * Renders use a fixed palette rather than the config defaults, so the goldens cover layout and rasterization and do
+ * not change when the default colors do.
+ */
+public final class TemplateGoldenImages {
+    private static final int PADDING = 4;
+    private static final int BACKGROUND = 0xFF202020;
+    private static final int KEY_BACKGROUND = 0x80000000;
+    private static final int KEY_PRESSED = 0xC0FFFFFF;
+    private static final int KEY_BORDER = 0xFF000000;
+    private static final int KEY_TEXT = 0xFFFFFFFF;
+
+    private TemplateGoldenImages() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TemplateGoldenImages <golden dir> <output dir> [--update]");
+            System.exit(2);
+        }
+        Path goldenDir = Path.of(args[0]);
+        Path outputDir = Path.of(args[1]);
+        boolean update = args.length > 2 && "--update".equals(args[2]);
+        if (update) {
+            Files.createDirectories(goldenDir);
+        }
+        Files.createDirectories(outputDir);
+
+        List<String> failures = new ArrayList<>();
+        EditorModel model = new EditorModel(new OverlayConfig());
+        for (Template template : model.templates("")) {
+            for (boolean pressed : new boolean[] {false, true}) {
+                String name = template.id + (pressed ? "_pressed" : "") + ".png";
+                SoftwareCanvas canvas = render(template, pressed);
+                Path golden = goldenDir.resolve(name);
+                if (update) {
+                    write(canvas, golden);
+                    System.out.println("recorded " + name);
+                    continue;
+                }
+                if (!Files.exists(golden)) {
+                    write(canvas, outputDir.resolve(name));
+                    failures.add(name + ": no golden, record it with --update");
+                    continue;
+                }
+                int mismatched = compare(canvas, ImageIO.read(golden.toFile()));
+                if (mismatched != 0) {
+                    write(canvas, outputDir.resolve(name));
+                    failures.add(name + (mismatched < 0 ? ": size changed" : ": " + mismatched + " pixels differ"));
+                }
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            failures.forEach(failure -> System.err.println("FAILED " + failure));
+            System.err.println("Actual images written to " + outputDir.toAbsolutePath());
+            System.exit(1);
+        }
+        System.out.println("Golden images match.");
+    }
+
+    static SoftwareCanvas render(Template template, boolean pressed) {
+        OverlayConfig config = new OverlayConfig();
+        config.backgroundColor = KEY_BACKGROUND;
+        config.pressedColor = KEY_PRESSED;
+        config.borderColor = KEY_BORDER;
+        config.textColor = KEY_TEXT;
+        config.keys.clear();
+        config.keys.addAll(template.createKeys());
+        ConfigSnapshot snapshot = ConfigStore.publish(config);
+
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (OverlayConfig.KeyDefinition key : config.keys) {
+            minX = Math.min(minX, key.x);
+            minY = Math.min(minY, key.y);
+            maxX = Math.max(maxX, key.x + key.width);
+            maxY = Math.max(maxY, key.y + key.height);
+        }
+
+        SoftwareCanvas canvas = new SoftwareCanvas(maxX - minX + PADDING * 2, maxY - minY + PADDING * 2);
+        canvas.clear(BACKGROUND);
+        canvas.setOrigin(PADDING - minX, PADDING - minY);
+        BatchingCanvas batch = new BatchingCanvas(canvas);
+        KeystrokeOverlayRenderer renderer = new KeystrokeOverlayRenderer(new InputTracker(new HeldInput(pressed)), () -> snapshot);
+        renderer.render(batch, snapshot);
+        batch.flush();
+        return canvas;
+    }
+
+    /**
+     * Returns the number of differing pixels, or -1 if the sizes differ.
+     */
+    private static int compare(SoftwareCanvas canvas, BufferedImage golden) {
+        if (golden.getWidth() != canvas.width() || golden.getHeight() != canvas.height()) {
+            return -1;
+        }
+        int[] expected = golden.getRGB(0, 0, canvas.width(), canvas.height(), null, 0, canvas.width());
+        int[] actual = canvas.pixels();
+        int mismatched = 0;
+        for (int i = 0; i < actual.length; i++) {
+            if (actual[i] != expected[i]) {
+                mismatched++;
+            }
+        }
+        return mismatched;
+    }
+
+    private static void write(SoftwareCanvas canvas, Path path) throws IOException {
+        BufferedImage image = new BufferedImage(canvas.width(), canvas.height(), BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, canvas.width(), canvas.height(), canvas.pixels(), 0, canvas.width());
+        ImageIO.write(image, "png", path.toFile());
+    }
+
+    private static final class HeldInput implements InputSource {
+        private final boolean pressed;
+
+        private HeldInput(boolean pressed) {
+            this.pressed = pressed;
+        }
+
+        @Override
+        public boolean isKeyPressed(int code) {
+            return pressed;
+        }
+
+        @Override
+        public boolean isMousePressed(int button) {
+            return pressed;
+        }
+
+        @Override
+        public boolean isSuppressed() {
+            return false;
+        }
+    }
+}
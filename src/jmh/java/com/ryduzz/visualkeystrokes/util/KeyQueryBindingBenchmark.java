@@ -0,0 +1,123 @@
+package com.ryduzz.visualkeystrokes.util;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.util.InputUtil;
+import net.minecraft.client.util.Window;
+import org.lwjgl.glfw.GLFW;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The real {@link InputUtilCompat#isKeyPressed} against the {@code Method.invoke} dispatch it replaced, both querying
+ * a hidden GLFW window, with a direct {@code glfwGetKey} as the floor. The client and window objects are allocated
+ * without running their constructors and only carry the window handle, which is all the key query reads.
+ * <p>
+ * Needs a display for GLFW; on a headless machine run it under a virtual one such as Xvfb.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyQueryBindingBenchmark {
+    private static final Method IS_KEY_PRESSED_WINDOW = findMethod("isKeyPressed", Window.class, int.class);
+    private static final Method IS_KEY_PRESSED_HANDLE = findMethod("isKeyPressed", long.class, int.class);
+
+    private long handle;
+    private MinecraftClient client;
+    private int key;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        if (!GLFW.glfwInit()) {
+            throw new IllegalStateException("GLFW failed to initialize; this benchmark needs a display");
+        }
+        GLFW.glfwWindowHint(GLFW.GLFW_VISIBLE, GLFW.GLFW_FALSE);
+        handle = GLFW.glfwCreateWindow(16, 16, "KeyQueryBindingBenchmark", 0L, 0L);
+        if (handle == 0L) {
+            throw new IllegalStateException("Could not create a hidden GLFW window");
+        }
+        Window window = allocate(Window.class);
+        setField(Window.class, window, "handle", handle);
+        client = allocate(MinecraftClient.class);
+        setField(MinecraftClient.class, client, "window", window);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        GLFW.glfwDestroyWindow(handle);
+        GLFW.glfwTerminate();
+    }
+
+    /**
+     * The pre-binding implementation: a reflective call per query, boxing the key code and the result.
+     */
+    @Benchmark
+    public boolean reflective() throws ReflectiveOperationException {
+        key = nextKey();
+        if (IS_KEY_PRESSED_WINDOW != null) {
+            return (boolean) IS_KEY_PRESSED_WINDOW.invoke(null, client.getWindow(), key);
+        }
+        if (IS_KEY_PRESSED_HANDLE != null) {
+            return (boolean) IS_KEY_PRESSED_HANDLE.invoke(null, client.getWindow().getHandle(), key);
+        }
+        return GLFW.glfwGetKey(client.getWindow().getHandle(), key) == GLFW.GLFW_PRESS;
+    }
+
+    @Benchmark
+    public boolean bound() {
+        key = nextKey();
+        return InputUtilCompat.isKeyPressed(client, key);
+    }
+
+    @Benchmark
+    public boolean direct() {
+        key = nextKey();
+        return GLFW.glfwGetKey(handle, key) == GLFW.GLFW_PRESS;
+    }
+
+    /**
+     * Cycles through the printable key codes, which every GLFW version accepts.
+     */
+    private int nextKey() {
+        return GLFW.GLFW_KEY_A + ((key + 1 - GLFW.GLFW_KEY_A) & 15);
+    }
+
+    private static Method findMethod(String name, Class<?>... params) {
+        try {
+            return InputUtil.class.getMethod(name, params);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T allocate(Class<T> type) throws ReflectiveOperationException {
+        Field unsafeField = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+        unsafeField.setAccessible(true);
+        Object unsafe = unsafeField.get(null);
+        return (T) unsafe.getClass().getMethod("allocateInstance", Class.class).invoke(unsafe, type);
+    }
+
+    private static void setField(Class<?> owner, Object target, String name, Object value)
+        throws ReflectiveOperationException {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
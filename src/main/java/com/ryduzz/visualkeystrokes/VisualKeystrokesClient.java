@@ -1,39 +1,82 @@
 package com.ryduzz.visualkeystrokes;
 
+import com.ryduzz.visualkeystrokes.config.ConfigPersistence;
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
 import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import com.ryduzz.visualkeystrokes.input.GlfwInputCapture;
+import com.ryduzz.visualkeystrokes.input.InputEventBus;
 import com.ryduzz.visualkeystrokes.input.InputTracker;
+import com.ryduzz.visualkeystrokes.input.IntervalExport;
+import com.ryduzz.visualkeystrokes.perf.PerfMonitor;
+import com.ryduzz.visualkeystrokes.perf.PerfPanel;
+import com.ryduzz.visualkeystrokes.recording.SessionPlayback;
+import com.ryduzz.visualkeystrokes.recording.SessionRecorder;
+import com.ryduzz.visualkeystrokes.render.DrawContextCanvas;
 import com.ryduzz.visualkeystrokes.render.KeystrokeOverlayRenderer;
 import com.ryduzz.visualkeystrokes.screen.VisualKeystrokesEditor;
 import com.ryduzz.visualkeystrokes.screen.VisualKeystrokesEditorScreens;
 import com.ryduzz.visualkeystrokes.util.KeyBindingCompat;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
 import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
 import net.fabricmc.fabric.api.client.screen.v1.Screens;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.screen.GameMenuScreen;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
 import net.minecraft.text.Text;
 import org.lwjgl.glfw.GLFW;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
 
 public final class VisualKeystrokesClient implements ClientModInitializer {
+    private static final Logger LOGGER = LoggerFactory.getLogger("visualkeystrokes");
+    private static final int INPUT_EVENT_CAPACITY = 4096;
     private static OverlayConfig config;
+    private static DrawContextCanvas perfCanvas;
     @Override
     public void onInitializeClient() {
+        // Read before loadOrCreate(), which may rewrite the file without the option.
+        ConfigStore.setFrameCacheEnabled(ConfigPersistence.readFrameCacheEnabled());
         config = OverlayConfig.loadOrCreate();
+        ConfigStore.publish(config);
 
         MinecraftClient client = MinecraftClient.getInstance();
         InputTracker tracker = new InputTracker(client);
-        KeystrokeOverlayRenderer renderer = new KeystrokeOverlayRenderer(tracker, () -> config);
+        KeystrokeOverlayRenderer renderer = new KeystrokeOverlayRenderer(tracker, ConfigStore::current);
+        InputEventBus inputEvents = new InputEventBus(INPUT_EVENT_CAPACITY);
+        GlfwInputCapture capture = new GlfwInputCapture(tracker, inputEvents);
+        SessionRecorder recorder = new SessionRecorder(inputEvents, ConfigPersistence.configPath().resolveSibling("sessions"));
+        SessionPlayback playback = new SessionPlayback(recorder.directory());
+
+        ClientLifecycleEvents.CLIENT_STARTED.register(startedClient ->
+            capture.install(startedClient.getWindow().getHandle())
+        );
+        ClientLifecycleEvents.CLIENT_STOPPING.register(stoppingClient -> {
+            recorder.close();
+            ConfigPersistence.flush();
+        });
+
+        PerfPanel perfPanel = new PerfPanel();
 
         HudRenderCallback.EVENT.register((context, tickDelta) -> {
-            if (config.enabled && !(client.currentScreen instanceof VisualKeystrokesEditor)) {
+            if (!(client.currentScreen instanceof VisualKeystrokesEditor)
+                && !playback.render(context)
+                && ConfigStore.current().enabled()) {
                 renderer.render(context);
             }
+            if (PerfMonitor.isPanelVisible()) {
+                DrawContextCanvas canvas = perfCanvas(client.textRenderer);
+                canvas.bind(context);
+                perfPanel.render(canvas);
+            }
         });
 
         KeyBinding toggleKey = KeyBindingHelper.registerKeyBinding(
@@ -43,12 +86,84 @@ public final class VisualKeystrokesClient implements ClientModInitializer {
                 GLFW.GLFW_KEY_F8
             )
         );
+        KeyBinding perfPanelKey = KeyBindingHelper.registerKeyBinding(
+            KeyBindingCompat.createKeyBinding(
+                "key.visualkeystrokes.perf_panel",
+                InputUtil.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN
+            )
+        );
+        KeyBinding recordKey = KeyBindingHelper.registerKeyBinding(
+            KeyBindingCompat.createKeyBinding(
+                "key.visualkeystrokes.record",
+                InputUtil.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN
+            )
+        );
+        KeyBinding replayKey = KeyBindingHelper.registerKeyBinding(
+            KeyBindingCompat.createKeyBinding(
+                "key.visualkeystrokes.replay",
+                InputUtil.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN
+            )
+        );
+        KeyBinding replaySpeedKey = KeyBindingHelper.registerKeyBinding(
+            KeyBindingCompat.createKeyBinding(
+                "key.visualkeystrokes.replay_speed",
+                InputUtil.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN
+            )
+        );
+        KeyBinding exportIntervalsKey = KeyBindingHelper.registerKeyBinding(
+            KeyBindingCompat.createKeyBinding(
+                "key.visualkeystrokes.export_intervals",
+                InputUtil.Type.KEYSYM,
+                GLFW.GLFW_KEY_UNKNOWN
+            )
+        );
 
         ClientTickEvents.END_CLIENT_TICK.register(tickClient -> {
             tracker.update();
             while (toggleKey.wasPressed()) {
                 config.enabled = !config.enabled;
-                OverlayConfig.save(config);
+                ConfigStore.commit(config);
+            }
+            while (perfPanelKey.wasPressed()) {
+                PerfMonitor.setPanelVisible(!PerfMonitor.isPanelVisible());
+            }
+            while (recordKey.wasPressed()) {
+                if (recorder.isRecording()) {
+                    recorder.stop();
+                } else {
+                    recorder.start();
+                }
+                if (tickClient.player != null) {
+                    tickClient.player.sendMessage(Text.literal(recorder.isRecording()
+                        ? "Recording keystrokes to " + recorder.directory().getFileName()
+                        : "Keystroke recording stopped"), true);
+                }
+            }
+            while (replayKey.wasPressed()) {
+                playback.toggle();
+            }
+            while (replaySpeedKey.wasPressed()) {
+                double speed = playback.cycleSpeed();
+                if (tickClient.player != null) {
+                    tickClient.player.sendMessage(Text.literal("Replay speed " + speed + "x"), true);
+                }
+            }
+            while (exportIntervalsKey.wasPressed()) {
+                Path exports = ConfigPersistence.configPath().resolveSibling("exports");
+                IntervalExport.exportAsync(tracker, exports).whenComplete((file, error) -> tickClient.execute(() -> {
+                    if (error != null) {
+                        LOGGER.error("Failed to export click intervals to {}", exports, error);
+                    }
+                    if (tickClient.player != null) {
+                        tickClient.player.sendMessage(Text.literal(error == null
+                            ? "Exported click intervals to " + file.getFileName()
+                            : "Click interval export failed"), true);
+                    }
+                }));
             }
         });
 
@@ -75,4 +190,15 @@ public final class VisualKeystrokesClient implements ClientModInitializer {
             ).dimensions(x, y, buttonWidth, buttonHeight).build());
         });
     }
+
+    /**
+     * The perf panel's canvas. The text renderer does not exist yet at init, so it is created on the first frame and
+     * again only if the client replaces its text renderer, like the overlay renderer's.
+     */
+    private static DrawContextCanvas perfCanvas(TextRenderer textRenderer) {
+        if (perfCanvas == null || perfCanvas.textRenderer() != textRenderer) {
+            perfCanvas = new DrawContextCanvas(textRenderer);
+        }
+        return perfCanvas;
+    }
 }
@@ -0,0 +1,199 @@
+package com.ryduzz.visualkeystrokes.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.ryduzz.visualkeystrokes.perf.PerfMetric;
+import com.ryduzz.visualkeystrokes.perf.PerfMonitor;
+import net.fabricmc.loader.api.FabricLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes committed config snapshots off the game thread. Requests are coalesced so at most one write happens per
+ * debounce window, and are written with a temp-file-then-rename so a crash never leaves a truncated config behind.
+ * {@link #flush()} must be called on shutdown to persist the last pending change.
+ * <p>
+ * The calling thread only copies the config's fields; turning the copy into JSON happens on the saver thread. The
+ * frame cache option, which {@link OverlayConfig} does not have, is written as an extra {@code frameCacheEnabled}
+ * member of the same file.
+ */
+public final class ConfigPersistence {
+    private static final Logger LOGGER = LoggerFactory.getLogger("visualkeystrokes");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String FRAME_CACHE_MEMBER = "frameCacheEnabled";
+    private static final long DEBOUNCE_MILLIS = 500L;
+    private static final Object WRITE_LOCK = new Object();
+    private static final AtomicReference<PendingSave> PENDING = new AtomicReference<>();
+    private static final AtomicBoolean SCHEDULED = new AtomicBoolean();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "VisualKeystrokes-ConfigSaver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static long lastWrittenSequence;
+
+    private ConfigPersistence() {
+    }
+
+    public static Path configPath() {
+        return FabricLoader.getInstance().getGameDir().resolve("visualkeystrokes").resolve("visualkeystrokes.json");
+    }
+
+    /**
+     * Reads the saved frame cache option, or {@code false} if the file or the member does not exist yet.
+     */
+    public static boolean readFrameCacheEnabled() {
+        Path path = configPath();
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            JsonElement json = JsonParser.parseReader(reader);
+            if (json.isJsonObject() && json.getAsJsonObject().has(FRAME_CACHE_MEMBER)) {
+                return json.getAsJsonObject().get(FRAME_CACHE_MEMBER).getAsBoolean();
+            }
+        } catch (IOException | JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            LOGGER.warn("Failed to read the Visual Keystrokes frame cache option from {}", path, e);
+        }
+        return false;
+    }
+
+    /**
+     * Schedules {@code config} and the frame cache option to be written in the background. Must be called on the
+     * thread that owns {@code config}; later changes to it do not affect the save.
+     */
+    public static void requestSave(OverlayConfig config, boolean frameCache) {
+        PENDING.set(new PendingSave(SEQUENCE.incrementAndGet(), copyOf(config), frameCache));
+        if (SCHEDULED.compareAndSet(false, true)) {
+            EXECUTOR.schedule(ConfigPersistence::writePending, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes any pending snapshot on the calling thread.
+     */
+    public static void flush() {
+        PendingSave pending = PENDING.getAndSet(null);
+        if (pending != null) {
+            write(pending);
+        }
+    }
+
+    /**
+     * A detached copy of every field the overlay saves, for serializing on another thread.
+     */
+    static OverlayConfig copyOf(OverlayConfig config) {
+        OverlayConfig copy = new OverlayConfig();
+        copy.enabled = config.enabled;
+        copy.scale = config.scale;
+        copy.offsetX = config.offsetX;
+        copy.offsetY = config.offsetY;
+        copy.backgroundColor = config.backgroundColor;
+        copy.pressedColor = config.pressedColor;
+        copy.borderColor = config.borderColor;
+        copy.textColor = config.textColor;
+        copy.snappingEnabled = config.snappingEnabled;
+        copy.guidesEnabled = config.guidesEnabled;
+        copy.distanceLabelsEnabled = config.distanceLabelsEnabled;
+        copy.snapThreshold = config.snapThreshold;
+        copy.keys.clear();
+        for (OverlayConfig.KeyDefinition key : config.keys) {
+            copy.keys.add(copyOf(key));
+        }
+        return copy;
+    }
+
+    private static OverlayConfig.KeyDefinition copyOf(OverlayConfig.KeyDefinition key) {
+        OverlayConfig.KeyDefinition copy = key.type == OverlayConfig.InputType.STAT
+            ? new OverlayConfig.KeyDefinition(key.label, key.statId, key.x, key.y, key.width, key.height, key.group)
+            : new OverlayConfig.KeyDefinition(key.label, key.type, key.code, key.x, key.y, key.width, key.height, key.group);
+        copy.backgroundColorOverride = key.backgroundColorOverride;
+        copy.pressedColorOverride = key.pressedColorOverride;
+        copy.borderColorOverride = key.borderColorOverride;
+        copy.textColorOverride = key.textColorOverride;
+        copy.setVisible(key.isVisible());
+        return copy;
+    }
+
+    private static void writePending() {
+        SCHEDULED.set(false);
+        PendingSave pending = PENDING.getAndSet(null);
+        if (pending != null) {
+            write(pending);
+        }
+    }
+
+    private static void write(PendingSave pending) {
+        synchronized (WRITE_LOCK) {
+            // A flush may have overtaken a background write that already picked up an older snapshot.
+            if (pending.sequence <= lastWrittenSequence) {
+                return;
+            }
+            Path target = configPath();
+            long start = PerfMonitor.start();
+            try {
+                writeAtomically(target, pending.config, pending.frameCache);
+                lastWrittenSequence = pending.sequence;
+            } catch (IOException e) {
+                LOGGER.error("Failed to save Visual Keystrokes config to {}", target, e);
+            } finally {
+                PerfMonitor.stop(PerfMetric.CONFIG_SAVE, start);
+            }
+        }
+    }
+
+    static void writeAtomically(Path target, OverlayConfig config, boolean frameCache) throws IOException {
+        JsonObject json = GSON.toJsonTree(config).getAsJsonObject();
+        json.addProperty(FRAME_CACHE_MEMBER, frameCache);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "visualkeystrokes", ".json.tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(json, writer);
+            }
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static final class PendingSave {
+        private final long sequence;
+        private final OverlayConfig config;
+        private final boolean frameCache;
+
+        private PendingSave(long sequence, OverlayConfig config, boolean frameCache) {
+            this.sequence = sequence;
+            this.config = config;
+            this.frameCache = frameCache;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.ryduzz.visualkeystrokes.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, versioned copy of an {@link OverlayConfig} taken when the editor or a toggle commits a change. Safe to
+ * read from any thread; per-key colors are already resolved against the config defaults.
+ */
+public final class ConfigSnapshot {
+    private final long version;
+    private final boolean enabled;
+    private final float scale;
+    private final int offsetX;
+    private final int offsetY;
+    private final boolean frameCache;
+    private final List<Key> keys;
+
+    private ConfigSnapshot(long version, OverlayConfig config, boolean frameCache) {
+        this.version = version;
+        this.enabled = config.enabled;
+        this.scale = config.scale;
+        this.offsetX = config.offsetX;
+        this.offsetY = config.offsetY;
+        this.frameCache = frameCache;
+        List<Key> keys = new ArrayList<>(config.keys.size());
+        for (OverlayConfig.KeyDefinition key : config.keys) {
+            keys.add(new Key(config, key));
+        }
+        this.keys = Collections.unmodifiableList(keys);
+    }
+
+    static ConfigSnapshot capture(long version, OverlayConfig config, boolean frameCache) {
+        return new ConfigSnapshot(version, config, frameCache);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public float scale() {
+        return scale;
+    }
+
+    public int offsetX() {
+        return offsetX;
+    }
+
+    public int offsetY() {
+        return offsetY;
+    }
+
+    /**
+     * Whether the HUD may reuse the previous frame while nothing it shows has changed.
+     */
+    public boolean frameCache() {
+        return frameCache;
+    }
+
+    public List<Key> keys() {
+        return keys;
+    }
+
+    public static final class Key {
+        private final String label;
+        private final OverlayConfig.InputType type;
+        private final int code;
+        private final String statId;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        private final boolean visible;
+        private final int backgroundColor;
+        private final int pressedColor;
+        private final int borderColor;
+        private final int textColor;
+
+        private Key(OverlayConfig config, OverlayConfig.KeyDefinition key) {
+            this.label = key.label;
+            this.type = key.type;
+            this.code = key.code;
+            this.statId = key.statId;
+            this.x = key.x;
+            this.y = key.y;
+            this.width = key.width;
+            this.height = key.height;
+            this.visible = key.isVisible();
+            this.backgroundColor = OverlayConfig.resolveColor(key.backgroundColorOverride, config.backgroundColor);
+            this.pressedColor = OverlayConfig.resolveColor(key.pressedColorOverride, config.pressedColor);
+            this.borderColor = OverlayConfig.resolveColor(key.borderColorOverride, config.borderColor);
+            this.textColor = OverlayConfig.resolveColor(key.textColorOverride, config.textColor);
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public OverlayConfig.InputType type() {
+            return type;
+        }
+
+        public int code() {
+            return code;
+        }
+
+        public String statId() {
+            return statId;
+        }
+
+        public int x() {
+            return x;
+        }
+
+        public int y() {
+            return y;
+        }
+
+        public int width() {
+            return width;
+        }
+
+        public int height() {
+            return height;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public int backgroundColor() {
+            return backgroundColor;
+        }
+
+        public int pressedColor() {
+            return pressedColor;
+        }
+
+        public int borderColor() {
+            return borderColor;
+        }
+
+        public int textColor() {
+            return textColor;
+        }
+    }
+}
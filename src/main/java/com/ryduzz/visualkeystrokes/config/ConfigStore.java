@@ -0,0 +1,54 @@
+package com.ryduzz.visualkeystrokes.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes immutable {@link ConfigSnapshot}s of the live {@link OverlayConfig}. The live config is the draft that
+ * the editor and keybinds mutate on the game thread; everything else (HUD rendering, saving) reads the last
+ * published snapshot through a volatile reference and never takes a lock.
+ */
+public final class ConfigStore {
+    private static final AtomicLong VERSION = new AtomicLong();
+    private static volatile ConfigSnapshot current;
+    private static volatile boolean frameCacheEnabled;
+
+    private ConfigStore() {
+    }
+
+    public static ConfigSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Whether the HUD may reuse its previous frame. Kept here rather than on {@link OverlayConfig}, and saved next to
+     * its fields by {@link ConfigPersistence}.
+     */
+    public static boolean frameCacheEnabled() {
+        return frameCacheEnabled;
+    }
+
+    /**
+     * Changes the frame cache option; it reaches the HUD with the next publish and is saved with the next commit.
+     */
+    public static void setFrameCacheEnabled(boolean enabled) {
+        frameCacheEnabled = enabled;
+    }
+
+    /**
+     * Captures and publishes a snapshot of {@code config} without saving it.
+     */
+    public static ConfigSnapshot publish(OverlayConfig config) {
+        ConfigSnapshot snapshot = ConfigSnapshot.capture(VERSION.incrementAndGet(), config, frameCacheEnabled);
+        current = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Publishes a snapshot of {@code config} and schedules it to be saved.
+     */
+    public static ConfigSnapshot commit(OverlayConfig config) {
+        ConfigSnapshot snapshot = publish(config);
+        ConfigPersistence.requestSave(config, snapshot.frameCache());
+        return snapshot;
+    }
+}
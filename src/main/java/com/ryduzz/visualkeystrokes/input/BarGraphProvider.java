@@ -0,0 +1,22 @@
+package com.ryduzz.visualkeystrokes.input;
+
+/**
+ * A {@link StatProvider} that also draws a row of bars between its label and value. Bar levels follow the same
+ * contract as {@link #value()}: they only change in {@link #update(long)}, and {@link #graphVersion()} changes with
+ * them.
+ */
+public interface BarGraphProvider extends StatProvider {
+    /**
+     * Level of a full-height bar.
+     */
+    int MAX_LEVEL = 1000;
+
+    int barCount();
+
+    /**
+     * Height of {@code bar} from {@code 0} to {@link #MAX_LEVEL}.
+     */
+    int barLevel(int bar);
+
+    long graphVersion();
+}
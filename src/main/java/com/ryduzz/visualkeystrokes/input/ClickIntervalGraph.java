@@ -0,0 +1,77 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import java.util.Arrays;
+
+/**
+ * Bar graph of one button's {@link IntervalHistogram}: linear bars of {@link #BAR_MICROS} each, the last one also
+ * holding every longer interval, scaled to the tallest bar. The value text is the median interval in milliseconds.
+ */
+final class ClickIntervalGraph implements BarGraphProvider {
+    private static final int BARS = 16;
+    private static final long BAR_MICROS = 16_000L;
+    private static final long UPDATE_INTERVAL_NANOS = 250_000_000L;
+
+    private final IntervalHistogram histogram;
+    private final long[] barCounts = new long[BARS];
+    private final int[] levels = new int[BARS];
+    private long refreshedCount = -1;
+    private long version;
+    private String value = RollingClickStat.decimal(0);
+
+    ClickIntervalGraph(IntervalHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    @Override
+    public long updateIntervalNanos() {
+        return UPDATE_INTERVAL_NANOS;
+    }
+
+    @Override
+    public void update(long nowNanos) {
+        long total = histogram.totalCount();
+        if (total == refreshedCount) {
+            return;
+        }
+        refreshedCount = total;
+
+        Arrays.fill(barCounts, 0L);
+        for (int i = 0; i < histogram.bucketCount(); i++) {
+            long count = histogram.count(i);
+            if (count == 0) {
+                continue;
+            }
+            long middle = (histogram.bucketLowerMicros(i) + histogram.bucketUpperMicros(i)) / 2;
+            barCounts[(int) Math.min(BARS - 1, middle / BAR_MICROS)] += count;
+        }
+        long tallest = 0;
+        for (long count : barCounts) {
+            tallest = Math.max(tallest, count);
+        }
+        for (int i = 0; i < BARS; i++) {
+            levels[i] = tallest == 0 ? 0 : (int) (barCounts[i] * MAX_LEVEL / tallest);
+        }
+        value = RollingClickStat.decimal((int) (histogram.percentileMicros(0.5) / 100L));
+        version++;
+    }
+
+    @Override
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public int barCount() {
+        return BARS;
+    }
+
+    @Override
+    public int barLevel(int bar) {
+        return levels[bar];
+    }
+
+    @Override
+    public long graphVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.util.IntStrings;
+
+/**
+ * Clicks per second for one mouse button, read from its sliding click window.
+ */
+final class ClickRateStat implements StatProvider {
+    private final ClickWindow clicks;
+    private String value = IntStrings.of(0);
+
+    ClickRateStat(ClickWindow clicks) {
+        this.clicks = clicks;
+    }
+
+    @Override
+    public long updateIntervalNanos() {
+        return 0L;
+    }
+
+    @Override
+    public void update(long nowNanos) {
+        clicks.expire(nowNanos);
+        value = IntStrings.of(clicks.size());
+    }
+
+    @Override
+    public String value() {
+        return value;
+    }
+}
@@ -0,0 +1,187 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import java.util.Arrays;
+
+/**
+ * Incremental statistics over one button's click stream: clicks in the last second, session peak of that rate,
+ * moving averages over longer windows and the standard deviation of the interval between clicks (jitter).
+ * <p>
+ * Time is split into fixed buckets held in a ring covering the longest window. Each bucket counts its clicks and the
+ * sum and sum of squares of their intervals, and every window keeps running totals that gain a click when it
+ * happens and lose a bucket when it ages out. A click or a query is O(1); advancing costs one step per elapsed
+ * bucket. Nothing allocates.
+ */
+final class ClickStats {
+    private static final long CURRENT_WINDOW_NANOS = 1_000_000_000L;
+    /**
+     * Intervals longer than this are pauses between bursts, not part of the click rhythm, and are left out of jitter.
+     */
+    private static final long MAX_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final long bucketNanos;
+    /**
+     * Window lengths in buckets; index 0 is the one-second current window, the rest are the average windows.
+     */
+    private final int[] windowBuckets;
+    private final int[] bucketClicks;
+    private final int[] bucketIntervals;
+    private final long[] bucketIntervalSum;
+    private final long[] bucketIntervalSquares;
+    private final long[] windowClicks;
+    private final long[] windowIntervals;
+    private final long[] windowIntervalSum;
+    private final long[] windowIntervalSquares;
+    private long currentBucket = Long.MIN_VALUE;
+    private long lastClickNanos = Long.MIN_VALUE;
+    private int peakCps;
+
+    /**
+     * @param bucketNanos           resolution of every window
+     * @param averageWindowsSeconds lengths of the moving-average windows; jitter is taken over the first
+     */
+    ClickStats(long bucketNanos, int... averageWindowsSeconds) {
+        if (bucketNanos <= 0 || CURRENT_WINDOW_NANOS % bucketNanos != 0) {
+            throw new IllegalArgumentException("Bucket must divide one second: " + bucketNanos);
+        }
+        if (averageWindowsSeconds.length == 0) {
+            throw new IllegalArgumentException("At least one average window is required");
+        }
+        this.bucketNanos = bucketNanos;
+        this.windowBuckets = new int[averageWindowsSeconds.length + 1];
+        windowBuckets[0] = (int) (CURRENT_WINDOW_NANOS / bucketNanos);
+        int ring = windowBuckets[0];
+        for (int i = 0; i < averageWindowsSeconds.length; i++) {
+            if (averageWindowsSeconds[i] <= 0) {
+                throw new IllegalArgumentException("Average window must be positive: " + averageWindowsSeconds[i]);
+            }
+            windowBuckets[i + 1] = averageWindowsSeconds[i] * windowBuckets[0];
+            ring = Math.max(ring, windowBuckets[i + 1]);
+        }
+        this.bucketClicks = new int[ring];
+        this.bucketIntervals = new int[ring];
+        this.bucketIntervalSum = new long[ring];
+        this.bucketIntervalSquares = new long[ring];
+        this.windowClicks = new long[windowBuckets.length];
+        this.windowIntervals = new long[windowBuckets.length];
+        this.windowIntervalSum = new long[windowBuckets.length];
+        this.windowIntervalSquares = new long[windowBuckets.length];
+    }
+
+    long bucketNanos() {
+        return bucketNanos;
+    }
+
+    int averageWindowCount() {
+        return windowBuckets.length - 1;
+    }
+
+    /**
+     * Length of average window {@code window} in seconds.
+     */
+    int averageWindowSeconds(int window) {
+        return windowBuckets[window + 1] / windowBuckets[0];
+    }
+
+    void onClick(long nowNanos) {
+        advance(nowNanos);
+        int slot = slot(currentBucket);
+        bucketClicks[slot]++;
+        for (int i = 0; i < windowClicks.length; i++) {
+            windowClicks[i]++;
+        }
+
+        long interval = nowNanos - lastClickNanos;
+        if (lastClickNanos != Long.MIN_VALUE && interval >= 0 && interval <= MAX_INTERVAL_NANOS) {
+            // Microseconds keep the squares exact in a long over any window.
+            long micros = interval / 1_000L;
+            long square = micros * micros;
+            bucketIntervals[slot]++;
+            bucketIntervalSum[slot] += micros;
+            bucketIntervalSquares[slot] += square;
+            for (int i = 0; i < windowIntervals.length; i++) {
+                windowIntervals[i]++;
+                windowIntervalSum[i] += micros;
+                windowIntervalSquares[i] += square;
+            }
+        }
+        lastClickNanos = nowNanos;
+        peakCps = Math.max(peakCps, (int) windowClicks[0]);
+    }
+
+    /**
+     * Ages out every bucket that has fallen behind {@code nowNanos}.
+     */
+    void advance(long nowNanos) {
+        long target = Math.floorDiv(nowNanos, bucketNanos);
+        if (currentBucket == Long.MIN_VALUE || target - currentBucket >= bucketClicks.length) {
+            clearWindows();
+            currentBucket = target;
+            return;
+        }
+        while (currentBucket < target) {
+            currentBucket++;
+            for (int i = 0; i < windowBuckets.length; i++) {
+                int leaving = slot(currentBucket - windowBuckets[i]);
+                windowClicks[i] -= bucketClicks[leaving];
+                windowIntervals[i] -= bucketIntervals[leaving];
+                windowIntervalSum[i] -= bucketIntervalSum[leaving];
+                windowIntervalSquares[i] -= bucketIntervalSquares[leaving];
+            }
+            int slot = slot(currentBucket);
+            bucketClicks[slot] = 0;
+            bucketIntervals[slot] = 0;
+            bucketIntervalSum[slot] = 0L;
+            bucketIntervalSquares[slot] = 0L;
+        }
+    }
+
+    int peakCps() {
+        return peakCps;
+    }
+
+    /**
+     * Mean clicks per second over average window {@code window}, in tenths.
+     */
+    int averageCpsTenths(int window) {
+        return (int) (windowClicks[window + 1] * 10 / averageWindowSeconds(window));
+    }
+
+    /**
+     * Standard deviation of the click interval over the first average window, in tenths of a millisecond, or
+     * {@code 0} with fewer than two intervals.
+     */
+    int jitterTenthsMillis() {
+        long count = windowIntervals[1];
+        if (count < 2) {
+            return 0;
+        }
+        double mean = (double) windowIntervalSum[1] / count;
+        double variance = Math.max(0.0, (double) windowIntervalSquares[1] / count - mean * mean);
+        return (int) Math.round(Math.sqrt(variance) / 100.0);
+    }
+
+    /**
+     * Forgets every click, including the session peak.
+     */
+    void clear() {
+        clearWindows();
+        currentBucket = Long.MIN_VALUE;
+        lastClickNanos = Long.MIN_VALUE;
+        peakCps = 0;
+    }
+
+    private void clearWindows() {
+        Arrays.fill(bucketClicks, 0);
+        Arrays.fill(bucketIntervals, 0);
+        Arrays.fill(bucketIntervalSum, 0L);
+        Arrays.fill(bucketIntervalSquares, 0L);
+        Arrays.fill(windowClicks, 0L);
+        Arrays.fill(windowIntervals, 0L);
+        Arrays.fill(windowIntervalSum, 0L);
+        Arrays.fill(windowIntervalSquares, 0L);
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) bucketClicks.length);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ryduzz.visualkeystrokes.input;
+
+/**
+ * Fixed-capacity ring buffer of click timestamps covering a sliding time window. Inserts and expiry are O(1)
+ * amortized and never allocate; once full, the oldest click is overwritten.
+ */
+final class ClickWindow {
+    private final long windowNanos;
+    private final long[] times;
+    private final int mask;
+    private int head;
+    private int size;
+
+    ClickWindow(int capacity, long windowNanos) {
+        int powerOfTwo = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.windowNanos = windowNanos;
+        this.times = new long[powerOfTwo];
+        this.mask = powerOfTwo - 1;
+    }
+
+    void add(long timeNanos) {
+        if (size == times.length) {
+            head = (head + 1) & mask;
+            size--;
+        }
+        times[(head + size) & mask] = timeNanos;
+        size++;
+    }
+
+    void expire(long nowNanos) {
+        while (size > 0 && nowNanos - times[head] > windowNanos) {
+            head = (head + 1) & mask;
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+}
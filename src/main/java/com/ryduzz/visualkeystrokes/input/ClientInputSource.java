@@ -0,0 +1,30 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.screen.VisualKeystrokesEditor;
+import com.ryduzz.visualkeystrokes.util.InputUtilCompat;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.GameMenuScreen;
+import org.lwjgl.glfw.GLFW;
+
+final class ClientInputSource implements InputSource {
+    private final MinecraftClient client;
+
+    ClientInputSource(MinecraftClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public boolean isKeyPressed(int code) {
+        return InputUtilCompat.isKeyPressed(client, code);
+    }
+
+    @Override
+    public boolean isMousePressed(int button) {
+        return GLFW.glfwGetMouseButton(client.getWindow().getHandle(), button) == GLFW.GLFW_PRESS;
+    }
+
+    @Override
+    public boolean isSuppressed() {
+        return client.currentScreen instanceof GameMenuScreen || client.currentScreen instanceof VisualKeystrokesEditor;
+    }
+}
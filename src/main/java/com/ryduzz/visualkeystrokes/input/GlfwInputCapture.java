@@ -0,0 +1,55 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import org.lwjgl.glfw.GLFW;
+import org.lwjgl.glfw.GLFWKeyCallback;
+import org.lwjgl.glfw.GLFWMouseButtonCallback;
+
+/**
+ * Chains onto the window's existing GLFW key and mouse button callbacks and publishes every edge to the
+ * {@link InputEventBus} with a {@link System#nanoTime()} timestamp, so clicks between client ticks are never missed.
+ * The tracker is one of the bus consumers and is drained immediately; any others read the bus at their own pace.
+ */
+public final class GlfwInputCapture {
+    private final InputTracker tracker;
+    private final InputEventBus bus;
+    private GLFWKeyCallback keyCallback;
+    private GLFWMouseButtonCallback mouseButtonCallback;
+    private GLFWKeyCallback previousKeyCallback;
+    private GLFWMouseButtonCallback previousMouseButtonCallback;
+    private long installedHandle;
+
+    public GlfwInputCapture(InputTracker tracker, InputEventBus bus) {
+        this.tracker = tracker;
+        this.bus = bus;
+    }
+
+    public void install(long handle) {
+        if (installedHandle == handle) {
+            return;
+        }
+        keyCallback = GLFWKeyCallback.create(this::onKey);
+        mouseButtonCallback = GLFWMouseButtonCallback.create(this::onMouseButton);
+        previousKeyCallback = GLFW.glfwSetKeyCallback(handle, keyCallback);
+        previousMouseButtonCallback = GLFW.glfwSetMouseButtonCallback(handle, mouseButtonCallback);
+        installedHandle = handle;
+        tracker.listen(bus);
+    }
+
+    private void onKey(long window, int key, int scancode, int action, int mods) {
+        // Apply before delegating so the edge is judged against the screen that received it.
+        bus.publish(System.nanoTime(), OverlayConfig.InputType.KEY, key, action);
+        tracker.drainEvents();
+        if (previousKeyCallback != null) {
+            previousKeyCallback.invoke(window, key, scancode, action, mods);
+        }
+    }
+
+    private void onMouseButton(long window, int button, int action, int mods) {
+        bus.publish(System.nanoTime(), OverlayConfig.InputType.MOUSE, button, action);
+        tracker.drainEvents();
+        if (previousMouseButtonCallback != null) {
+            previousMouseButtonCallback.invoke(window, button, action, mods);
+        }
+    }
+}
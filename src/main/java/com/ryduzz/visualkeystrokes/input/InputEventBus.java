@@ -0,0 +1,159 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Single-producer ring of raw input events, published from the GLFW callbacks and read by any number of consumers.
+ * Slots are preallocated and overwritten in place; each consumer keeps its own sequence in a {@link Cursor} and
+ * drains at its own pace, on its own thread if it likes.
+ * <p>
+ * The producer never waits and does not know how many consumers exist, so adding one costs the game thread nothing.
+ * A consumer that falls more than a ring's worth behind skips to the oldest retained event and counts the loss in
+ * {@link Cursor#dropped()}. Slots are stamped with their sequence on either side of a write, seqlock style, so a
+ * consumer racing the producer detects a torn read and retries instead of taking locks.
+ */
+public final class InputEventBus {
+    private static final VarHandle SLOT_SEQUENCE;
+    private static final VarHandle PUBLISHED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SLOT_SEQUENCE = lookup.findVarHandle(Slot.class, "sequence", long.class);
+            PUBLISHED = lookup.findVarHandle(InputEventBus.class, "published", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final OverlayConfig.InputType[] TYPES = OverlayConfig.InputType.values();
+
+    private final Slot[] slots;
+    private final int mask;
+    @SuppressWarnings("unused") // accessed through PUBLISHED
+    private volatile long published = -1L;
+    private long next;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public InputEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Appends one event. Must only ever be called from a single thread, the one GLFW delivers callbacks on.
+     */
+    public void publish(long timeNanos, OverlayConfig.InputType type, int code, int action) {
+        long sequence = next++;
+        Slot slot = slots[(int) sequence & mask];
+        SLOT_SEQUENCE.setOpaque(slot, -1L);
+        VarHandle.storeStoreFence();
+        slot.timeNanos = timeNanos;
+        slot.type = type.ordinal();
+        slot.code = code;
+        slot.action = action;
+        SLOT_SEQUENCE.setRelease(slot, sequence);
+        PUBLISHED.setRelease(this, sequence);
+    }
+
+    /**
+     * Sequence of the last published event, or {@code -1} before the first.
+     */
+    public long published() {
+        return (long) PUBLISHED.getAcquire(this);
+    }
+
+    /**
+     * Returns a new cursor positioned after the last published event, so it only sees what comes next.
+     */
+    public Cursor subscribe() {
+        return new Cursor(published() + 1);
+    }
+
+    /**
+     * One consumer's read position. Not thread-safe: each cursor belongs to the thread that polls it.
+     */
+    public final class Cursor {
+        private long sequence;
+        private long dropped;
+
+        private Cursor(long sequence) {
+            this.sequence = sequence;
+        }
+
+        /**
+         * Hands up to {@code limit} pending events to {@code handler} in order and returns how many were handled.
+         */
+        public int poll(InputEventHandler handler, int limit) {
+            int handled = 0;
+            long available = published();
+            while (handled < limit && sequence <= available) {
+                long oldest = available - slots.length + 1;
+                if (sequence < oldest) {
+                    dropped += oldest - sequence;
+                    sequence = oldest;
+                }
+                Slot slot = slots[(int) sequence & mask];
+                long before = (long) SLOT_SEQUENCE.getAcquire(slot);
+                long timeNanos = slot.timeNanos;
+                int type = slot.type;
+                int code = slot.code;
+                int action = slot.action;
+                VarHandle.loadLoadFence();
+                long after = (long) SLOT_SEQUENCE.getOpaque(slot);
+                if (before != sequence || after != sequence) {
+                    // Overwritten while we were reading it: the producer has lapped this cursor.
+                    available = published();
+                    if (available - slots.length + 1 <= sequence) {
+                        Thread.onSpinWait();
+                    }
+                    continue;
+                }
+                handler.onEvent(timeNanos, TYPES[type], code, action);
+                sequence++;
+                handled++;
+            }
+            return handled;
+        }
+
+        public int poll(InputEventHandler handler) {
+            return poll(handler, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Number of events published but not yet polled, capped at the ring size.
+         */
+        public long backlog() {
+            return Math.min(published() + 1 - sequence, slots.length);
+        }
+
+        /**
+         * Total events this cursor missed because it fell more than a ring's worth behind.
+         */
+        public long dropped() {
+            return dropped;
+        }
+    }
+
+    private static final class Slot {
+        @SuppressWarnings("unused") // accessed through SLOT_SEQUENCE
+        private long sequence = -1L;
+        private long timeNanos;
+        private int type;
+        private int code;
+        private int action;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+
+/**
+ * Receives events drained from an {@link InputEventBus.Cursor}. Arguments are copied out of the ring slot, so
+ * handlers may keep them but must not block: they run on whichever thread polls the cursor.
+ */
+@FunctionalInterface
+public interface InputEventHandler {
+    /**
+     * @param type   {@link OverlayConfig.InputType#KEY} or {@link OverlayConfig.InputType#MOUSE}
+     * @param code   GLFW key code or mouse button
+     * @param action {@code GLFW_PRESS}, {@code GLFW_RELEASE} or {@code GLFW_REPEAT}
+     */
+    void onEvent(long timeNanos, OverlayConfig.InputType type, int code, int action);
+}
@@ -0,0 +1,103 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.Arrays;
+
+/**
+ * Pressed state of every key and mouse button referenced by the layout, captured once per frame.
+ */
+public final class InputSnapshot {
+    private final long[] keyBits = new long[(GLFW.GLFW_KEY_LAST >> 6) + 1];
+    private final long[] mouseBits = new long[(GLFW.GLFW_MOUSE_BUTTON_LAST >> 6) + 1];
+
+    public boolean isPressed(OverlayConfig.InputType type, int code) {
+        return switch (type) {
+            case KEY -> isKeyPressed(code);
+            case MOUSE -> isMousePressed(code);
+            case STAT -> false;
+        };
+    }
+
+    public boolean isKeyPressed(int code) {
+        return get(keyBits, code, GLFW.GLFW_KEY_LAST);
+    }
+
+    public boolean isMousePressed(int button) {
+        return get(mouseBits, button, GLFW.GLFW_MOUSE_BUTTON_LAST);
+    }
+
+    /**
+     * Whether {@code other} has exactly the same keys and buttons pressed. Compares one 64-code block per step.
+     */
+    public boolean sameState(InputSnapshot other) {
+        return Arrays.equals(keyBits, other.keyBits) && Arrays.equals(mouseBits, other.mouseBits);
+    }
+
+    /**
+     * Applies one GLFW edge: a press sets the key or button, a release clears it and a repeat changes nothing.
+     */
+    public void apply(OverlayConfig.InputType type, int code, int action) {
+        if (action == GLFW.GLFW_PRESS) {
+            if (type == OverlayConfig.InputType.MOUSE) {
+                setMouse(code);
+            } else {
+                setKey(code);
+            }
+        } else if (action == GLFW.GLFW_RELEASE) {
+            if (type == OverlayConfig.InputType.MOUSE) {
+                clearMouse(code);
+            } else {
+                clearKey(code);
+            }
+        }
+    }
+
+    public void copyFrom(InputSnapshot other) {
+        System.arraycopy(other.keyBits, 0, keyBits, 0, keyBits.length);
+        System.arraycopy(other.mouseBits, 0, mouseBits, 0, mouseBits.length);
+    }
+
+    public void clear() {
+        Arrays.fill(keyBits, 0L);
+        Arrays.fill(mouseBits, 0L);
+    }
+
+    void setKey(int code) {
+        set(keyBits, code, GLFW.GLFW_KEY_LAST);
+    }
+
+    void clearKey(int code) {
+        clear(keyBits, code, GLFW.GLFW_KEY_LAST);
+    }
+
+    void setMouse(int button) {
+        set(mouseBits, button, GLFW.GLFW_MOUSE_BUTTON_LAST);
+    }
+
+    void clearMouse(int button) {
+        clear(mouseBits, button, GLFW.GLFW_MOUSE_BUTTON_LAST);
+    }
+
+    private static boolean get(long[] bits, int code, int last) {
+        if (code < 0 || code > last) {
+            return false;
+        }
+        return (bits[code >> 6] & (1L << code)) != 0;
+    }
+
+    private static void set(long[] bits, int code, int last) {
+        if (code < 0 || code > last) {
+            return;
+        }
+        bits[code >> 6] |= 1L << code;
+    }
+
+    private static void clear(long[] bits, int code, int last) {
+        if (code < 0 || code > last) {
+            return;
+        }
+        bits[code >> 6] &= ~(1L << code);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ryduzz.visualkeystrokes.input;
+
+/**
+ * Where the tracker reads pressed state from when it polls instead of receiving callbacks.
+ */
+public interface InputSource {
+    boolean isKeyPressed(int code);
+
+    boolean isMousePressed(int button);
+
+    /**
+     * Whether input should currently be ignored, e.g. while a menu or the editor is open.
+     */
+    boolean isSuppressed();
+}
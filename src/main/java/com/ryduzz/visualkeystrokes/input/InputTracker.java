@@ -1,87 +1,298 @@
 package com.ryduzz.visualkeystrokes.input;
 
 import com.ryduzz.visualkeystrokes.config.OverlayConfig;
-import com.ryduzz.visualkeystrokes.screen.VisualKeystrokesEditor;
-import com.ryduzz.visualkeystrokes.util.InputUtilCompat;
+import com.ryduzz.visualkeystrokes.perf.PerfMetric;
+import com.ryduzz.visualkeystrokes.perf.PerfMonitor;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.gui.screen.GameMenuScreen;
 import org.lwjgl.glfw.GLFW;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 public final class InputTracker {
-    private final MinecraftClient client;
+    private static final long CLICK_WINDOW_NANOS = 1_000_000_000L;
+    private static final int CLICK_WINDOW_CAPACITY = 256;
+    private static final long CLICK_STATS_BUCKET_NANOS = 100_000_000L;
+    private static final int[] CLICK_AVERAGE_WINDOWS_SECONDS = {10, 60};
+
+    private final InputSource source;
     private boolean leftPressed;
     private boolean rightPressed;
     private boolean middlePressed;
-    private final Deque<Long> leftClicks = new ArrayDeque<>();
-    private final Deque<Long> rightClicks = new ArrayDeque<>();
-    private final Deque<Long> middleClicks = new ArrayDeque<>();
+    private final ClickWindow leftClicks = new ClickWindow(CLICK_WINDOW_CAPACITY, CLICK_WINDOW_NANOS);
+    private final ClickWindow rightClicks = new ClickWindow(CLICK_WINDOW_CAPACITY, CLICK_WINDOW_NANOS);
+    private final ClickWindow middleClicks = new ClickWindow(CLICK_WINDOW_CAPACITY, CLICK_WINDOW_NANOS);
+    private final ClickStats leftStats = new ClickStats(CLICK_STATS_BUCKET_NANOS, CLICK_AVERAGE_WINDOWS_SECONDS);
+    private final ClickStats rightStats = new ClickStats(CLICK_STATS_BUCKET_NANOS, CLICK_AVERAGE_WINDOWS_SECONDS);
+    private final ClickStats middleStats = new ClickStats(CLICK_STATS_BUCKET_NANOS, CLICK_AVERAGE_WINDOWS_SECONDS);
+    private final IntervalHistogram leftIntervals = new IntervalHistogram();
+    private final IntervalHistogram rightIntervals = new IntervalHistogram();
+    private final IntervalHistogram middleIntervals = new IntervalHistogram();
+    private final InputSnapshot snapshot = new InputSnapshot();
+    private final InputSnapshot liveState = new InputSnapshot();
+    private final StatRegistry stats = new StatRegistry();
+    private final InputEventHandler applyEvent = this::onEvent;
+    private InputEventBus.Cursor events;
+    private boolean eventDriven;
 
     public InputTracker(MinecraftClient client) {
-        this.client = client;
+        this(new ClientInputSource(client));
+    }
+
+    /**
+     * Creates a tracker that never polls and is only driven through {@link #replay} and {@link #resetReplay}, for
+     * playing back recorded input.
+     */
+    public static InputTracker forReplay() {
+        InputTracker tracker = new InputTracker(ReplaySource.INSTANCE);
+        tracker.setEventDriven(true);
+        return tracker;
+    }
+
+    public InputTracker(InputSource source) {
+        this.source = source;
+        registerClickStats("cps", leftClicks, leftStats, leftIntervals);
+        registerClickStats("cps_rmb", rightClicks, rightStats, rightIntervals);
+        registerClickStats("cps_mmb", middleClicks, middleStats, middleIntervals);
+    }
+
+    /**
+     * Registers {@code id} for the exact one-second rate, plus {@code id_peak}, {@code id_avg<seconds>} for each
+     * average window and {@code id_jitter} for the rolling figures, and {@code id_intervals} for the interval graph.
+     */
+    private void registerClickStats(String id, ClickWindow clicks, ClickStats rolling, IntervalHistogram intervals) {
+        stats.register(id, new ClickRateStat(clicks));
+        stats.register(id + "_peak", new RollingClickStat(rolling, RollingClickStat.Metric.PEAK, 0));
+        for (int i = 0; i < rolling.averageWindowCount(); i++) {
+            String averageId = id + "_avg" + rolling.averageWindowSeconds(i);
+            stats.register(averageId, new RollingClickStat(rolling, RollingClickStat.Metric.AVERAGE, i));
+        }
+        stats.register(id + "_jitter", new RollingClickStat(rolling, RollingClickStat.Metric.JITTER, 0));
+        stats.register(id + "_intervals", new ClickIntervalGraph(intervals));
+    }
+
+    public StatRegistry stats() {
+        return stats;
+    }
+
+    /**
+     * The click-interval histogram of a GLFW mouse button, or {@code null} for buttons other than left, right and
+     * middle.
+     */
+    public IntervalHistogram clickIntervals(int button) {
+        return switch (button) {
+            case GLFW.GLFW_MOUSE_BUTTON_LEFT -> leftIntervals;
+            case GLFW.GLFW_MOUSE_BUTTON_RIGHT -> rightIntervals;
+            case GLFW.GLFW_MOUSE_BUTTON_MIDDLE -> middleIntervals;
+            default -> null;
+        };
     }
 
     public boolean isPressed(OverlayConfig.InputType type, int code) {
-        if (client.currentScreen instanceof GameMenuScreen || client.currentScreen instanceof VisualKeystrokesEditor) {
+        if (isSuppressed()) {
             return false;
         }
+        if (eventDriven) {
+            return liveState.isPressed(type, code);
+        }
         if (type == OverlayConfig.InputType.STAT) {
             return false;
         }
         if (type == OverlayConfig.InputType.MOUSE) {
-            long handle = client.getWindow().getHandle();
-            return GLFW.glfwGetMouseButton(handle, code) == GLFW.GLFW_PRESS;
+            return source.isMousePressed(code);
         }
-        return InputUtilCompat.isKeyPressed(client, code);
+        return source.isKeyPressed(code);
+    }
+
+    /**
+     * Polls each distinct code once and returns the shared snapshot. The arrays are expected to be de-duplicated;
+     * the returned instance is reused on the next call. When callback capture is active the live event state is
+     * copied instead and no native queries are made.
+     */
+    public InputSnapshot snapshot(int[] keyCodes, int[] mouseButtons) {
+        snapshot.clear();
+        if (isSuppressed()) {
+            return snapshot;
+        }
+        if (eventDriven) {
+            snapshot.copyFrom(liveState);
+            return snapshot;
+        }
+        for (int code : keyCodes) {
+            if (source.isKeyPressed(code)) {
+                snapshot.setKey(code);
+            }
+        }
+        for (int button : mouseButtons) {
+            if (source.isMousePressed(button)) {
+                snapshot.setMouse(button);
+            }
+        }
+        return snapshot;
     }
 
     public void update() {
-        if (client.currentScreen instanceof GameMenuScreen || client.currentScreen instanceof VisualKeystrokesEditor) {
+        long start = PerfMonitor.start();
+        update(System.nanoTime());
+        PerfMonitor.stop(PerfMetric.INPUT_UPDATE, start);
+    }
+
+    private void update(long now) {
+        if (eventDriven) {
+            stats.update(now);
+            return;
+        }
+
+        if (isSuppressed()) {
             leftPressed = false;
             rightPressed = false;
             middlePressed = false;
             return;
         }
 
-        long handle = client.getWindow().getHandle();
-        boolean left = GLFW.glfwGetMouseButton(handle, GLFW.GLFW_MOUSE_BUTTON_LEFT) == GLFW.GLFW_PRESS;
-        boolean right = GLFW.glfwGetMouseButton(handle, GLFW.GLFW_MOUSE_BUTTON_RIGHT) == GLFW.GLFW_PRESS;
-        boolean middle = GLFW.glfwGetMouseButton(handle, GLFW.GLFW_MOUSE_BUTTON_MIDDLE) == GLFW.GLFW_PRESS;
+        boolean left = source.isMousePressed(GLFW.GLFW_MOUSE_BUTTON_LEFT);
+        boolean right = source.isMousePressed(GLFW.GLFW_MOUSE_BUTTON_RIGHT);
+        boolean middle = source.isMousePressed(GLFW.GLFW_MOUSE_BUTTON_MIDDLE);
 
-        long now = System.currentTimeMillis();
         if (left && !leftPressed) {
-            leftClicks.addLast(now);
+            click(GLFW.GLFW_MOUSE_BUTTON_LEFT, now);
         }
         if (right && !rightPressed) {
-            rightClicks.addLast(now);
+            click(GLFW.GLFW_MOUSE_BUTTON_RIGHT, now);
         }
         if (middle && !middlePressed) {
-            middleClicks.addLast(now);
+            click(GLFW.GLFW_MOUSE_BUTTON_MIDDLE, now);
         }
 
         leftPressed = left;
         rightPressed = right;
         middlePressed = middle;
 
-        pruneOldClicks(leftClicks, now);
-        pruneOldClicks(rightClicks, now);
-        pruneOldClicks(middleClicks, now);
+        stats.update(now);
     }
 
     public String getStatValue(String statId) {
-        return switch (statId) {
-            case "cps" -> Integer.toString(leftClicks.size());
-            case "cps_rmb" -> Integer.toString(rightClicks.size());
-            case "cps_mmb" -> Integer.toString(middleClicks.size());
-            default -> "0";
-        };
+        return stats.get(statId).value();
+    }
+
+    void setEventDriven(boolean eventDriven) {
+        this.eventDriven = eventDriven;
+        liveState.clear();
+    }
+
+    /**
+     * Switches to callback capture, consuming pressed state and click edges from {@code bus}.
+     */
+    void listen(InputEventBus bus) {
+        events = bus.subscribe();
+        setEventDriven(true);
+    }
+
+    /**
+     * Applies every event published since the last drain.
+     */
+    void drainEvents() {
+        if (events != null) {
+            events.poll(applyEvent);
+        }
+    }
+
+    /**
+     * Applies one recorded edge as if it had just been captured at {@code timeNanos}.
+     */
+    public void replay(long timeNanos, OverlayConfig.InputType type, int code, int action) {
+        onEvent(timeNanos, type, code, action);
+    }
+
+    /**
+     * Replaces the pressed state with {@code pressed} and forgets all clicks, e.g. after a seek.
+     */
+    public void resetReplay(InputSnapshot pressed) {
+        liveState.copyFrom(pressed);
+        leftClicks.clear();
+        rightClicks.clear();
+        middleClicks.clear();
+        leftStats.clear();
+        rightStats.clear();
+        middleStats.clear();
+        leftIntervals.clear();
+        rightIntervals.clear();
+        middleIntervals.clear();
+    }
+
+    private void onEvent(long timeNanos, OverlayConfig.InputType type, int code, int action) {
+        if (type == OverlayConfig.InputType.MOUSE) {
+            onMouseButton(code, action, timeNanos);
+        } else {
+            onKey(code, action, timeNanos);
+        }
     }
 
-    private void pruneOldClicks(Deque<Long> clicks, long now) {
-        while (!clicks.isEmpty() && now - clicks.peekFirst() > 1000) {
-            clicks.removeFirst();
+    void onKey(int key, int action, long timeNanos) {
+        if (action == GLFW.GLFW_PRESS) {
+            liveState.setKey(key);
+        } else if (action == GLFW.GLFW_RELEASE) {
+            liveState.clearKey(key);
+        }
+    }
+
+    void onMouseButton(int button, int action, long timeNanos) {
+        if (action == GLFW.GLFW_RELEASE) {
+            liveState.clearMouse(button);
+            return;
+        }
+        if (action != GLFW.GLFW_PRESS) {
+            return;
+        }
+        liveState.setMouse(button);
+        if (isSuppressed()) {
+            return;
+        }
+        click(button, timeNanos);
+    }
+
+    private void click(int button, long timeNanos) {
+        switch (button) {
+            case GLFW.GLFW_MOUSE_BUTTON_LEFT -> {
+                leftClicks.add(timeNanos);
+                leftStats.onClick(timeNanos);
+                leftIntervals.onClick(timeNanos);
+            }
+            case GLFW.GLFW_MOUSE_BUTTON_RIGHT -> {
+                rightClicks.add(timeNanos);
+                rightStats.onClick(timeNanos);
+                rightIntervals.onClick(timeNanos);
+            }
+            case GLFW.GLFW_MOUSE_BUTTON_MIDDLE -> {
+                middleClicks.add(timeNanos);
+                middleStats.onClick(timeNanos);
+                middleIntervals.onClick(timeNanos);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private boolean isSuppressed() {
+        return source.isSuppressed();
+    }
+
+    /**
+     * Source for replay trackers: nothing is polled and nothing is ever suppressed.
+     */
+    private static final class ReplaySource implements InputSource {
+        private static final ReplaySource INSTANCE = new ReplaySource();
+
+        @Override
+        public boolean isKeyPressed(int code) {
+            return false;
+        }
+
+        @Override
+        public boolean isMousePressed(int button) {
+            return false;
+        }
+
+        @Override
+        public boolean isSuppressed() {
+            return false;
         }
     }
 }
@@ -0,0 +1,66 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import org.lwjgl.glfw.GLFW;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes the click-interval histograms to a CSV file with one row per non-empty bucket:
+ * {@code button,lower_us,upper_us,count}, bounds in microseconds with the upper one exclusive.
+ */
+public final class IntervalExport {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String[] BUTTON_NAMES = {"lmb", "rmb", "mmb"};
+    private static final int[] BUTTONS = {
+        GLFW.GLFW_MOUSE_BUTTON_LEFT, GLFW.GLFW_MOUSE_BUTTON_RIGHT, GLFW.GLFW_MOUSE_BUTTON_MIDDLE
+    };
+
+    private IntervalExport() {
+    }
+
+    /**
+     * Copies {@code tracker}'s histograms on the calling thread, which must be the game thread, and writes them into
+     * {@code directory} in the background. The future completes with the written file.
+     */
+    public static CompletableFuture<Path> exportAsync(InputTracker tracker, Path directory) {
+        IntervalHistogram[] histograms = new IntervalHistogram[BUTTONS.length];
+        for (int i = 0; i < BUTTONS.length; i++) {
+            histograms[i] = tracker.clickIntervals(BUTTONS[i]).copy();
+        }
+        Path file = directory.resolve("click-intervals-" + LocalDateTime.now().format(FILE_TIME) + ".csv");
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                write(file, histograms);
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void write(Path file, IntervalHistogram[] histograms) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("button,lower_us,upper_us,count\n");
+            for (int i = 0; i < histograms.length; i++) {
+                IntervalHistogram histogram = histograms[i];
+                for (int bucket = 0; bucket < histogram.bucketCount(); bucket++) {
+                    long count = histogram.count(bucket);
+                    if (count == 0) {
+                        continue;
+                    }
+                    writer.write(BUTTON_NAMES[i] + "," + histogram.bucketLowerMicros(bucket) + ","
+                        + histogram.bucketUpperMicros(bucket) + "," + count + "\n");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import java.util.Arrays;
+
+/**
+ * Distribution of the interval between one button's clicks, in microseconds.
+ * <p>
+ * Buckets are log-linear in the style of HdrHistogram. Values 0 to 63 ({@code 2 * SUB_BUCKETS - 1}) get a bucket
+ * each, and every power of two from 64 up is split into {@code SUB_BUCKETS} (32) equal buckets, so a bucket is never
+ * wider than 1/32 of the values it holds; up to {@link #MAX_MICROS} that is 510 buckets. The counts are one fixed
+ * {@code long[]}; recording a click is a subtraction, a few shifts and an increment. Intervals longer than
+ * {@link #MAX_MICROS} are pauses between bursts and are not recorded.
+ * <p>
+ * Written and read on the game thread.
+ */
+public final class IntervalHistogram {
+    public static final long MAX_MICROS = 1_000_000L;
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[bucketIndex(MAX_MICROS) + 1];
+    private long totalCount;
+    private long lastClickNanos = Long.MIN_VALUE;
+
+    /**
+     * Records the interval since the previous click, if there was one.
+     */
+    void onClick(long nowNanos) {
+        long interval = nowNanos - lastClickNanos;
+        if (lastClickNanos != Long.MIN_VALUE && interval >= 0) {
+            record(interval / 1_000L);
+        }
+        lastClickNanos = nowNanos;
+    }
+
+    void record(long micros) {
+        if (micros < 0 || micros > MAX_MICROS) {
+            return;
+        }
+        counts[bucketIndex(micros)]++;
+        totalCount++;
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public int bucketCount() {
+        return counts.length;
+    }
+
+    public long count(int bucket) {
+        return counts[bucket];
+    }
+
+    public long bucketLowerMicros(int bucket) {
+        int shift = bucketShift(bucket);
+        return (long) (bucket - (shift << SUB_BUCKET_BITS)) << shift;
+    }
+
+    /**
+     * Exclusive upper bound of {@code bucket}.
+     */
+    public long bucketUpperMicros(int bucket) {
+        return bucketLowerMicros(bucket) + (1L << bucketShift(bucket));
+    }
+
+    /**
+     * Nearest-rank percentile for {@code fraction} in {@code [0, 1]}, reported as the middle of the bucket holding
+     * it, or {@code 0} when nothing has been recorded.
+     */
+    public long percentileMicros(double fraction) {
+        if (totalCount == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(fraction * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (bucketLowerMicros(i) + bucketUpperMicros(i) - 1) / 2;
+            }
+        }
+        return MAX_MICROS;
+    }
+
+    /**
+     * Copies the counts into a new histogram, for reading off the game thread.
+     */
+    public IntervalHistogram copy() {
+        IntervalHistogram copy = new IntervalHistogram();
+        System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+        copy.totalCount = totalCount;
+        return copy;
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0;
+        lastClickNanos = Long.MIN_VALUE;
+    }
+
+    private static int bucketIndex(long micros) {
+        int exponent = 63 - Long.numberOfLeadingZeros(micros | 1L);
+        int shift = Math.max(0, exponent - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (micros >>> shift);
+    }
+
+    private static int bucketShift(int bucket) {
+        return Math.max(0, (bucket >>> SUB_BUCKET_BITS) - 1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import com.ryduzz.visualkeystrokes.util.IntStrings;
+
+/**
+ * One derived figure of a {@link ClickStats}, refreshed once per bucket.
+ * <p>
+ * Values below 100 keep one decimal and larger ones are shown whole, saturating at 999, so every string comes from
+ * the {@link IntStrings} caches.
+ */
+final class RollingClickStat implements StatProvider {
+    private static final int MAX_DISPLAYED = 999;
+
+    enum Metric {
+        PEAK,
+        AVERAGE,
+        JITTER
+    }
+
+    private final ClickStats stats;
+    private final Metric metric;
+    private final int window;
+    private String value = IntStrings.of(0);
+
+    RollingClickStat(ClickStats stats, Metric metric, int window) {
+        this.stats = stats;
+        this.metric = metric;
+        this.window = window;
+        refresh();
+    }
+
+    @Override
+    public long updateIntervalNanos() {
+        return stats.bucketNanos();
+    }
+
+    @Override
+    public void update(long nowNanos) {
+        stats.advance(nowNanos);
+        refresh();
+    }
+
+    @Override
+    public String value() {
+        return value;
+    }
+
+    private void refresh() {
+        value = switch (metric) {
+            case PEAK -> IntStrings.of(Math.min(stats.peakCps(), MAX_DISPLAYED));
+            case AVERAGE -> decimal(stats.averageCpsTenths(window));
+            case JITTER -> decimal(stats.jitterTenthsMillis());
+        };
+    }
+
+    /**
+     * {@code tenths / 10} with one decimal below 100, whole from there and capped at 999.
+     */
+    static String decimal(int tenths) {
+        if (tenths < 1000) {
+            return IntStrings.tenths(tenths);
+        }
+        return IntStrings.of(Math.min(tenths / 10, MAX_DISPLAYED));
+    }
+}
@@ -0,0 +1,16 @@
+package com.ryduzz.visualkeystrokes.input;
+
+/**
+ * Source for a STAT key's value text. Providers are sampled by {@link StatRegistry} at their own cadence and must
+ * return a stable string between updates.
+ */
+public interface StatProvider {
+    /**
+     * Minimum time between {@link #update(long)} calls, or {@code 0} to update on every registry pass.
+     */
+    long updateIntervalNanos();
+
+    void update(long nowNanos);
+
+    String value();
+}
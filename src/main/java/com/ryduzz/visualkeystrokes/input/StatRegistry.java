@@ -0,0 +1,98 @@
+package com.ryduzz.visualkeystrokes.input;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of {@link StatProvider}s keyed by STAT id. Renderers resolve a provider once per layout and read
+ * {@link StatProvider#value()} each frame; {@link #update(long)} drives every provider at its declared cadence.
+ */
+public final class StatRegistry {
+    private static final StatProvider MISSING = new StatProvider() {
+        @Override
+        public long updateIntervalNanos() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public void update(long nowNanos) {
+        }
+
+        @Override
+        public String value() {
+            return "?";
+        }
+    };
+
+    private final Map<String, StatProvider> providers = new HashMap<>();
+    private StatProvider[] ordered = new StatProvider[0];
+    private BarGraphProvider[] graphs = new BarGraphProvider[0];
+    private long[] lastUpdate = new long[0];
+    private boolean[] sampled = new boolean[0];
+    private int version;
+    private long valueVersion;
+
+    public void register(String statId, StatProvider provider) {
+        StatProvider previous = providers.put(statId, provider);
+        if (previous != null) {
+            for (int i = 0; i < ordered.length; i++) {
+                if (ordered[i] == previous) {
+                    ordered[i] = provider;
+                    graphs[i] = provider instanceof BarGraphProvider graph ? graph : null;
+                    sampled[i] = false;
+                }
+            }
+        } else {
+            ordered = Arrays.copyOf(ordered, ordered.length + 1);
+            graphs = Arrays.copyOf(graphs, graphs.length + 1);
+            lastUpdate = Arrays.copyOf(lastUpdate, lastUpdate.length + 1);
+            sampled = Arrays.copyOf(sampled, sampled.length + 1);
+            ordered[ordered.length - 1] = provider;
+            graphs[graphs.length - 1] = provider instanceof BarGraphProvider graph ? graph : null;
+        }
+        version++;
+    }
+
+    /**
+     * Returns the provider for {@code statId}, or a placeholder showing {@code ?} for unknown ids.
+     */
+    public StatProvider get(String statId) {
+        StatProvider provider = statId == null ? null : providers.get(statId);
+        return provider == null ? MISSING : provider;
+    }
+
+    public boolean contains(String statId) {
+        return statId != null && providers.containsKey(statId);
+    }
+
+    public int version() {
+        return version;
+    }
+
+    /**
+     * Incremented whenever an update changes any provider's value text or bar graph. Providers return a stable string
+     * between updates, so a change is detected by reference.
+     */
+    public long valueVersion() {
+        return valueVersion;
+    }
+
+    public void update(long nowNanos) {
+        for (int i = 0; i < ordered.length; i++) {
+            StatProvider provider = ordered[i];
+            if (sampled[i] && nowNanos - lastUpdate[i] < provider.updateIntervalNanos()) {
+                continue;
+            }
+            String previous = provider.value();
+            BarGraphProvider graph = graphs[i];
+            long previousGraph = graph == null ? 0L : graph.graphVersion();
+            provider.update(nowNanos);
+            if (provider.value() != previous || (graph != null && graph.graphVersion() != previousGraph)) {
+                valueVersion++;
+            }
+            lastUpdate[i] = nowNanos;
+            sampled[i] = true;
+        }
+    }
+}
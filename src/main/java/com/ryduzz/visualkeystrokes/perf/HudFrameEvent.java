@@ -0,0 +1,31 @@
+package com.ryduzz.visualkeystrokes.perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("visualkeystrokes.HudFrame")
+@Label("Visual Keystrokes HUD Frame")
+@Category("Visual Keystrokes")
+@Description("Cost of drawing the keystroke overlay for one frame")
+@StackTrace(false)
+final class HudFrameEvent extends Event {
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Rectangles")
+    int rects;
+
+    @Label("Text Draws")
+    int texts;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+}
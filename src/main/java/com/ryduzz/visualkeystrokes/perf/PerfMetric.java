@@ -0,0 +1,27 @@
+package com.ryduzz.visualkeystrokes.perf;
+
+/**
+ * Everything {@link PerfMonitor} samples, with the unit its values are recorded in.
+ */
+public enum PerfMetric {
+    HUD_RENDER("HUD render", Unit.NANOS),
+    HUD_DRAWS("HUD draws", Unit.COUNT),
+    HUD_ALLOCATED("HUD alloc", Unit.BYTES),
+    INPUT_UPDATE("Input update", Unit.NANOS),
+    EDITOR_RENDER("Editor render", Unit.NANOS),
+    CONFIG_SAVE("Config save", Unit.NANOS);
+
+    final String label;
+    final Unit unit;
+
+    PerfMetric(String label, Unit unit) {
+        this.label = label;
+        this.unit = unit;
+    }
+
+    enum Unit {
+        NANOS,
+        BYTES,
+        COUNT
+    }
+}
@@ -0,0 +1,129 @@
+package com.ryduzz.visualkeystrokes.perf;
+
+import jdk.jfr.EventType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Always-on, low-overhead timers for the mod's hot paths. Each {@link PerfMetric} keeps a rolling window of its most
+ * recent samples for the debug panel, and every sample is also emitted as a JFR event when a recording has the
+ * {@code visualkeystrokes.*} events enabled.
+ * <p>
+ * Timing costs two {@link System#nanoTime()} calls per section. The per-frame allocation probe is more expensive and
+ * only runs while the debug panel is visible or the HUD frame event is being recorded.
+ */
+public final class PerfMonitor {
+    public static final int WINDOW_SIZE = 240;
+
+    private static final SampleWindow[] WINDOWS = new SampleWindow[PerfMetric.values().length];
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationBean();
+    // Checked before an event is constructed so that nothing is allocated unless a recording wants it, even before
+    // the JIT gets to eliminate the allocation.
+    private static final EventType SECTION_EVENT = EventType.getEventType(PerfSectionEvent.class);
+    private static final EventType FRAME_EVENT = EventType.getEventType(HudFrameEvent.class);
+    private static volatile boolean panelVisible;
+    private static long frameStart;
+    private static long frameAllocationStart = -1L;
+
+    static {
+        for (PerfMetric metric : PerfMetric.values()) {
+            WINDOWS[metric.ordinal()] = new SampleWindow(WINDOW_SIZE);
+        }
+    }
+
+    private PerfMonitor() {
+    }
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time since {@code start}, which must come from {@link #start()} on the same thread.
+     */
+    public static void stop(PerfMetric metric, long start) {
+        long elapsed = System.nanoTime() - start;
+        WINDOWS[metric.ordinal()].record(elapsed);
+
+        if (SECTION_EVENT.isEnabled()) {
+            PerfSectionEvent event = new PerfSectionEvent();
+            event.section = metric.label;
+            event.elapsed = elapsed;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing one HUD frame. Must be paired with {@link #endFrame(int, int)} on the render thread.
+     */
+    public static void beginFrame() {
+        frameAllocationStart = trackAllocations() ? ALLOCATIONS.getCurrentThreadAllocatedBytes() : -1L;
+        frameStart = System.nanoTime();
+    }
+
+    public static void endFrame(int rects, int texts) {
+        long elapsed = System.nanoTime() - frameStart;
+        long allocated = frameAllocationStart < 0 ? -1L
+            : ALLOCATIONS.getCurrentThreadAllocatedBytes() - frameAllocationStart;
+        WINDOWS[PerfMetric.HUD_RENDER.ordinal()].record(elapsed);
+        WINDOWS[PerfMetric.HUD_DRAWS.ordinal()].record(rects + texts);
+        if (allocated >= 0) {
+            WINDOWS[PerfMetric.HUD_ALLOCATED.ordinal()].record(allocated);
+        }
+
+        if (FRAME_EVENT.isEnabled()) {
+            HudFrameEvent event = new HudFrameEvent();
+            event.elapsed = elapsed;
+            event.rects = rects;
+            event.texts = texts;
+            event.allocated = allocated;
+            event.commit();
+        }
+    }
+
+    public static boolean isPanelVisible() {
+        return panelVisible;
+    }
+
+    public static void setPanelVisible(boolean visible) {
+        panelVisible = visible;
+    }
+
+    public static boolean allocationTrackingSupported() {
+        return ALLOCATIONS != null;
+    }
+
+    /**
+     * Fills {@code out} with the rolling p50, p99 and most recent value of {@code metric}. {@code scratch} must hold
+     * at least {@link #WINDOW_SIZE} entries.
+     */
+    static void summarize(PerfMetric metric, long[] scratch, Summary out) {
+        SampleWindow window = WINDOWS[metric.ordinal()];
+        int n = window.sortInto(scratch);
+        out.samples = n;
+        out.p50 = SampleWindow.percentile(scratch, n, 0.50);
+        out.p99 = SampleWindow.percentile(scratch, n, 0.99);
+        out.last = window.last();
+    }
+
+    private static boolean trackAllocations() {
+        return ALLOCATIONS != null && (panelVisible || FRAME_EVENT.isEnabled());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean allocations && allocations.isThreadAllocatedMemorySupported()) {
+            allocations.setThreadAllocatedMemoryEnabled(true);
+            return allocations;
+        }
+        return null;
+    }
+
+    static final class Summary {
+        int samples;
+        long p50;
+        long p99;
+        long last;
+    }
+}
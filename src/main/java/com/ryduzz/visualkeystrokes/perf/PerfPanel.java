@@ -0,0 +1,65 @@
+package com.ryduzz.visualkeystrokes.perf;
+
+import com.ryduzz.visualkeystrokes.render.OverlayCanvas;
+
+import java.util.Locale;
+
+/**
+ * Debug panel listing the rolling p50/p99 of every {@link PerfMetric}. Text is only formatted while the panel is
+ * visible, so it does not count against the paths it measures.
+ */
+public final class PerfPanel {
+    private static final int MARGIN = 4;
+    private static final int PADDING = 3;
+    private static final int LINE_GAP = 1;
+    private static final int BACKGROUND = 0xB0000000;
+    private static final int TITLE_COLOR = 0xFFFFFF55;
+    private static final int TEXT_COLOR = 0xFFE0E0E0;
+
+    private final long[] scratch = new long[PerfMonitor.WINDOW_SIZE];
+    private final PerfMonitor.Summary summary = new PerfMonitor.Summary();
+    private final String[] lines = new String[PerfMetric.values().length + 1];
+
+    public void render(OverlayCanvas canvas) {
+        lines[0] = "Visual Keystrokes perf (p50 / p99 / last)";
+        for (PerfMetric metric : PerfMetric.values()) {
+            lines[metric.ordinal() + 1] = line(metric);
+        }
+
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, canvas.getWidth(line));
+        }
+        int lineHeight = canvas.fontHeight() + LINE_GAP;
+        int height = lines.length * lineHeight - LINE_GAP;
+        canvas.fill(MARGIN, MARGIN, MARGIN + width + PADDING * 2, MARGIN + height + PADDING * 2, BACKGROUND);
+
+        int y = MARGIN + PADDING;
+        for (int i = 0; i < lines.length; i++) {
+            canvas.drawText(lines[i], MARGIN + PADDING, y, i == 0 ? TITLE_COLOR : TEXT_COLOR);
+            y += lineHeight;
+        }
+    }
+
+    private String line(PerfMetric metric) {
+        if (metric == PerfMetric.HUD_ALLOCATED && !PerfMonitor.allocationTrackingSupported()) {
+            return metric.label + ": unsupported on this JVM";
+        }
+        PerfMonitor.summarize(metric, scratch, summary);
+        if (summary.samples == 0) {
+            return metric.label + ": -";
+        }
+        return metric.label + ": " + format(summary.p50, metric.unit) + " / " + format(summary.p99, metric.unit)
+            + " / " + format(summary.last, metric.unit);
+    }
+
+    private static String format(long value, PerfMetric.Unit unit) {
+        return switch (unit) {
+            case NANOS -> value >= 1_000_000L
+                ? String.format(Locale.ROOT, "%.2f ms", value / 1_000_000.0)
+                : String.format(Locale.ROOT, "%.1f us", value / 1_000.0);
+            case BYTES -> value >= 1024L ? String.format(Locale.ROOT, "%.1f KiB", value / 1024.0) : value + " B";
+            case COUNT -> Long.toString(value);
+        };
+    }
+}
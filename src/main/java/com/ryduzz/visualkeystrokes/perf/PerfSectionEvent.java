@@ -0,0 +1,23 @@
+package com.ryduzz.visualkeystrokes.perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("visualkeystrokes.Section")
+@Label("Visual Keystrokes Section")
+@Category("Visual Keystrokes")
+@Description("One timed pass through an instrumented hot path")
+@StackTrace(false)
+final class PerfSectionEvent extends Event {
+    @Label("Section")
+    String section;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,56 @@
+package com.ryduzz.visualkeystrokes.perf;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of the most recent samples of one metric. Written by a single thread; readers may see a sample
+ * mid-update, which is acceptable for a diagnostics display.
+ */
+final class SampleWindow {
+    private final long[] samples;
+    private int next;
+    private int count;
+    private long last;
+
+    SampleWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    void record(long value) {
+        samples[next] = value;
+        next = next + 1 == samples.length ? 0 : next + 1;
+        if (count < samples.length) {
+            count++;
+        }
+        last = value;
+    }
+
+    long last() {
+        return last;
+    }
+
+    int capacity() {
+        return samples.length;
+    }
+
+    /**
+     * Copies the window into {@code scratch} in ascending order and returns how many samples it holds.
+     */
+    int sortInto(long[] scratch) {
+        int n = count;
+        System.arraycopy(samples, 0, scratch, 0, n);
+        Arrays.sort(scratch, 0, n);
+        return n;
+    }
+
+    /**
+     * Nearest-rank percentile of the first {@code n} entries of an ascending array.
+     */
+    static long percentile(long[] sorted, int n, double fraction) {
+        if (n == 0) {
+            return 0L;
+        }
+        int rank = (int) Math.ceil(fraction * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, rank))];
+    }
+}
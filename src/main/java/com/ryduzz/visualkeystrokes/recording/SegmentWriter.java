@@ -0,0 +1,123 @@
+package com.ryduzz.visualkeystrokes.recording;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends records to one memory-mapped segment. Only used from the recorder thread.
+ */
+final class SegmentWriter implements AutoCloseable {
+    /**
+     * {@code Unsafe.invokeCleaner}, bound to the instance, or {@code null} if the JDK does not expose it. Unmapping
+     * eagerly lets {@link #close()} truncate the file on platforms that refuse to resize a mapped file.
+     */
+    private static final MethodHandle INVOKE_CLEANER = resolveCleaner();
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long lastNanos;
+    private boolean empty = true;
+
+    SegmentWriter(Path path, int size) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(SessionFormat.MAGIC);
+        buffer.putShort(SessionFormat.VERSION);
+        buffer.putShort((short) 0);
+        buffer.putLong(0L);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putLong(0L);
+    }
+
+    /**
+     * Encodes one event, or returns {@code false} without writing if the segment has no room left for it.
+     */
+    boolean append(long timeNanos, int typeOrdinal, int code, int action) {
+        if (buffer.remaining() < SessionFormat.MAX_RECORD_BYTES) {
+            return false;
+        }
+        if (empty) {
+            buffer.putLong(SessionFormat.BASE_NANOS_OFFSET, timeNanos);
+            lastNanos = timeNanos;
+            empty = false;
+        }
+        SessionFormat.putVarLong(buffer, SessionFormat.tag(typeOrdinal, action));
+        SessionFormat.putVarLong(buffer, Math.max(0L, timeNanos - lastNanos));
+        SessionFormat.putVarLong(buffer, SessionFormat.zigZag(code) & 0xFFFFFFFFL);
+        lastNanos = Math.max(lastNanos, timeNanos);
+        return true;
+    }
+
+    /**
+     * Publishes everything appended so far to readers by updating the committed length.
+     */
+    void commit() {
+        buffer.putLong(SessionFormat.COMMITTED_LENGTH_OFFSET, buffer.position() - SessionFormat.HEADER_BYTES);
+    }
+
+    /**
+     * Commits and flushes the segment, releases the mapping and truncates the file to the header plus the committed
+     * records, so a segment that ended early does not keep its full preallocated size on disk.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            commit();
+            buffer.force();
+            long length = buffer.position();
+            boolean unmapped = unmap(buffer);
+            buffer = null;
+            if (unmapped) {
+                channel.truncate(length);
+            }
+        } finally {
+            // Even if flushing failed, the channel is released and a second close is a no-op.
+            buffer = null;
+            channel.close();
+        }
+    }
+
+    /**
+     * Releases {@code buffer}'s mapping now instead of when it is collected. Returns {@code false}, leaving it
+     * mapped, if the JVM offers no way to do that. The buffer and every view of it must not be touched afterwards.
+     */
+    static boolean unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return false;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+            return true;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to unmap session segment", t);
+        }
+    }
+
+    private static MethodHandle resolveCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ryduzz.visualkeystrokes.recording;
+
+import java.nio.ByteBuffer;
+
+/**
+ * On-disk layout of a recorded session. A session is a series of segment files named
+ * {@code <session>-<index>.vks}, each a fixed-size, memory-mapped file:
+ * <pre>
+ *   0  int   magic "VKSR"
+ *   4  short format version
+ *   6  short reserved
+ *   8  long  base timestamp, System.nanoTime() of the segment's first event
+ *  16  long  wall clock millis when the segment was opened
+ *  24  long  committed length, bytes of record data after the header
+ *  32  records...
+ * </pre>
+ * Each record is {@code varint(tag) varint(delta nanos) varint(zigzag(code))}, where the tag packs the input type
+ * ordinal and GLFW action as {@code ((type << 2) | action) + 1} and the delta is taken from the previous record in
+ * the segment (the base timestamp for the first). Tags are never zero, so unused space reads as a terminator when
+ * the committed length was not written, e.g. after a crash.
+ */
+public final class SessionFormat {
+    public static final int MAGIC = 0x564B5352;
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    public static final int BASE_NANOS_OFFSET = 8;
+    public static final int WALL_CLOCK_OFFSET = 16;
+    public static final int COMMITTED_LENGTH_OFFSET = 24;
+    /**
+     * Upper bound of one encoded record: a one-byte tag, a ten-byte delta and a five-byte code.
+     */
+    public static final int MAX_RECORD_BYTES = 16;
+    public static final String EXTENSION = ".vks";
+
+    private SessionFormat() {
+    }
+
+    static int tag(int typeOrdinal, int action) {
+        return ((typeOrdinal << 2) | (action & 3)) + 1;
+    }
+
+    static int tagType(int tag) {
+        return (tag - 1) >>> 2;
+    }
+
+    static int tagAction(int tag) {
+        return (tag - 1) & 3;
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint at " + buffer.position());
+    }
+
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
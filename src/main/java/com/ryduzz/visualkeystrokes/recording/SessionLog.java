@@ -0,0 +1,198 @@
+package com.ryduzz.visualkeystrokes.recording;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of one recorded session. Segments are memory-mapped rather than read, so the log is paged in by
+ * the OS as a {@link Reader} streams through it and a session of any length never lives on the heap. The mappings
+ * keep the files in use until {@link #close()}.
+ */
+public final class SessionLog implements Closeable {
+    private static final OverlayConfig.InputType[] TYPES = OverlayConfig.InputType.values();
+
+    private final String session;
+    private final MappedByteBuffer[] segments;
+    private final long[] baseNanos;
+
+    private SessionLog(String session, MappedByteBuffer[] segments, long[] baseNanos) {
+        this.session = session;
+        this.segments = segments;
+        this.baseNanos = baseNanos;
+    }
+
+    /**
+     * Maps every segment of {@code session} in {@code directory}, in recording order.
+     */
+    public static SessionLog open(Path directory, String session) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> isSegmentOf(path, session)).sorted().forEach(paths::add);
+        }
+        if (paths.isEmpty()) {
+            throw new IOException("No segments for session " + session + " in " + directory);
+        }
+
+        MappedByteBuffer[] segments = new MappedByteBuffer[paths.size()];
+        long[] baseNanos = new long[paths.size()];
+        SessionLog log = new SessionLog(session, segments, baseNanos);
+        try {
+            map(paths, segments, baseNanos);
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return log;
+    }
+
+    private static void map(List<Path> paths, MappedByteBuffer[] segments, long[] baseNanos) throws IOException {
+        for (int i = 0; i < segments.length; i++) {
+            try (FileChannel channel = FileChannel.open(paths.get(i))) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                if (buffer.limit() < SessionFormat.HEADER_BYTES || buffer.getInt(0) != SessionFormat.MAGIC) {
+                    throw new IOException("Not a session segment: " + paths.get(i));
+                }
+                if (buffer.getShort(4) != SessionFormat.VERSION) {
+                    throw new IOException("Unsupported session format " + buffer.getShort(4) + ": " + paths.get(i));
+                }
+                long committed = buffer.getLong(SessionFormat.COMMITTED_LENGTH_OFFSET);
+                if (committed > 0) {
+                    buffer.limit((int) Math.min(buffer.limit(), SessionFormat.HEADER_BYTES + committed));
+                }
+                segments[i] = buffer;
+                baseNanos[i] = buffer.getLong(SessionFormat.BASE_NANOS_OFFSET);
+            }
+        }
+    }
+
+    /**
+     * Returns the most recently started session in {@code directory}, or {@code null} if there is none.
+     */
+    public static String latestSession(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(SessionFormat.EXTENSION))
+                .map(SessionLog::sessionName)
+                .max(String::compareTo)
+                .orElse(null);
+        }
+    }
+
+    public String session() {
+        return session;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    public Reader reader() {
+        return new Reader();
+    }
+
+    /**
+     * Unmaps every segment, so a recorder still writing the session can truncate it on platforms that refuse to
+     * resize a mapped file. No thread may use the log or its readers during or after the call.
+     */
+    @Override
+    public void close() {
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] != null) {
+                SegmentWriter.unmap(segments[i]);
+                segments[i] = null;
+            }
+        }
+    }
+
+    private static boolean isSegmentOf(Path path, String session) {
+        String name = path.getFileName().toString();
+        return name.endsWith(SessionFormat.EXTENSION) && sessionName(name).equals(session);
+    }
+
+    private static String sessionName(String fileName) {
+        // <session>-<index>.vks
+        return fileName.substring(0, fileName.lastIndexOf('-'));
+    }
+
+    /**
+     * Streaming decoder over the whole session. {@link #next()} decodes one event into the public fields without
+     * allocating. A reader's position can be captured and restored, which is what seeking builds on.
+     */
+    public final class Reader {
+        public long timeNanos;
+        public OverlayConfig.InputType type;
+        public int code;
+        public int action;
+
+        private final ByteBuffer[] views = new ByteBuffer[segments.length];
+        private int segment;
+        private long lastNanos;
+
+        private Reader() {
+            for (int i = 0; i < views.length; i++) {
+                views[i] = segments[i].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                views[i].position(SessionFormat.HEADER_BYTES);
+            }
+            lastNanos = baseNanos[0];
+        }
+
+        /**
+         * Decodes the next event, or returns {@code false} at the end of the session.
+         */
+        public boolean next() {
+            while (true) {
+                ByteBuffer view = views[segment];
+                if (view.hasRemaining() && view.get(view.position()) != 0) {
+                    break;
+                }
+                if (segment + 1 == views.length) {
+                    return false;
+                }
+                segment++;
+                views[segment].position(SessionFormat.HEADER_BYTES);
+                lastNanos = baseNanos[segment];
+            }
+            ByteBuffer view = views[segment];
+            int tag = (int) SessionFormat.getVarLong(view);
+            lastNanos += SessionFormat.getVarLong(view);
+            code = SessionFormat.unZigZag((int) SessionFormat.getVarLong(view));
+            timeNanos = lastNanos;
+            type = TYPES[SessionFormat.tagType(tag)];
+            action = SessionFormat.tagAction(tag);
+            return true;
+        }
+
+        int segment() {
+            return segment;
+        }
+
+        int offset() {
+            return views[segment].position();
+        }
+
+        long lastNanos() {
+            return lastNanos;
+        }
+
+        void restore(int segment, int offset, long lastNanos) {
+            this.segment = segment;
+            views[segment].position(offset);
+            this.lastNanos = lastNanos;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.ryduzz.visualkeystrokes.recording;
+
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
+import com.ryduzz.visualkeystrokes.render.KeystrokeOverlayRenderer;
+import net.minecraft.client.gui.DrawContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-game replay of the latest recorded session on the HUD. Sessions are mapped and indexed off the game thread;
+ * once ready, {@link #render(DrawContext)} draws the overlay from the replayed input instead of the live tracker
+ * until playback ends or is toggled off. {@link #toggle()}, {@link #cycleSpeed()} and {@link #render(DrawContext)}
+ * run on the game thread, which is also the only thread that reads a published session's log.
+ */
+public final class SessionPlayback {
+    private static final Logger LOGGER = LoggerFactory.getLogger("visualkeystrokes");
+    private static final double[] SPEEDS = {0.25, 0.5, 1.0, 2.0, 4.0};
+    private static final int DEFAULT_SPEED = 2;
+
+    private final Path directory;
+    private volatile Playing playing;
+    private volatile boolean loading;
+    /**
+     * Bumped by every {@link #toggle()} under this object's lock. A load only publishes its result, or clears
+     * {@link #loading}, if no toggle happened since it was started, so a load that was toggled off cannot resurface
+     * or end a newer load.
+     */
+    private int generation;
+    /**
+     * Guarded by this object's lock, which also publishes {@link #playing}, so a speed picked while a session loads
+     * is applied to it.
+     */
+    private int speedIndex = DEFAULT_SPEED;
+
+    public SessionPlayback(Path directory) {
+        this.directory = directory;
+    }
+
+    public boolean isActive() {
+        return playing != null || loading;
+    }
+
+    /**
+     * Starts loading the latest session, or stops the current playback and unmaps its log.
+     */
+    public synchronized void toggle() {
+        int requested = ++generation;
+        if (isActive()) {
+            Playing stopped = playing;
+            playing = null;
+            loading = false;
+            if (stopped != null) {
+                stopped.close();
+            }
+            return;
+        }
+        loading = true;
+        CompletableFuture.runAsync(() -> load(requested));
+    }
+
+    /**
+     * Steps to the next playback speed and returns it.
+     */
+    public synchronized double cycleSpeed() {
+        speedIndex = (speedIndex + 1) % SPEEDS.length;
+        Playing current = playing;
+        if (current != null) {
+            current.player.setSpeed(SPEEDS[speedIndex]);
+        }
+        return SPEEDS[speedIndex];
+    }
+
+    /**
+     * Advances and draws the replay. Returns {@code false}, drawing nothing, when no replay is playing.
+     */
+    public boolean render(DrawContext context) {
+        Playing current = playing;
+        if (current == null) {
+            return false;
+        }
+        current.player.advance(System.nanoTime());
+        if (current.player.isFinished()) {
+            playing = null;
+            current.close();
+            return false;
+        }
+        current.renderer.render(context);
+        return true;
+    }
+
+    private void load(int requested) {
+        Playing loaded = null;
+        try {
+            String session = SessionLog.latestSession(directory);
+            if (session == null) {
+                LOGGER.info("No Visual Keystrokes sessions to replay in {}", directory);
+                return;
+            }
+            SessionLog log = SessionLog.open(directory, session);
+            try {
+                SessionPlayer player = SessionPlayer.open(log);
+                loaded = new Playing(player, new KeystrokeOverlayRenderer(player.tracker(), ConfigStore::current));
+            } finally {
+                if (loaded == null) {
+                    log.close();
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to load Visual Keystrokes session from {}", directory, e);
+        } finally {
+            boolean published = false;
+            synchronized (this) {
+                if (generation == requested) {
+                    if (loaded != null) {
+                        loaded.player.setSpeed(SPEEDS[speedIndex]);
+                    }
+                    playing = loaded;
+                    loading = false;
+                    published = true;
+                }
+            }
+            if (!published && loaded != null) {
+                loaded.close();
+            }
+        }
+    }
+
+    private static final class Playing {
+        private final SessionPlayer player;
+        private final KeystrokeOverlayRenderer renderer;
+
+        private Playing(SessionPlayer player, KeystrokeOverlayRenderer renderer) {
+            this.player = player;
+            this.renderer = renderer;
+        }
+
+        /**
+         * Unmaps the session. Only called once nothing can render this playback any more.
+         */
+        private void close() {
+            player.log().close();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.ryduzz.visualkeystrokes.recording;
+
+import com.ryduzz.visualkeystrokes.input.InputSnapshot;
+import com.ryduzz.visualkeystrokes.input.InputTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays a {@link SessionLog} back into its own {@link InputTracker}, which a {@code KeystrokeOverlayRenderer} can
+ * draw from in place of the live tracker. The log is streamed; the only per-session heap state is a sparse keyframe
+ * index, one full pressed-state copy every {@link #KEYFRAME_INTERVAL} events, so a seek restores the nearest
+ * keyframe and replays at most that many events.
+ * <p>
+ * Recorded timestamps are mapped onto the caller's clock as they are applied, so click-rate stats read the same as
+ * they did live, scaled by the playback speed. Not thread-safe; drive it from the render thread.
+ */
+public final class SessionPlayer {
+    public static final int KEYFRAME_INTERVAL = 1024;
+
+    private final SessionLog log;
+    private final SessionLog.Reader reader;
+    private final InputTracker tracker = InputTracker.forReplay();
+    private final Keyframe[] keyframes;
+    private final long startNanos;
+    private final long endNanos;
+    private final long eventCount;
+    private long playhead;
+    private long lastWallNanos = Long.MIN_VALUE;
+    private double speed = 1.0;
+    private boolean paused;
+    private boolean pending;
+    private boolean exhausted;
+
+    private SessionPlayer(SessionLog log, Keyframe[] keyframes, long startNanos, long endNanos, long eventCount) {
+        this.log = log;
+        this.reader = log.reader();
+        this.keyframes = keyframes;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.eventCount = eventCount;
+        this.playhead = startNanos;
+    }
+
+    /**
+     * Streams through {@code log} once to build the keyframe index.
+     */
+    public static SessionPlayer open(SessionLog log) {
+        SessionLog.Reader reader = log.reader();
+        InputSnapshot pressed = new InputSnapshot();
+        List<Keyframe> keyframes = new ArrayList<>();
+        long start = 0L;
+        long end = 0L;
+        long index = 0L;
+        while (true) {
+            if (index % KEYFRAME_INTERVAL == 0) {
+                keyframes.add(new Keyframe(index == 0 ? Long.MIN_VALUE : end, reader, pressed));
+            }
+            if (!reader.next()) {
+                break;
+            }
+            if (index == 0) {
+                start = reader.timeNanos;
+            }
+            end = reader.timeNanos;
+            pressed.apply(reader.type, reader.code, reader.action);
+            index++;
+        }
+        return new SessionPlayer(log, keyframes.toArray(new Keyframe[0]), start, end, index);
+    }
+
+    public SessionLog log() {
+        return log;
+    }
+
+    public InputTracker tracker() {
+        return tracker;
+    }
+
+    public long eventCount() {
+        return eventCount;
+    }
+
+    public long durationNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * Playback position relative to the first recorded event.
+     */
+    public long positionNanos() {
+        return playhead - startNanos;
+    }
+
+    public double speed() {
+        return speed;
+    }
+
+    public void setSpeed(double speed) {
+        if (!(speed > 0.0)) {
+            throw new IllegalArgumentException("Playback speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isFinished() {
+        return exhausted && playhead >= endNanos;
+    }
+
+    /**
+     * Moves the playhead by the time elapsed on the caller's clock since the last call, scaled by the speed, and
+     * applies every event up to it. Call once per frame before rendering.
+     */
+    public void advance(long nowNanos) {
+        if (lastWallNanos != Long.MIN_VALUE && !paused) {
+            playhead = Math.min(endNanos, playhead + (long) ((nowNanos - lastWallNanos) * speed));
+        }
+        lastWallNanos = nowNanos;
+        applyUntil(playhead, nowNanos);
+    }
+
+    /**
+     * Jumps to {@code positionNanos} after the first recorded event: restores the last keyframe at or before it and
+     * replays the events in between.
+     */
+    public void seek(long positionNanos, long nowNanos) {
+        long target = startNanos + Math.max(0L, Math.min(positionNanos, endNanos - startNanos));
+        Keyframe keyframe = keyframes[0];
+        int low = 1;
+        int high = keyframes.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keyframes[mid].previousNanos <= target) {
+                keyframe = keyframes[mid];
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        reader.restore(keyframe.segment, keyframe.offset, keyframe.lastNanos);
+        tracker.resetReplay(keyframe.pressed);
+        pending = false;
+        exhausted = false;
+        playhead = target;
+        lastWallNanos = nowNanos;
+        applyUntil(target, nowNanos);
+    }
+
+    private void applyUntil(long target, long nowNanos) {
+        while (true) {
+            if (!pending) {
+                if (exhausted || !reader.next()) {
+                    exhausted = true;
+                    return;
+                }
+                pending = true;
+            }
+            if (reader.timeNanos > target) {
+                return;
+            }
+            long age = (long) ((target - reader.timeNanos) / speed);
+            tracker.replay(nowNanos - age, reader.type, reader.code, reader.action);
+            pending = false;
+        }
+    }
+
+    /**
+     * Reader position and pressed state just before event {@code n * KEYFRAME_INTERVAL}.
+     */
+    private static final class Keyframe {
+        /**
+         * Time of the event before the keyframe, so every event up to here is at or before any seek target that
+         * selects it.
+         */
+        private final long previousNanos;
+        private final int segment;
+        private final int offset;
+        private final long lastNanos;
+        private final InputSnapshot pressed = new InputSnapshot();
+
+        private Keyframe(long previousNanos, SessionLog.Reader reader, InputSnapshot pressed) {
+            this.previousNanos = previousNanos;
+            this.segment = reader.segment();
+            this.offset = reader.offset();
+            this.lastNanos = reader.lastNanos();
+            this.pressed.copyFrom(pressed);
+        }
+    }
+}
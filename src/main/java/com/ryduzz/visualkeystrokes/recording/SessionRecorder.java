@@ -0,0 +1,213 @@
+package com.ryduzz.visualkeystrokes.recording;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import com.ryduzz.visualkeystrokes.input.InputEventBus;
+import com.ryduzz.visualkeystrokes.input.InputEventHandler;
+import com.ryduzz.visualkeystrokes.util.IntStrings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records every key and mouse edge published to the {@link InputEventBus} into {@link SessionFormat} segments in a
+ * sessions directory. All file work, including opening and rolling segments, happens on a dedicated daemon thread
+ * that drains its own bus cursor; the game thread only flips the recording flag.
+ */
+public final class SessionRecorder {
+    public static final int DEFAULT_SEGMENT_BYTES = 4 * 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("visualkeystrokes");
+    private static final long ACTIVE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SHUTDOWN_WAIT_MILLIS = 2000L;
+    private static final DateTimeFormatter SESSION_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final InputEventBus bus;
+    private final Path directory;
+    private final int segmentBytes;
+    private volatile boolean recording;
+    private volatile boolean closed;
+    /**
+     * Bumped by every {@link #start()}, so a stop and start that both land between two wake-ups of the recorder
+     * thread still end the old session and begin a new one.
+     */
+    private volatile int generation;
+    private Thread thread;
+
+    // Recorder thread state.
+    private final InputEventHandler writeEvent = this::write;
+    private InputEventBus.Cursor cursor;
+    private int sessionGeneration;
+    private SegmentWriter segment;
+    private String session;
+    private int segmentIndex;
+    private boolean failed;
+
+    public SessionRecorder(InputEventBus bus, Path directory) {
+        this(bus, directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public SessionRecorder(InputEventBus bus, Path directory, int segmentBytes) {
+        if (segmentBytes < SessionFormat.HEADER_BYTES + SessionFormat.MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        }
+        this.bus = bus;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Starts a new session with the next published event. Returns immediately; the files are created on the
+     * recorder thread.
+     */
+    public synchronized void start() {
+        if (closed) {
+            return;
+        }
+        generation++;
+        recording = true;
+        if (thread == null) {
+            thread = new Thread(this::run, "VisualKeystrokes-Recorder");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Ends the current session. The last events are written and the segment closed on the recorder thread.
+     */
+    public synchronized void stop() {
+        recording = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Stops recording and waits briefly for the recorder thread to write out the session. For shutdown only.
+     */
+    public void close() {
+        Thread recorderThread;
+        synchronized (this) {
+            closed = true;
+            recording = false;
+            recorderThread = thread;
+        }
+        if (recorderThread == null) {
+            return;
+        }
+        LockSupport.unpark(recorderThread);
+        try {
+            recorderThread.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (!closed || cursor != null) {
+            if (recording && !closed) {
+                if (cursor != null && sessionGeneration != generation) {
+                    drain();
+                    finishSession();
+                }
+                if (cursor == null) {
+                    sessionGeneration = generation;
+                    cursor = bus.subscribe();
+                    session = LocalDateTime.now().format(SESSION_NAME);
+                    segmentIndex = 0;
+                }
+                drain();
+                LockSupport.parkNanos(this, ACTIVE_POLL_NANOS);
+            } else if (cursor != null) {
+                drain();
+                finishSession();
+            } else {
+                LockSupport.parkNanos(this, IDLE_POLL_NANOS);
+            }
+        }
+    }
+
+    private void drain() {
+        cursor.poll(writeEvent);
+        if (segment != null) {
+            segment.commit();
+        }
+    }
+
+    private void write(long timeNanos, OverlayConfig.InputType type, int code, int action) {
+        if (failed) {
+            return;
+        }
+        try {
+            if (segment == null) {
+                segment = openSegment();
+            }
+            if (!segment.append(timeNanos, type.ordinal(), code, action)) {
+                segment.close();
+                segment = openSegment();
+                segment.append(timeNanos, type.ordinal(), code, action);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to write Visual Keystrokes session {}, recording stopped", session, e);
+            recording = false;
+            failed = true;
+            closeSegmentQuietly();
+        }
+    }
+
+    /**
+     * Closes the current segment after a write failure so its channel and mapping are released and the file is
+     * truncated to what was written. A second failure is only logged.
+     */
+    private void closeSegmentQuietly() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to close Visual Keystrokes session {} after a write error", session, e);
+        }
+        segment = null;
+    }
+
+    private SegmentWriter openSegment() throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve(session + "-" + IntStrings.zeroPadded(segmentIndex++, 3) + SessionFormat.EXTENSION);
+        return new SegmentWriter(path, segmentBytes);
+    }
+
+    private void finishSession() {
+        if (cursor.dropped() > 0) {
+            LOGGER.warn("Visual Keystrokes session {} missed {} input events", session, cursor.dropped());
+        }
+        if (segment != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                LOGGER.error("Failed to close Visual Keystrokes session {}", session, e);
+            }
+        }
+        segment = null;
+        cursor = null;
+        session = null;
+        failed = false;
+    }
+}
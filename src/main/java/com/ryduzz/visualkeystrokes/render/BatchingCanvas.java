@@ -0,0 +1,116 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import java.util.Arrays;
+
+/**
+ * Collects a frame's draws and hands them to the target canvas in two passes on {@link #flush()}: every rectangle
+ * first, then every string. Interleaving fills and text switches render layers once per key, and each switch ends
+ * the current GUI batch; with all rectangles contiguous the game's GUI buffer can submit them as one draw, followed
+ * by a single text pass. Text therefore always lands on top of every rectangle in the batch.
+ * <p>
+ * Buffers grow to the largest frame seen and are reused, so a steady-state frame does not allocate.
+ */
+public final class BatchingCanvas implements OverlayCanvas {
+    private static final int RECT_STRIDE = 5;
+    private static final int TEXT_STRIDE = 3;
+
+    private final OverlayCanvas target;
+    private int[] rects = new int[RECT_STRIDE * 64];
+    private int rectCount;
+    private String[] texts = new String[32];
+    private int[] textData = new int[TEXT_STRIDE * 32];
+    private int textCount;
+
+    public BatchingCanvas(OverlayCanvas target) {
+        this.target = target;
+    }
+
+    public OverlayCanvas target() {
+        return target;
+    }
+
+    @Override
+    public void fill(int x1, int y1, int x2, int y2, int color) {
+        int offset = rectCount * RECT_STRIDE;
+        if (offset + RECT_STRIDE > rects.length) {
+            rects = Arrays.copyOf(rects, rects.length * 2);
+        }
+        rects[offset] = x1;
+        rects[offset + 1] = y1;
+        rects[offset + 2] = x2;
+        rects[offset + 3] = y2;
+        rects[offset + 4] = color;
+        rectCount++;
+    }
+
+    @Override
+    public void drawText(String text, int x, int y, int color) {
+        if (textCount == texts.length) {
+            texts = Arrays.copyOf(texts, texts.length * 2);
+            textData = Arrays.copyOf(textData, textData.length * 2);
+        }
+        int offset = textCount * TEXT_STRIDE;
+        texts[textCount] = text;
+        textData[offset] = x;
+        textData[offset + 1] = y;
+        textData[offset + 2] = color;
+        textCount++;
+    }
+
+    @Override
+    public int getWidth(String text) {
+        return target.getWidth(text);
+    }
+
+    @Override
+    public int fontHeight() {
+        return target.fontHeight();
+    }
+
+    public int rectCount() {
+        return rectCount;
+    }
+
+    public int textCount() {
+        return textCount;
+    }
+
+    /**
+     * Emits the batched rectangles, then the batched text, to the target and empties the batch.
+     */
+    public void flush() {
+        replay();
+        clear();
+    }
+
+    /**
+     * Emits the batch to the target like {@link #flush()} but keeps it, so an unchanged frame can be drawn again
+     * without being rebuilt.
+     */
+    public void replay() {
+        replayTo(target);
+    }
+
+    /**
+     * Emits the batch to {@code target} instead of this batch's own target, rectangles first, and keeps it.
+     */
+    public void replayTo(OverlayCanvas target) {
+        int[] rects = this.rects;
+        for (int i = 0, offset = 0; i < rectCount; i++, offset += RECT_STRIDE) {
+            target.fill(rects[offset], rects[offset + 1], rects[offset + 2], rects[offset + 3], rects[offset + 4]);
+        }
+        int[] textData = this.textData;
+        for (int i = 0, offset = 0; i < textCount; i++, offset += TEXT_STRIDE) {
+            target.drawText(texts[i], textData[offset], textData[offset + 1], textData[offset + 2]);
+        }
+    }
+
+    /**
+     * Drops everything batched since the last flush.
+     */
+    public void clear() {
+        rectCount = 0;
+        Arrays.fill(texts, 0, textCount, null);
+        textCount = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+
+/**
+ * {@link OverlayCanvas} over the current frame's {@link DrawContext}. One instance is reused across frames and rebound
+ * before every draw.
+ */
+public final class DrawContextCanvas implements OverlayCanvas {
+    private final TextRenderer textRenderer;
+    private DrawContext context;
+
+    public DrawContextCanvas(TextRenderer textRenderer) {
+        this.textRenderer = textRenderer;
+    }
+
+    public TextRenderer textRenderer() {
+        return textRenderer;
+    }
+
+    public DrawContext context() {
+        return context;
+    }
+
+    public void bind(DrawContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void fill(int x1, int y1, int x2, int y2, int color) {
+        context.fill(x1, y1, x2, y2, color);
+    }
+
+    @Override
+    public void drawText(String text, int x, int y, int color) {
+        context.drawTextWithShadow(textRenderer, text, x, y, color);
+    }
+
+    @Override
+    public int getWidth(String text) {
+        return textRenderer.getWidth(text);
+    }
+
+    @Override
+    public int fontHeight() {
+        return textRenderer.fontHeight;
+    }
+}
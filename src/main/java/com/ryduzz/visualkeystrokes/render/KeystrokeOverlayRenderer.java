@@ -1,7 +1,11 @@
 package com.ryduzz.visualkeystrokes.render;
 
-import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.input.BarGraphProvider;
+import com.ryduzz.visualkeystrokes.input.InputSnapshot;
 import com.ryduzz.visualkeystrokes.input.InputTracker;
+import com.ryduzz.visualkeystrokes.input.StatRegistry;
+import com.ryduzz.visualkeystrokes.perf.PerfMonitor;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import com.ryduzz.visualkeystrokes.util.MatrixStackCompat;
@@ -12,71 +16,183 @@ import java.util.function.Supplier;
 
 public final class KeystrokeOverlayRenderer {
     private final InputTracker tracker;
-    private final Supplier<OverlayConfig> configSupplier;
-    private final MinecraftClient client;
+    private final Supplier<ConfigSnapshot> configSupplier;
+    private DrawContextCanvas canvas;
+    private BatchingCanvas batch;
+    private OverlayRenderTarget renderTarget;
+    private RenderPlan plan;
+    private final InputSnapshot cachedInput = new InputSnapshot();
+    private RenderPlan cachedPlan;
+    private long cachedStatValues;
+    private int frameRects;
+    private int frameTexts;
 
-    public KeystrokeOverlayRenderer(InputTracker tracker, Supplier<OverlayConfig> configSupplier) {
+    public KeystrokeOverlayRenderer(InputTracker tracker, Supplier<ConfigSnapshot> configSupplier) {
         this.tracker = tracker;
         this.configSupplier = configSupplier;
-        this.client = MinecraftClient.getInstance();
     }
 
     public void render(DrawContext context) {
-        OverlayConfig config = configSupplier.get();
-        TextRenderer textRenderer = client.textRenderer;
-        float renderScale = RenderSnap.snapScale(config.scale);
-        double offsetX = RenderSnap.snapOffset(config.offsetX, renderScale);
-        double offsetY = RenderSnap.snapOffset(config.offsetY, renderScale);
+        PerfMonitor.beginFrame();
+        ConfigSnapshot config = configSupplier.get();
+        TextRenderer textRenderer = MinecraftClient.getInstance().textRenderer;
+        if (canvas == null || canvas.textRenderer() != textRenderer) {
+            if (renderTarget != null) {
+                renderTarget.close();
+            }
+            canvas = new DrawContextCanvas(textRenderer);
+            batch = new BatchingCanvas(canvas);
+            renderTarget = new OverlayRenderTarget(textRenderer);
+            cachedPlan = null;
+        }
+        canvas.bind(context);
+        float renderScale = RenderSnap.snapScale(config.scale());
+        double offsetX = RenderSnap.snapOffset(config.offsetX(), renderScale);
+        double offsetY = RenderSnap.snapOffset(config.offsetY(), renderScale);
 
         MatrixStackCompat.push(context.getMatrices());
         MatrixStackCompat.translate(context.getMatrices(), offsetX, offsetY);
         MatrixStackCompat.scale(context.getMatrices(), renderScale, renderScale);
+        float pixelScale = renderScale * (float) MinecraftClient.getInstance().getWindow().getScaleFactor();
+        renderBatch(config, pixelScale);
+        MatrixStackCompat.pop(context.getMatrices());
+        PerfMonitor.endFrame(frameRects, frameTexts);
+    }
+
+    /**
+     * Draws {@code config}'s keys onto {@code canvas} in overlay coordinates. The caller is responsible for the
+     * overlay offset and scale.
+     */
+    public void render(OverlayCanvas canvas, ConfigSnapshot config) {
+        RenderPlan plan = currentPlan(config, canvas);
+        InputSnapshot input = tracker.snapshot(plan.keyCodes(), plan.mouseButtons());
+        tracker.stats().update(System.nanoTime());
+        draw(canvas, plan, input);
+    }
+
+    /**
+     * The HUD frame without a {@link DrawContext}, for checks running outside the game: draws {@code config} through
+     * {@code batch} and records the frame exactly as {@link #render(DrawContext)} does, frame cache included. No
+     * offscreen target is created on this path, so a cached frame is always replayed into {@code batch}'s target.
+     */
+    void renderFrame(BatchingCanvas batch, ConfigSnapshot config) {
+        if (this.batch != batch) {
+            this.batch = batch;
+            cachedPlan = null;
+        }
+        PerfMonitor.beginFrame();
+        renderBatch(config, 1.0f);
+        PerfMonitor.endFrame(frameRects, frameTexts);
+    }
+
+    /**
+     * Draws the frame through the batch. With the config's frame cache on, the batch is only rebuilt when the plan
+     * (and so the config version), the pressed state or any stat's text changed, which skips the key walk, stat reads
+     * and text measurement. Where an offscreen {@link OverlayRenderTarget} is supported the rebuilt batch is rendered
+     * into it once and every frame is a single textured quad; elsewhere the kept batch is replayed.
+     * {@code pixelScale} is framebuffer pixels per overlay unit, for sizing the target.
+     */
+    private void renderBatch(ConfigSnapshot config, float pixelScale) {
+        RenderPlan plan = currentPlan(config, batch);
+        InputSnapshot input = tracker.snapshot(plan.keyCodes(), plan.mouseButtons());
+        StatRegistry stats = tracker.stats();
+        stats.update(System.nanoTime());
+
+        if (!config.frameCache()) {
+            draw(batch, plan, input);
+            countDraws();
+            batch.flush();
+            cachedPlan = null;
+            return;
+        }
+        boolean changed = plan != cachedPlan || stats.valueVersion() != cachedStatValues
+            || !input.sameState(cachedInput);
+        if (changed) {
+            batch.clear();
+            draw(batch, plan, input);
+            cachedPlan = plan;
+            cachedStatValues = stats.valueVersion();
+            cachedInput.copyFrom(input);
+        }
+        countDraws();
+        if (renderTarget == null || !renderTarget.isSupported()) {
+            batch.replay();
+            return;
+        }
+        int width = plan.boundsRight - plan.boundsLeft;
+        int height = plan.boundsBottom - plan.boundsTop;
+        if (changed || !renderTarget.matches(plan.boundsLeft, plan.boundsTop, width, height, pixelScale)) {
+            renderTarget.update(batch, plan.boundsLeft, plan.boundsTop, width, height, pixelScale);
+        }
+        renderTarget.draw(canvas.context());
+    }
+
+    private void countDraws() {
+        frameRects = batch.rectCount();
+        frameTexts = batch.textCount();
+    }
+
+    private void draw(OverlayCanvas canvas, RenderPlan plan, InputSnapshot input) {
+        byte[] kind = plan.kind;
+        int[] code = plan.code;
+        int[] x = plan.x;
+        int[] y = plan.y;
+        int[] right = plan.right;
+        int[] bottom = plan.bottom;
+        int[] backgroundColor = plan.backgroundColor;
+        int[] pressedColor = plan.pressedColor;
+        int[] borderColor = plan.borderColor;
+        int[] textColor = plan.textColor;
+        int[] labelIndex = plan.labelIndex;
+        int[] labelX = plan.labelX;
+        int[] labelY = plan.labelY;
+        String[] labels = plan.labels;
+
+        for (int i = 0; i < plan.size; i++) {
+            boolean pressed = switch (kind[i]) {
+                case RenderPlan.KIND_KEY -> input.isKeyPressed(code[i]);
+                case RenderPlan.KIND_MOUSE -> input.isMousePressed(code[i]);
+                default -> false;
+            };
+            int fillColor = pressed ? pressedColor[i] : backgroundColor[i];
 
-        for (OverlayConfig.KeyDefinition key : config.keys) {
-            if (!key.isVisible()) {
-                continue;
+            canvas.fill(x[i], y[i], right[i], bottom[i], fillColor);
+            canvas.drawBorder(x[i], y[i], right[i], bottom[i], borderColor[i]);
+            canvas.drawText(labels[labelIndex[i]], labelX[i], labelY[i], textColor[i]);
+
+            if (kind[i] == RenderPlan.KIND_STAT || kind[i] == RenderPlan.KIND_GRAPH) {
+                String value = plan.stat[i].value();
+                int valueWidth = canvas.getWidth(value);
+                int valueX = x[i] + (plan.width[i] - valueWidth) / 2;
+                canvas.drawText(value, valueX, plan.valueY[i], textColor[i]);
             }
-            boolean pressed = tracker.isPressed(key.type, key.code);
-            int background = OverlayConfig.resolveColor(key.backgroundColorOverride, config.backgroundColor);
-            int pressedBackground = OverlayConfig.resolveColor(key.pressedColorOverride, config.pressedColor);
-            int borderColor = OverlayConfig.resolveColor(key.borderColorOverride, config.borderColor);
-            int textColor = OverlayConfig.resolveColor(key.textColorOverride, config.textColor);
-            int fillColor = pressed ? pressedBackground : background;
-
-            int x = key.x;
-            int y = key.y;
-            int width = key.width;
-            int height = key.height;
-
-            context.fill(x, y, x + width, y + height, fillColor);
-            drawBorder(context, x, y, width, height, borderColor);
-
-            if (key.type == OverlayConfig.InputType.STAT) {
-                String value = tracker.getStatValue(key.statId);
-                int labelWidth = textRenderer.getWidth(key.label);
-                int labelX = x + (width - labelWidth) / 2;
-                int labelY = y + 2;
-                context.drawTextWithShadow(textRenderer, key.label, labelX, labelY, textColor);
-
-                int valueWidth = textRenderer.getWidth(value);
-                int valueX = x + (width - valueWidth) / 2;
-                int valueY = y + height - textRenderer.fontHeight - 2;
-                context.drawTextWithShadow(textRenderer, value, valueX, valueY, textColor);
-            } else {
-                int textWidth = textRenderer.getWidth(key.label);
-                int textX = x + (width - textWidth) / 2;
-                int textY = y + (height - textRenderer.fontHeight) / 2;
-                context.drawTextWithShadow(textRenderer, key.label, textX, textY, textColor);
+            if (kind[i] == RenderPlan.KIND_GRAPH) {
+                drawBars(canvas, plan, i);
             }
         }
+    }
 
-        MatrixStackCompat.pop(context.getMatrices());
+    private static void drawBars(OverlayCanvas canvas, RenderPlan plan, int i) {
+        BarGraphProvider graph = plan.graph[i];
+        int bottom = plan.graphBottom[i];
+        int height = bottom - plan.graphTop[i];
+        int barWidth = plan.barWidth[i];
+        int color = plan.textColor[i];
+        int barX = plan.graphX[i];
+        for (int bar = 0; bar < graph.barCount(); bar++, barX += barWidth) {
+            int barHeight = graph.barLevel(bar) * height / BarGraphProvider.MAX_LEVEL;
+            if (barHeight > 0) {
+                // One column of gap between bars once they are wide enough to spare it.
+                canvas.fill(barX, bottom - barHeight, barX + Math.max(1, barWidth - 1), bottom, color);
+            }
+        }
     }
 
-    private static void drawBorder(DrawContext context, int x, int y, int width, int height, int color) {
-        context.fill(x, y, x + width, y + 1, color);
-        context.fill(x, y + height - 1, x + width, y + height, color);
-        context.fill(x, y, x + 1, y + height, color);
-        context.fill(x + width - 1, y, x + width, y + height, color);
+    private RenderPlan currentPlan(ConfigSnapshot config, OverlayCanvas canvas) {
+        StatRegistry stats = tracker.stats();
+        if (plan == null || plan.isStale(config, canvas, stats)) {
+            plan = RenderPlan.build(config, canvas, stats);
+        }
+        return plan;
     }
 }
@@ -0,0 +1,28 @@
+package com.ryduzz.visualkeystrokes.render;
+
+/**
+ * The drawing operations the overlay needs, in overlay coordinates. Lets the key layout be drawn onto something
+ * other than a {@code DrawContext}, e.g. a benchmark or test canvas.
+ */
+public interface OverlayCanvas {
+    void fill(int x1, int y1, int x2, int y2, int color);
+
+    /**
+     * Draws a one pixel outline just inside the rectangle, as four fills.
+     */
+    default void drawBorder(int x1, int y1, int x2, int y2, int color) {
+        fill(x1, y1, x2, y1 + 1, color);
+        fill(x1, y2 - 1, x2, y2, color);
+        fill(x1, y1, x1 + 1, y2, color);
+        fill(x2 - 1, y1, x2, y2, color);
+    }
+
+    /**
+     * Draws {@code text} with a drop shadow.
+     */
+    void drawText(String text, int x, int y, int color);
+
+    int getWidth(String text);
+
+    int fontHeight();
+}
@@ -0,0 +1,212 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import com.ryduzz.visualkeystrokes.config.ConfigSnapshot;
+import com.ryduzz.visualkeystrokes.input.BarGraphProvider;
+import com.ryduzz.visualkeystrokes.input.StatProvider;
+import com.ryduzz.visualkeystrokes.input.StatRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, pre-resolved layout of the visible overlay keys. Built once per config snapshot so the per-frame
+ * render only has to look up pressed state and emit draws.
+ * <p>
+ * Keys are stored as parallel primitive arrays indexed {@code 0..size-1} rather than one object per key, so the
+ * frame loop is a linear scan over contiguous memory. Labels are de-duplicated into {@link #labels} and referenced
+ * by index; their draw position is measured at build time.
+ */
+final class RenderPlan {
+    static final byte KIND_KEY = 0;
+    static final byte KIND_MOUSE = 1;
+    static final byte KIND_STAT = 2;
+    /**
+     * A STAT key whose provider is a {@link BarGraphProvider}; drawn like a stat with bars between label and value.
+     */
+    static final byte KIND_GRAPH = 3;
+
+    final int size;
+    final byte[] kind;
+    final int[] code;
+    final int[] x;
+    final int[] y;
+    final int[] right;
+    final int[] bottom;
+    final int[] width;
+    final int[] backgroundColor;
+    final int[] pressedColor;
+    final int[] borderColor;
+    final int[] textColor;
+    final int[] labelIndex;
+    final int[] labelX;
+    final int[] labelY;
+    /**
+     * Baseline of the stat value line; only meaningful for {@link #KIND_STAT} keys.
+     */
+    final int[] valueY;
+    /**
+     * Provider per key, {@code null} for anything but {@link #KIND_STAT} and {@link #KIND_GRAPH}.
+     */
+    final StatProvider[] stat;
+    /**
+     * Graph provider per key, {@code null} for anything but {@link #KIND_GRAPH}. The bar area spans
+     * {@link #graphTop} to {@link #graphBottom} and starts at {@link #graphX}, one {@link #barWidth} per bar.
+     */
+    final BarGraphProvider[] graph;
+    final int[] graphX;
+    final int[] graphTop;
+    final int[] graphBottom;
+    final int[] barWidth;
+    final String[] labels;
+    /**
+     * Bounding box of every visible key in overlay coordinates, empty when there are none.
+     */
+    final int boundsLeft;
+    final int boundsTop;
+    final int boundsRight;
+    final int boundsBottom;
+
+    private final ConfigSnapshot config;
+    private final OverlayCanvas canvas;
+    private final StatRegistry stats;
+    private final int statsVersion;
+    private final int[] keyCodes;
+    private final int[] mouseButtons;
+
+    private RenderPlan(ConfigSnapshot config, OverlayCanvas canvas, StatRegistry stats, int capacity) {
+        this.config = config;
+        this.canvas = canvas;
+        this.stats = stats;
+        this.statsVersion = stats.version();
+
+        List<String> labels = new ArrayList<>();
+        Map<String, Integer> labelIds = new HashMap<>();
+        Set<Integer> keyCodes = new LinkedHashSet<>();
+        Set<Integer> mouseButtons = new LinkedHashSet<>();
+        kind = new byte[capacity];
+        code = new int[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        right = new int[capacity];
+        bottom = new int[capacity];
+        width = new int[capacity];
+        backgroundColor = new int[capacity];
+        pressedColor = new int[capacity];
+        borderColor = new int[capacity];
+        textColor = new int[capacity];
+        labelIndex = new int[capacity];
+        labelX = new int[capacity];
+        labelY = new int[capacity];
+        valueY = new int[capacity];
+        stat = new StatProvider[capacity];
+        graph = new BarGraphProvider[capacity];
+        graphX = new int[capacity];
+        graphTop = new int[capacity];
+        graphBottom = new int[capacity];
+        barWidth = new int[capacity];
+
+        int fontHeight = canvas.fontHeight();
+        int boundsLeft = Integer.MAX_VALUE;
+        int boundsTop = Integer.MAX_VALUE;
+        int boundsRight = Integer.MIN_VALUE;
+        int boundsBottom = Integer.MIN_VALUE;
+        int i = 0;
+        for (ConfigSnapshot.Key key : config.keys()) {
+            if (!key.isVisible()) {
+                continue;
+            }
+            code[i] = key.code();
+            x[i] = key.x();
+            y[i] = key.y();
+            right[i] = key.x() + key.width();
+            bottom[i] = key.y() + key.height();
+            width[i] = key.width();
+            boundsLeft = Math.min(boundsLeft, x[i]);
+            boundsTop = Math.min(boundsTop, y[i]);
+            boundsRight = Math.max(boundsRight, right[i]);
+            boundsBottom = Math.max(boundsBottom, bottom[i]);
+            backgroundColor[i] = key.backgroundColor();
+            pressedColor[i] = key.pressedColor();
+            borderColor[i] = key.borderColor();
+            textColor[i] = key.textColor();
+            labelIndex[i] = labelIds.computeIfAbsent(key.label(), label -> {
+                labels.add(label);
+                return labels.size() - 1;
+            });
+            labelX[i] = key.x() + (key.width() - canvas.getWidth(key.label())) / 2;
+            labelY[i] = key.y() + (key.height() - fontHeight) / 2;
+
+            switch (key.type()) {
+                case KEY -> {
+                    kind[i] = KIND_KEY;
+                    keyCodes.add(key.code());
+                }
+                case MOUSE -> {
+                    kind[i] = KIND_MOUSE;
+                    mouseButtons.add(key.code());
+                }
+                case STAT -> {
+                    kind[i] = KIND_STAT;
+                    stat[i] = stats.get(key.statId());
+                    labelY[i] = key.y() + 2;
+                    valueY[i] = key.y() + key.height() - fontHeight - 2;
+                    if (stat[i] instanceof BarGraphProvider provider) {
+                        kind[i] = KIND_GRAPH;
+                        graph[i] = provider;
+                        barWidth[i] = Math.max(1, (key.width() - 4) / provider.barCount());
+                        graphX[i] = key.x() + (key.width() - barWidth[i] * provider.barCount()) / 2;
+                        graphTop[i] = labelY[i] + fontHeight;
+                        graphBottom[i] = valueY[i] - 1;
+                    }
+                }
+            }
+            i++;
+        }
+        this.size = i;
+        this.boundsLeft = i == 0 ? 0 : boundsLeft;
+        this.boundsTop = i == 0 ? 0 : boundsTop;
+        this.boundsRight = i == 0 ? 0 : boundsRight;
+        this.boundsBottom = i == 0 ? 0 : boundsBottom;
+        this.labels = labels.toArray(new String[0]);
+        this.keyCodes = toArray(keyCodes);
+        this.mouseButtons = toArray(mouseButtons);
+    }
+
+    static RenderPlan build(ConfigSnapshot config, OverlayCanvas canvas, StatRegistry stats) {
+        int visible = 0;
+        for (ConfigSnapshot.Key key : config.keys()) {
+            if (key.isVisible()) {
+                visible++;
+            }
+        }
+        return new RenderPlan(config, canvas, stats, visible);
+    }
+
+    boolean isStale(ConfigSnapshot config, OverlayCanvas canvas, StatRegistry stats) {
+        return this.config.version() != config.version()
+            || this.canvas != canvas
+            || this.stats != stats
+            || this.statsVersion != stats.version();
+    }
+
+    int[] keyCodes() {
+        return keyCodes;
+    }
+
+    int[] mouseButtons() {
+        return mouseButtons;
+    }
+
+    private static int[] toArray(Set<Integer> codes) {
+        int[] array = new int[codes.size()];
+        int i = 0;
+        for (int code : codes) {
+            array[i++] = code;
+        }
+        return array;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+/**
+ * Axis-aligned rectangle in overlay coordinates. Edges are inclusive for hit-testing.
+ */
+final class Bounds {
+    final int x;
+    final int y;
+    final int width;
+    final int height;
+
+    Bounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    int area() {
+        return width * height;
+    }
+
+    boolean contains(double px, double py) {
+        return px >= x && px <= x + width && py >= y && py <= y + height;
+    }
+
+    boolean intersects(Bounds other) {
+        return x <= other.x + other.width
+            && x + width >= other.x
+            && y <= other.y + other.height
+            && y + height >= other.y;
+    }
+}
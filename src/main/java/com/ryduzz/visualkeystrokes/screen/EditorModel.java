@@ -0,0 +1,1140 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Editor state and operations in overlay coordinates: groups, selection, drags, snapping and templates. Nothing here
+ * touches Minecraft's screen or rendering classes, so the editor screens only translate mouse input and widgets into
+ * these calls, and the operations can be driven headlessly. Changes that should reach the HUD are committed by the
+ * caller; continuous drags report an edit when they end.
+ */
+final class EditorModel {
+    static final int MIN_GROUP_SIZE = 12;
+    private static final int GROUP_INDEX_CELL_SHIFT = 5;
+
+    private final OverlayConfig config;
+    private final List<Group> groups = new ArrayList<>();
+    private final Map<String, Group> groupById = new HashMap<>();
+    private final GroupIndex<Group> groupIndex = new GroupIndex<>(GROUP_INDEX_CELL_SHIFT);
+    private final Map<String, Template> templates = new LinkedHashMap<>();
+
+    private final List<Group> selectedGroups = new ArrayList<>();
+    private DragMode dragMode = DragMode.NONE;
+    private ResizeHandle resizeHandle = ResizeHandle.NONE;
+    private double dragOffsetX;
+    private double dragOffsetY;
+    private Bounds dragStartBounds;
+    private double dragStartX;
+    private double dragStartY;
+    private boolean draggingFromSidebar;
+    private List<KeySnapshot> resizeSnapshots;
+    private boolean lassoActive;
+    private double lassoStartX;
+    private double lassoStartY;
+    private double lassoEndX;
+    private double lassoEndY;
+    private final SnapEngine snapEngine = new SnapEngine();
+    private final List<DistanceLabel> distanceLabels = new ArrayList<>();
+    private int viewportWidth;
+    private int viewportHeight;
+
+    EditorModel(OverlayConfig config) {
+        this.config = config;
+        rebuildGroups();
+        buildTemplates();
+    }
+
+    OverlayConfig config() {
+        return config;
+    }
+
+    /**
+     * Screen size in scaled pixels, used for snapping to the screen edges and for edge distance labels.
+     */
+    void setViewport(int width, int height) {
+        this.viewportWidth = width;
+        this.viewportHeight = height;
+    }
+
+    List<Group> groups() {
+        return groups;
+    }
+
+    Group group(String id) {
+        return groupById.get(id);
+    }
+
+    Group hitTest(double overlayX, double overlayY) {
+        return groupIndex.queryPoint(overlayX, overlayY);
+    }
+
+    List<Group> selection() {
+        return selectedGroups;
+    }
+
+    boolean hasSelection() {
+        return !selectedGroups.isEmpty();
+    }
+
+    Group primarySelected() {
+        if (selectedGroups.isEmpty()) {
+            return null;
+        }
+        return selectedGroups.get(selectedGroups.size() - 1);
+    }
+
+    boolean isKeySelected(OverlayConfig.KeyDefinition key) {
+        for (Group group : selectedGroups) {
+            if (group.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void select(Group group) {
+        selectedGroups.clear();
+        selectedGroups.add(group);
+    }
+
+    void clearSelection() {
+        selectedGroups.clear();
+    }
+
+    /**
+     * Replaces the selection with every visible group intersecting {@code rect}, in layout order.
+     */
+    void selectInRect(Bounds rect) {
+        selectedGroups.clear();
+        groupIndex.queryRect(rect, selectedGroups);
+    }
+
+    Bounds selectedBounds() {
+        if (selectedGroups.isEmpty()) {
+            return null;
+        }
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        for (Group group : selectedGroups) {
+            Bounds bounds = group.getBounds();
+            minX = Math.min(minX, bounds.x);
+            minY = Math.min(minY, bounds.y);
+            maxX = Math.max(maxX, bounds.x + bounds.width);
+            maxY = Math.max(maxY, bounds.y + bounds.height);
+        }
+
+        return new Bounds(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    List<OverlayConfig.KeyDefinition> keysForSelectedGroups() {
+        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
+        for (Group group : selectedGroups) {
+            keys.addAll(group.keys);
+        }
+        return keys;
+    }
+
+    DragMode dragMode() {
+        return dragMode;
+    }
+
+    boolean isDragging() {
+        return dragMode == DragMode.MOVE || dragMode == DragMode.RESIZE;
+    }
+
+    SnapEngine snapEngine() {
+        return snapEngine;
+    }
+
+    List<DistanceLabel> distanceLabels() {
+        return distanceLabels;
+    }
+
+    /**
+     * The lasso rectangle while one is being dragged, or {@code null} if none is active or it is still too small to
+     * select anything.
+     */
+    Bounds lassoBounds() {
+        if (!lassoActive || dragMode != DragMode.LASSO) {
+            return null;
+        }
+        return currentLasso();
+    }
+
+    /**
+     * Starts moving the selection with {@code hit} under the pointer. Clicking a group outside the selection selects
+     * it alone; returns whether the selection changed.
+     */
+    boolean beginMove(Group hit, double overlayX, double overlayY) {
+        boolean selectionChanged = false;
+        if (!selectedGroups.contains(hit)) {
+            select(hit);
+            selectionChanged = true;
+        }
+        dragMode = DragMode.MOVE;
+        draggingFromSidebar = false;
+        Bounds bounds = selectedGroups.size() > 1 ? selectedBounds() : hit.getBounds();
+        if (bounds == null) {
+            bounds = hit.getBounds();
+        }
+        dragOffsetX = overlayX - bounds.x;
+        dragOffsetY = overlayY - bounds.y;
+        return selectionChanged;
+    }
+
+    /**
+     * Shows the template's group, adding its keys to the config on first use, and starts dragging it centered on the
+     * pointer. Returns whether keys were added.
+     */
+    boolean beginTemplateDrag(Template template, double overlayX, double overlayY) {
+        boolean added = false;
+        Group group = groupById.get(template.id);
+        if (group == null) {
+            addTemplate(template);
+            group = groupById.get(template.id);
+            added = true;
+        }
+        dragMode = DragMode.MOVE;
+        if (group == null) {
+            return added;
+        }
+        if (!group.isVisible()) {
+            resetGroupLayout(group, template);
+        }
+        group.setVisible(true);
+        select(group);
+        draggingFromSidebar = true;
+        Bounds bounds = group.getBounds();
+        dragOffsetX = bounds.width / 2.0;
+        dragOffsetY = bounds.height / 2.0;
+        int targetX = (int) Math.round(overlayX - bounds.width / 2.0);
+        int targetY = (int) Math.round(overlayY - bounds.height / 2.0);
+        moveSelectedBy(targetX - bounds.x, targetY - bounds.y);
+        return added;
+    }
+
+    /**
+     * Starts resizing the selection from {@code handle}. Key geometry is captured now so the resize always scales the
+     * original layout.
+     */
+    boolean beginResize(ResizeHandle handle, double overlayX, double overlayY) {
+        Bounds selectionBounds = selectedBounds();
+        if (handle == ResizeHandle.NONE || selectionBounds == null) {
+            return false;
+        }
+        dragMode = DragMode.RESIZE;
+        resizeHandle = handle;
+        dragStartBounds = selectionBounds;
+        resizeSnapshots = KeySnapshot.capture(keysForSelectedGroups());
+        dragStartX = overlayX;
+        dragStartY = overlayY;
+        return true;
+    }
+
+    void beginLasso(double overlayX, double overlayY) {
+        selectedGroups.clear();
+        dragMode = DragMode.LASSO;
+        lassoActive = true;
+        lassoStartX = overlayX;
+        lassoStartY = overlayY;
+        lassoEndX = overlayX;
+        lassoEndY = overlayY;
+    }
+
+    /**
+     * Continues the current drag to the pointer position. Returns whether the drag consumed the event.
+     */
+    boolean dragTo(double overlayX, double overlayY) {
+        if (dragMode == DragMode.NONE) {
+            return false;
+        }
+
+        if (dragMode == DragMode.LASSO) {
+            lassoEndX = overlayX;
+            lassoEndY = overlayY;
+            updateLassoSelection();
+            return true;
+        }
+
+        if (selectedGroups.isEmpty()) {
+            return false;
+        }
+
+        if (dragMode == DragMode.MOVE) {
+            Group primary = primarySelected();
+            if (primary == null) {
+                return false;
+            }
+            Bounds bounds = selectedBounds();
+            if (bounds == null) {
+                bounds = primary.getBounds();
+            }
+            double targetX = overlayX - dragOffsetX;
+            double targetY = overlayY - dragOffsetY;
+            if (draggingFromSidebar) {
+                targetX = overlayX - bounds.width / 2.0;
+                targetY = overlayY - bounds.height / 2.0;
+            }
+            Bounds targetBounds = new Bounds((int) Math.round(targetX), (int) Math.round(targetY), bounds.width, bounds.height);
+            Bounds snapped = applySnapping(targetBounds);
+            int dx = snapped.x - bounds.x;
+            int dy = snapped.y - bounds.y;
+            moveSelectedBy(dx, dy);
+            return true;
+        }
+
+        if (dragMode == DragMode.RESIZE) {
+            resizeSelection(overlayX, overlayY);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Finishes the current drag. A move released with {@code hideSelection} set (dropped back onto the sidebar) hides
+     * the dragged groups. Returns whether the layout was edited and should be committed.
+     */
+    boolean endDrag(boolean hideSelection) {
+        if (dragMode == DragMode.NONE) {
+            return false;
+        }
+        boolean edited = dragMode == DragMode.MOVE || dragMode == DragMode.RESIZE;
+        if (dragMode == DragMode.MOVE && hideSelection) {
+            hideSelected();
+        }
+        if (dragMode == DragMode.LASSO) {
+            selectGroupInLasso();
+        }
+        cancelDrag();
+        return edited;
+    }
+
+    void cancelDrag() {
+        dragMode = DragMode.NONE;
+        resizeHandle = ResizeHandle.NONE;
+        draggingFromSidebar = false;
+        dragStartBounds = null;
+        resizeSnapshots = null;
+        lassoActive = false;
+        snapEngine.reset();
+        distanceLabels.clear();
+    }
+
+    void moveSelectedBy(int dx, int dy) {
+        for (Group group : selectedGroups) {
+            group.moveBy(dx, dy);
+        }
+    }
+
+    /**
+     * Hides and deselects the selected groups. Returns {@code false} if nothing was selected.
+     */
+    boolean hideSelected() {
+        if (selectedGroups.isEmpty()) {
+            return false;
+        }
+        for (Group group : selectedGroups) {
+            group.setVisible(false);
+        }
+        selectedGroups.clear();
+        return true;
+    }
+
+    void toggleSelectionVisibility() {
+        List<OverlayConfig.KeyDefinition> keys = keysForSelectedGroups();
+        if (keys.isEmpty()) {
+            return;
+        }
+        boolean allVisible = true;
+        for (OverlayConfig.KeyDefinition key : keys) {
+            if (!key.isVisible()) {
+                allVisible = false;
+                break;
+            }
+        }
+        boolean next = !allVisible;
+        for (Group group : selectedGroups) {
+            group.setVisible(next);
+        }
+    }
+
+    List<Group> hiddenGroups(String filterText) {
+        String filter = filterText == null ? "" : filterText.trim().toLowerCase();
+        List<Group> hidden = new ArrayList<>();
+        for (Group group : groups) {
+            if (!group.isVisible() && group.matchesFilter(filter)) {
+                hidden.add(group);
+            }
+        }
+        return hidden;
+    }
+
+    /**
+     * Restores the default layout and drops the selection and any drag in progress.
+     */
+    void resetLayout() {
+        config.resetLayout();
+        selectedGroups.clear();
+        cancelDrag();
+        rebuildGroups();
+    }
+
+    void applySelectionColor(ColorTarget target, int color) {
+        for (OverlayConfig.KeyDefinition key : keysForSelectedGroups()) {
+            setColorOverride(key, target, color);
+        }
+    }
+
+    void clearSelectionColorOverrides() {
+        for (OverlayConfig.KeyDefinition key : keysForSelectedGroups()) {
+            setColorOverride(key, ColorTarget.BACKGROUND, null);
+            setColorOverride(key, ColorTarget.PRESSED, null);
+            setColorOverride(key, ColorTarget.BORDER, null);
+            setColorOverride(key, ColorTarget.TEXT, null);
+        }
+    }
+
+    ColorState selectionColorState(ColorTarget target) {
+        List<OverlayConfig.KeyDefinition> keys = keysForSelectedGroups();
+        int fallback = resolveConfigColor(target);
+        if (keys.isEmpty()) {
+            return new ColorState(fallback, false);
+        }
+        int color = resolveColor(keys.get(0), target);
+        boolean mixed = false;
+        for (OverlayConfig.KeyDefinition key : keys) {
+            if (resolveColor(key, target) != color) {
+                mixed = true;
+                break;
+            }
+        }
+        return new ColorState(color, mixed);
+    }
+
+    int resolveColor(OverlayConfig.KeyDefinition key, ColorTarget target) {
+        return switch (target) {
+            case BACKGROUND -> OverlayConfig.resolveColor(key.backgroundColorOverride, config.backgroundColor);
+            case PRESSED -> OverlayConfig.resolveColor(key.pressedColorOverride, config.pressedColor);
+            case BORDER -> OverlayConfig.resolveColor(key.borderColorOverride, config.borderColor);
+            case TEXT -> OverlayConfig.resolveColor(key.textColorOverride, config.textColor);
+        };
+    }
+
+    private int resolveConfigColor(ColorTarget target) {
+        return switch (target) {
+            case BACKGROUND -> config.backgroundColor;
+            case PRESSED -> config.pressedColor;
+            case BORDER -> config.borderColor;
+            case TEXT -> config.textColor;
+        };
+    }
+
+    private void setColorOverride(OverlayConfig.KeyDefinition key, ColorTarget target, Integer color) {
+        switch (target) {
+            case BACKGROUND -> key.backgroundColorOverride = color;
+            case PRESSED -> key.pressedColorOverride = color;
+            case BORDER -> key.borderColorOverride = color;
+            case TEXT -> key.textColorOverride = color;
+        }
+    }
+
+    List<Template> templates(String filterText) {
+        String filter = filterText == null ? "" : filterText.trim().toLowerCase();
+        List<Template> list = new ArrayList<>();
+        for (Template template : templates.values()) {
+            if (template.matchesFilter(filter)) {
+                list.add(template);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Appends a fresh copy of the template's keys to the config and regroups.
+     */
+    void addTemplate(Template template) {
+        for (OverlayConfig.KeyDefinition key : template.createKeys()) {
+            config.keys.add(key);
+        }
+        rebuildGroups();
+    }
+
+    void resetGroupLayout(Group group, Template template) {
+        List<OverlayConfig.KeyDefinition> templateKeys = template.keys;
+        List<OverlayConfig.KeyDefinition> groupKeys = group.keys;
+        if (templateKeys.size() == groupKeys.size()) {
+            for (int i = 0; i < groupKeys.size(); i++) {
+                applyTemplateLayout(groupKeys.get(i), templateKeys.get(i));
+            }
+            group.invalidate();
+            return;
+        }
+        Map<String, OverlayConfig.KeyDefinition> lookup = new HashMap<>();
+        for (OverlayConfig.KeyDefinition key : templateKeys) {
+            lookup.put(templateSignature(key), key);
+        }
+        for (OverlayConfig.KeyDefinition key : groupKeys) {
+            OverlayConfig.KeyDefinition templateKey = lookup.get(templateSignature(key));
+            if (templateKey != null) {
+                applyTemplateLayout(key, templateKey);
+            }
+        }
+        group.invalidate();
+    }
+
+    private void applyTemplateLayout(OverlayConfig.KeyDefinition target, OverlayConfig.KeyDefinition template) {
+        target.x = template.x;
+        target.y = template.y;
+        target.width = template.width;
+        target.height = template.height;
+    }
+
+    private String templateSignature(OverlayConfig.KeyDefinition key) {
+        if (key.type == OverlayConfig.InputType.STAT) {
+            return key.type + ":" + key.statId + ":" + key.label;
+        }
+        return key.type + ":" + key.code + ":" + key.label;
+    }
+
+    private void resizeSelection(double overlayX, double overlayY) {
+        Group primary = primarySelected();
+        if (dragStartBounds == null || primary == null) {
+            return;
+        }
+
+        int left = dragStartBounds.x;
+        int top = dragStartBounds.y;
+        int right = dragStartBounds.x + dragStartBounds.width;
+        int bottom = dragStartBounds.y + dragStartBounds.height;
+
+        int newLeft = left;
+        int newTop = top;
+        int newRight = right;
+        int newBottom = bottom;
+
+        int dx = (int) Math.round(overlayX - dragStartX);
+        int dy = (int) Math.round(overlayY - dragStartY);
+
+        double aspect = dragStartBounds.width / (double) dragStartBounds.height;
+        int width;
+        int height;
+        boolean horizontalDominant = Math.abs(dx) >= Math.abs(dy);
+
+        switch (resizeHandle) {
+            case TOP_LEFT -> {
+                width = Math.max(MIN_GROUP_SIZE, right - (left + dx));
+                height = Math.max(MIN_GROUP_SIZE, bottom - (top + dy));
+                if (horizontalDominant) {
+                    height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
+                } else {
+                    width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
+                }
+                newLeft = right - width;
+                newTop = bottom - height;
+            }
+            case TOP_RIGHT -> {
+                width = Math.max(MIN_GROUP_SIZE, (right + dx) - left);
+                height = Math.max(MIN_GROUP_SIZE, bottom - (top + dy));
+                if (horizontalDominant) {
+                    height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
+                } else {
+                    width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
+                }
+                newRight = left + width;
+                newTop = bottom - height;
+            }
+            case BOTTOM_LEFT -> {
+                width = Math.max(MIN_GROUP_SIZE, right - (left + dx));
+                height = Math.max(MIN_GROUP_SIZE, (bottom + dy) - top);
+                if (horizontalDominant) {
+                    height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
+                } else {
+                    width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
+                }
+                newLeft = right - width;
+                newBottom = top + height;
+            }
+            case BOTTOM_RIGHT -> {
+                width = Math.max(MIN_GROUP_SIZE, (right + dx) - left);
+                height = Math.max(MIN_GROUP_SIZE, (bottom + dy) - top);
+                if (horizontalDominant) {
+                    height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
+                } else {
+                    width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
+                }
+                newRight = left + width;
+                newBottom = top + height;
+            }
+            case NONE -> {
+                return;
+            }
+        }
+
+        Bounds target = new Bounds(newLeft, newTop, newRight - newLeft, newBottom - newTop);
+        Bounds snapped = applyResizeSnapping(target, resizeHandle, horizontalDominant, aspect);
+        primary.resizeTo(dragStartBounds, snapped, resizeSnapshots);
+        // The snapshots hold the keys of every selected group, so the others moved as well.
+        for (Group group : selectedGroups) {
+            if (group != primary) {
+                group.invalidate();
+            }
+        }
+    }
+
+    private void selectGroupInLasso() {
+        Bounds lasso = currentLasso();
+        if (lasso != null) {
+            selectInRect(lasso);
+        }
+    }
+
+    private void updateLassoSelection() {
+        Bounds lasso = currentLasso();
+        if (lasso == null) {
+            selectedGroups.clear();
+            return;
+        }
+        selectInRect(lasso);
+    }
+
+    private Bounds currentLasso() {
+        if (!lassoActive) {
+            return null;
+        }
+        int left = (int) Math.round(Math.min(lassoStartX, lassoEndX));
+        int right = (int) Math.round(Math.max(lassoStartX, lassoEndX));
+        int top = (int) Math.round(Math.min(lassoStartY, lassoEndY));
+        int bottom = (int) Math.round(Math.max(lassoStartY, lassoEndY));
+
+        if (right - left < 2 || bottom - top < 2) {
+            return null;
+        }
+        return new Bounds(left, top, right - left, bottom - top);
+    }
+
+    private Bounds applySnapping(Bounds target) {
+        snapEngine.clearGuides();
+        distanceLabels.clear();
+
+        if (!config.snappingEnabled && !config.guidesEnabled && !config.distanceLabelsEnabled) {
+            return target;
+        }
+
+        computeSnapResults(target, true, true, true, true, true, true);
+        Bounds snapped = new Bounds(
+            (int) Math.round(target.x + snapDx()),
+            (int) Math.round(target.y + snapDy()),
+            target.width,
+            target.height
+        );
+        updateSnapOverlays(snapped);
+        return snapped;
+    }
+
+    private Bounds applyResizeSnapping(Bounds target, ResizeHandle handle, boolean horizontalDominant, double aspect) {
+        snapEngine.clearGuides();
+        distanceLabels.clear();
+
+        if (!config.snappingEnabled && !config.guidesEnabled && !config.distanceLabelsEnabled) {
+            return target;
+        }
+
+        boolean moveLeft = handle == ResizeHandle.TOP_LEFT || handle == ResizeHandle.BOTTOM_LEFT;
+        boolean moveRight = handle == ResizeHandle.TOP_RIGHT || handle == ResizeHandle.BOTTOM_RIGHT;
+        boolean moveTop = handle == ResizeHandle.TOP_LEFT || handle == ResizeHandle.TOP_RIGHT;
+        boolean moveBottom = handle == ResizeHandle.BOTTOM_LEFT || handle == ResizeHandle.BOTTOM_RIGHT;
+
+        computeSnapResults(target, moveLeft, moveRight, false, moveTop, moveBottom, false);
+        double snapDx = snapDx();
+        double snapDy = snapDy();
+
+        int left = target.x;
+        int top = target.y;
+        int right = target.x + target.width;
+        int bottom = target.y + target.height;
+
+        // Snap along the dominant axis to preserve the resize aspect ratio.
+        if (horizontalDominant) {
+            if (moveLeft && snapDx != 0) {
+                left = (int) Math.round(target.x + snapDx);
+            }
+            if (moveRight && snapDx != 0) {
+                right = (int) Math.round(target.x + target.width + snapDx);
+            }
+            int width = Math.max(MIN_GROUP_SIZE, right - left);
+            int height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
+            if (moveTop) {
+                top = bottom - height;
+            } else if (moveBottom) {
+                bottom = top + height;
+            }
+        } else {
+            if (moveTop && snapDy != 0) {
+                top = (int) Math.round(target.y + snapDy);
+            }
+            if (moveBottom && snapDy != 0) {
+                bottom = (int) Math.round(target.y + target.height + snapDy);
+            }
+            int height = Math.max(MIN_GROUP_SIZE, bottom - top);
+            int width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
+            if (moveLeft) {
+                left = right - width;
+            } else if (moveRight) {
+                right = left + width;
+            }
+        }
+
+        Bounds snapped = new Bounds(left, top, right - left, bottom - top);
+        updateSnapOverlays(snapped);
+        return snapped;
+    }
+
+    private void computeSnapResults(
+        Bounds target,
+        boolean includeLeft,
+        boolean includeRight,
+        boolean includeCenterX,
+        boolean includeTop,
+        boolean includeBottom,
+        boolean includeCenterY
+    ) {
+        if (!config.snappingEnabled && !config.guidesEnabled) {
+            return;
+        }
+        if (!snapEngine.isPrepared()) {
+            prepareSnapEngine();
+        }
+
+        double scale = config.scale;
+        double left = target.x;
+        double right = target.x + target.width;
+        double top = target.y;
+        double bottom = target.y + target.height;
+        double centerX = left + target.width / 2.0;
+        double centerY = top + target.height / 2.0;
+
+        snapEngine.snap(
+            config.offsetX + left * scale,
+            config.offsetX + right * scale,
+            config.offsetX + centerX * scale,
+            config.offsetY + top * scale,
+            config.offsetY + bottom * scale,
+            config.offsetY + centerY * scale,
+            includeLeft,
+            includeRight,
+            includeCenterX,
+            includeTop,
+            includeBottom,
+            includeCenterY,
+            Math.max(1, config.snapThreshold)
+        );
+    }
+
+    /**
+     * Collects the bounds of every group that stays put for the rest of the drag. Runs once per drag; the engine is
+     * reset on mouse release.
+     */
+    private void prepareSnapEngine() {
+        List<Bounds> stationary = new ArrayList<>(groups.size());
+        for (Group group : groups) {
+            if (group.isVisible() && !selectedGroups.contains(group)) {
+                stationary.add(group.getBounds());
+            }
+        }
+        snapEngine.begin(stationary, config.offsetX, config.offsetY, config.scale, viewportWidth, viewportHeight);
+    }
+
+    private double snapDx() {
+        if (!config.snappingEnabled || !snapEngine.snappedX()) {
+            return 0;
+        }
+        return snapEngine.bestDeltaX() / config.scale;
+    }
+
+    private double snapDy() {
+        if (!config.snappingEnabled || !snapEngine.snappedY()) {
+            return 0;
+        }
+        return snapEngine.bestDeltaY() / config.scale;
+    }
+
+    private void updateSnapOverlays(Bounds snapped) {
+        if (!config.guidesEnabled) {
+            snapEngine.clearGuides();
+        }
+
+        if (config.distanceLabelsEnabled) {
+            int threshold = Math.max(1, config.snapThreshold);
+            int distanceThreshold = threshold * 2;
+            double scale = config.scale;
+            int snappedLeft = snapped.x;
+            int snappedTop = snapped.y;
+            int snappedRight = snapped.x + snapped.width;
+            int snappedBottom = snapped.y + snapped.height;
+
+            int distLeft = (int) Math.round(config.offsetX + snappedLeft * scale);
+            int distTop = (int) Math.round(config.offsetY + snappedTop * scale);
+            int distRight = (int) Math.round(viewportWidth - (config.offsetX + snappedRight * scale));
+            int distBottom = (int) Math.round(viewportHeight - (config.offsetY + snappedBottom * scale));
+
+            if (distLeft <= distanceThreshold) {
+                distanceLabels.add(new DistanceLabel(snappedLeft + 2, snappedTop + snapped.height / 2, distLeft));
+            }
+            if (distRight <= distanceThreshold) {
+                distanceLabels.add(new DistanceLabel(snappedRight - 2, snappedTop + snapped.height / 2, distRight));
+            }
+            if (distTop <= distanceThreshold) {
+                distanceLabels.add(new DistanceLabel(snappedLeft + snapped.width / 2, snappedTop + 2, distTop));
+            }
+            if (distBottom <= distanceThreshold) {
+                distanceLabels.add(new DistanceLabel(snappedLeft + snapped.width / 2, snappedBottom - 2, distBottom));
+            }
+        }
+    }
+
+    private void rebuildGroups() {
+        groups.clear();
+        groups.addAll(buildGroups(config, groupIndex));
+        groupById.clear();
+        groupIndex.clear();
+        for (Group group : groups) {
+            groupById.put(group.id, group);
+            group.reindex();
+        }
+    }
+
+    private static List<Group> buildGroups(OverlayConfig config, GroupIndex<Group> index) {
+        Map<String, List<OverlayConfig.KeyDefinition>> grouped = new LinkedHashMap<>();
+        for (OverlayConfig.KeyDefinition key : config.keys) {
+            grouped.computeIfAbsent(key.group, ignored -> new ArrayList<>()).add(key);
+        }
+
+        List<Group> groups = new ArrayList<>();
+        for (Map.Entry<String, List<OverlayConfig.KeyDefinition>> entry : grouped.entrySet()) {
+            groups.add(new Group(entry.getKey(), displayName(entry.getKey()), entry.getValue(), groups.size(), index));
+        }
+        return groups;
+    }
+
+    private static String displayName(String id) {
+        return switch (id) {
+            case "keyboard" -> "Keyboard";
+            case "wasd" -> "WASD";
+            case "space" -> "SPACE";
+            case "shift" -> "SHIFT";
+            case "ctrl" -> "CTRL";
+            case "numbers" -> "Number Row";
+            case "function" -> "Function Keys";
+            case "arrows" -> "Arrow Keys";
+            case "utility" -> "Utility Keys";
+            case "full_keyboard" -> "Full Keyboard";
+            case "cps" -> "CPS Counter";
+            case "cps_rmb" -> "RMB CPS";
+            case "cps_mmb" -> "MMB CPS";
+            case "cps_peak" -> "Peak CPS";
+            case "cps_avg10" -> "Average CPS (10s)";
+            case "cps_avg60" -> "Average CPS (60s)";
+            case "cps_jitter" -> "Click Jitter";
+            case "cps_rmb_peak" -> "RMB Peak CPS";
+            case "cps_rmb_avg10" -> "RMB Average CPS (10s)";
+            case "cps_rmb_avg60" -> "RMB Average CPS (60s)";
+            case "cps_rmb_jitter" -> "RMB Click Jitter";
+            case "cps_intervals" -> "Click Intervals";
+            case "cps_rmb_intervals" -> "RMB Click Intervals";
+            case "lmb" -> "LMB";
+            case "rmb" -> "RMB";
+            case "mmb" -> "MMB";
+            default -> id.toUpperCase();
+        };
+    }
+
+    private void buildTemplates() {
+        templates.clear();
+
+        templates.put("wasd", Template.keys("wasd", "WASD", List.of(
+            key("W", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_W, 28, 0, 24, 24),
+            key("A", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_A, 0, 28, 24, 24),
+            key("S", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_S, 28, 28, 24, 24),
+            key("D", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_D, 56, 28, 24, 24)
+        )));
+
+        templates.put("space", Template.keys("space", "SPACE", List.of(
+            key("SPACE", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_SPACE, 0, 0, 80, 24)
+        )));
+
+        templates.put("shift", Template.keys("shift", "SHIFT", List.of(
+            key("SHIFT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_SHIFT, 0, 0, 52, 24)
+        )));
+
+        templates.put("ctrl", Template.keys("ctrl", "CTRL", List.of(
+            key("CTRL", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_CONTROL, 0, 0, 52, 24)
+        )));
+
+        templates.put("lmb", Template.keys("lmb", "LMB", List.of(
+            key("LMB", OverlayConfig.InputType.MOUSE, GLFW.GLFW_MOUSE_BUTTON_LEFT, 0, 0, 32, 32)
+        )));
+
+        templates.put("rmb", Template.keys("rmb", "RMB", List.of(
+            key("RMB", OverlayConfig.InputType.MOUSE, GLFW.GLFW_MOUSE_BUTTON_RIGHT, 0, 0, 32, 32)
+        )));
+
+        templates.put("mmb", Template.keys("mmb", "MMB", List.of(
+            key("MMB", OverlayConfig.InputType.MOUSE, GLFW.GLFW_MOUSE_BUTTON_MIDDLE, 0, 0, 32, 24)
+        )));
+
+        templates.put("keyboard", Template.keys("keyboard", "Mini Keyboard", miniKeyboardKeys()));
+        templates.put("numbers", Template.keys("numbers", "Number Row", numberRowKeys()));
+        templates.put("function", Template.keys("function", "Function Keys", functionKeys()));
+        templates.put("arrows", Template.keys("arrows", "Arrow Keys", arrowKeys()));
+        templates.put("utility", Template.keys("utility", "Utility Keys", utilityKeys()));
+        templates.put("full_keyboard", Template.keys("full_keyboard", "Full Keyboard", fullKeyboardKeys()));
+
+        templates.put("cps", Template.stat("cps", "CPS Counter", statKey("CPS", "cps", 0, 0)));
+        templates.put("cps_rmb", Template.stat("cps_rmb", "RMB CPS", statKey("RMB CPS", "cps_rmb", 0, 0)));
+        templates.put("cps_mmb", Template.stat("cps_mmb", "MMB CPS", statKey("MMB CPS", "cps_mmb", 0, 0)));
+        putStat("cps_peak", "Peak CPS", "PEAK");
+        putStat("cps_avg10", "Average CPS (10s)", "AVG 10s");
+        putStat("cps_avg60", "Average CPS (60s)", "AVG 60s");
+        putStat("cps_jitter", "Click Jitter", "JITTER ms");
+        putStat("cps_rmb_peak", "RMB Peak CPS", "RMB PEAK");
+        putStat("cps_rmb_avg10", "RMB Average CPS (10s)", "RMB 10s");
+        putStat("cps_rmb_avg60", "RMB Average CPS (60s)", "RMB 60s");
+        putStat("cps_rmb_jitter", "RMB Click Jitter", "RMB JIT ms");
+        templates.put("cps_intervals", Template.stat("cps_intervals", "Click Intervals",
+            graphKey("INTERVAL ms", "cps_intervals")));
+        templates.put("cps_rmb_intervals", Template.stat("cps_rmb_intervals", "RMB Click Intervals",
+            graphKey("RMB INTERVAL ms", "cps_rmb_intervals")));
+    }
+
+    private OverlayConfig.KeyDefinition key(String label, OverlayConfig.InputType type, int code, int x, int y, int width, int height) {
+        return new OverlayConfig.KeyDefinition(label, type, code, x, y, width, height, type == OverlayConfig.InputType.MOUSE ? label.toLowerCase() : "keyboard");
+    }
+
+    private void putStat(String statId, String displayName, String label) {
+        templates.put(statId, Template.stat(statId, displayName, statKey(label, statId, 0, 0)));
+    }
+
+    private OverlayConfig.KeyDefinition statKey(String label, String statId, int x, int y) {
+        return new OverlayConfig.KeyDefinition(label, statId, x, y, 64, 28, "stats");
+    }
+
+    /**
+     * A stat key tall enough for a bar graph between its label and value.
+     */
+    private OverlayConfig.KeyDefinition graphKey(String label, String statId) {
+        return new OverlayConfig.KeyDefinition(label, statId, 0, 0, 96, 44, "stats");
+    }
+
+    private List<OverlayConfig.KeyDefinition> miniKeyboardKeys() {
+        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
+        keys.add(key("1", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_1, 0, 0, 14, 14));
+        keys.add(key("2", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_2, 16, 0, 14, 14));
+        keys.add(key("3", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_3, 32, 0, 14, 14));
+        keys.add(key("4", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_4, 48, 0, 14, 14));
+        keys.add(key("5", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_5, 64, 0, 14, 14));
+
+        keys.add(key("Q", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_Q, 0, 16, 14, 14));
+        keys.add(key("W", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_W, 16, 16, 14, 14));
+        keys.add(key("E", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_E, 32, 16, 14, 14));
+        keys.add(key("R", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_R, 48, 16, 14, 14));
+        keys.add(key("T", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_T, 64, 16, 14, 14));
+
+        keys.add(key("A", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_A, 0, 32, 14, 14));
+        keys.add(key("S", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_S, 16, 32, 14, 14));
+        keys.add(key("D", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_D, 32, 32, 14, 14));
+        keys.add(key("F", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_F, 48, 32, 14, 14));
+        keys.add(key("G", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_G, 64, 32, 14, 14));
+
+        keys.add(key("Z", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_Z, 8, 48, 14, 14));
+        keys.add(key("X", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_X, 24, 48, 14, 14));
+        keys.add(key("C", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_C, 40, 48, 14, 14));
+        keys.add(key("V", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_V, 56, 48, 14, 14));
+        return keys;
+    }
+
+    private List<OverlayConfig.KeyDefinition> numberRowKeys() {
+        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
+        int x = 0;
+        for (int i = 1; i <= 9; i++) {
+            keys.add(key(Integer.toString(i), OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_0 + i, x, 0, 14, 14));
+            x += 16;
+        }
+        keys.add(key("0", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_0, x, 0, 14, 14));
+        return keys;
+    }
+
+    private List<OverlayConfig.KeyDefinition> functionKeys() {
+        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
+        int x = 0;
+        for (int i = 1; i <= 12; i++) {
+            keys.add(key("F" + i, OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_F1 + (i - 1), x, 0, 18, 14));
+            x += 20;
+        }
+        return keys;
+    }
+
+    private List<OverlayConfig.KeyDefinition> arrowKeys() {
+        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
+        keys.add(key("↑", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_UP, 18, 0, 18, 18));
+        keys.add(key("←", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT, 0, 20, 18, 18));
+        keys.add(key("↓", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_DOWN, 18, 20, 18, 18));
+        keys.add(key("→", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT, 36, 20, 18, 18));
+        return keys;
+    }
+
+    private List<OverlayConfig.KeyDefinition> utilityKeys() {
+        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
+        keys.add(key("ESC", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_ESCAPE, 0, 0, 24, 18));
+        keys.add(key("TAB", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_TAB, 28, 0, 24, 18));
+        keys.add(key("E", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_E, 56, 0, 18, 18));
+        keys.add(key("Q", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_Q, 78, 0, 18, 18));
+        keys.add(key("R", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_R, 100, 0, 18, 18));
+        keys.add(key("F", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_F, 122, 0, 18, 18));
+        return keys;
+    }
+
+    private List<OverlayConfig.KeyDefinition> fullKeyboardKeys() {
+        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
+        int key = 18;
+        int gap = 2;
+        int row0 = 0;
+        int row1 = key + gap;
+        int row2 = row1 + key + gap;
+        int row3 = row2 + key + gap;
+        int row4 = row3 + key + gap;
+        int row5 = row4 + key + gap;
+
+        int x = 0;
+        keys.add(key("ESC", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_ESCAPE, x, row0, 24, key));
+        x += 28;
+        for (int i = 1; i <= 12; i++) {
+            keys.add(key("F" + i, OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_F1 + (i - 1), x, row0, key, key));
+            x += key + gap;
+        }
+
+        x = 0;
+        keys.add(key("~", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_GRAVE_ACCENT, x, row1, key, key));
+        x += key + gap;
+        for (int i = 1; i <= 9; i++) {
+            keys.add(key(Integer.toString(i), OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_0 + i, x, row1, key, key));
+            x += key + gap;
+        }
+        keys.add(key("0", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_0, x, row1, key, key));
+        x += key + gap;
+        keys.add(key("-", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_MINUS, x, row1, key, key));
+        x += key + gap;
+        keys.add(key("=", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_EQUAL, x, row1, key, key));
+        x += key + gap;
+        keys.add(key("BACK", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_BACKSPACE, x, row1, 34, key));
+
+        x = 0;
+        keys.add(key("TAB", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_TAB, x, row2, 28, key));
+        x += 30;
+        String[] rowQ = {"Q","W","E","R","T","Y","U","I","O","P","[","]"};
+        int[] rowQCodes = {GLFW.GLFW_KEY_Q,GLFW.GLFW_KEY_W,GLFW.GLFW_KEY_E,GLFW.GLFW_KEY_R,GLFW.GLFW_KEY_T,GLFW.GLFW_KEY_Y,
+            GLFW.GLFW_KEY_U,GLFW.GLFW_KEY_I,GLFW.GLFW_KEY_O,GLFW.GLFW_KEY_P,GLFW.GLFW_KEY_LEFT_BRACKET,GLFW.GLFW_KEY_RIGHT_BRACKET};
+        for (int i = 0; i < rowQ.length; i++) {
+            keys.add(key(rowQ[i], OverlayConfig.InputType.KEY, rowQCodes[i], x, row2, key, key));
+            x += key + gap;
+        }
+        keys.add(key("\\", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_BACKSLASH, x, row2, 28, key));
+
+        x = 0;
+        keys.add(key("CAPS", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_CAPS_LOCK, x, row3, 32, key));
+        x += 34;
+        String[] rowA = {"A","S","D","F","G","H","J","K","L",";","'"};
+        int[] rowACodes = {GLFW.GLFW_KEY_A,GLFW.GLFW_KEY_S,GLFW.GLFW_KEY_D,GLFW.GLFW_KEY_F,GLFW.GLFW_KEY_G,GLFW.GLFW_KEY_H,
+            GLFW.GLFW_KEY_J,GLFW.GLFW_KEY_K,GLFW.GLFW_KEY_L,GLFW.GLFW_KEY_SEMICOLON,GLFW.GLFW_KEY_APOSTROPHE};
+        for (int i = 0; i < rowA.length; i++) {
+            keys.add(key(rowA[i], OverlayConfig.InputType.KEY, rowACodes[i], x, row3, key, key));
+            x += key + gap;
+        }
+        keys.add(key("ENTER", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_ENTER, x, row3, 36, key));
+
+        x = 0;
+        keys.add(key("SHIFT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_SHIFT, x, row4, 40, key));
+        x += 42;
+        String[] rowZ = {"Z","X","C","V","B","N","M",",",".","/"};
+        int[] rowZCodes = {GLFW.GLFW_KEY_Z,GLFW.GLFW_KEY_X,GLFW.GLFW_KEY_C,GLFW.GLFW_KEY_V,GLFW.GLFW_KEY_B,GLFW.GLFW_KEY_N,
+            GLFW.GLFW_KEY_M,GLFW.GLFW_KEY_COMMA,GLFW.GLFW_KEY_PERIOD,GLFW.GLFW_KEY_SLASH};
+        for (int i = 0; i < rowZ.length; i++) {
+            keys.add(key(rowZ[i], OverlayConfig.InputType.KEY, rowZCodes[i], x, row4, key, key));
+            x += key + gap;
+        }
+        keys.add(key("SHIFT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT_SHIFT, x, row4, 44, key));
+
+        x = 0;
+        keys.add(key("CTRL", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_CONTROL, x, row5, 28, key));
+        x += 30;
+        keys.add(key("WIN", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_SUPER, x, row5, 24, key));
+        x += 26;
+        keys.add(key("ALT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_ALT, x, row5, 24, key));
+        x += 26;
+        keys.add(key("SPACE", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_SPACE, x, row5, 90, key));
+        x += 92;
+        keys.add(key("ALT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT_ALT, x, row5, 24, key));
+        x += 26;
+        keys.add(key("WIN", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT_SUPER, x, row5, 24, key));
+        x += 26;
+        keys.add(key("MENU", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_MENU, x, row5, 24, key));
+        x += 26;
+        keys.add(key("CTRL", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT_CONTROL, x, row5, 28, key));
+
+        return keys;
+    }
+
+    enum ColorTarget {
+        BACKGROUND,
+        PRESSED,
+        BORDER,
+        TEXT
+    }
+
+    enum DragMode {
+        NONE,
+        MOVE,
+        RESIZE,
+        LASSO
+    }
+
+    enum ResizeHandle {
+        NONE,
+        TOP_LEFT,
+        TOP_RIGHT,
+        BOTTOM_LEFT,
+        BOTTOM_RIGHT
+    }
+
+    static final class ColorState {
+        final int color;
+        final boolean mixed;
+
+        private ColorState(int color, boolean mixed) {
+            this.color = color;
+            this.mixed = mixed;
+        }
+    }
+
+    static final class DistanceLabel {
+        final int x;
+        final int y;
+        final int value;
+
+        private DistanceLabel(int x, int y, int value) {
+            this.x = x;
+            this.y = y;
+            this.value = value;
+        }
+    }
+}
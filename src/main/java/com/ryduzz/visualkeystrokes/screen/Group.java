@@ -0,0 +1,164 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+
+import java.util.List;
+
+/**
+ * A named set of overlay keys that the editor selects, moves and resizes as one unit.
+ */
+final class Group {
+    final String id;
+    final String displayName;
+    final List<OverlayConfig.KeyDefinition> keys;
+    private final int ordinal;
+    private final GroupIndex<Group> index;
+    private Bounds cachedBounds;
+    private boolean cachedVisible;
+    private boolean dirty = true;
+
+    Group(
+        String id,
+        String displayName,
+        List<OverlayConfig.KeyDefinition> keys,
+        int ordinal,
+        GroupIndex<Group> index
+    ) {
+        this.id = id;
+        this.displayName = displayName;
+        this.keys = keys;
+        this.ordinal = ordinal;
+        this.index = index;
+    }
+
+    /**
+     * Drops the cached bounds and visibility and re-files the group in the index. Must be called after any
+     * change to the position, size or visibility of the group's keys.
+     */
+    void invalidate() {
+        dirty = true;
+        reindex();
+    }
+
+    void reindex() {
+        index.update(this, ordinal, getBounds(), isVisible());
+    }
+
+    boolean isVisible() {
+        refresh();
+        return cachedVisible;
+    }
+
+    void setVisible(boolean visible) {
+        for (OverlayConfig.KeyDefinition key : keys) {
+            key.setVisible(visible);
+        }
+        invalidate();
+    }
+
+    Bounds getBounds() {
+        refresh();
+        return cachedBounds;
+    }
+
+    private void refresh() {
+        if (!dirty) {
+            return;
+        }
+        cachedBounds = computeBounds();
+        cachedVisible = computeVisible();
+        dirty = false;
+    }
+
+    private boolean computeVisible() {
+        for (OverlayConfig.KeyDefinition key : keys) {
+            if (key.isVisible()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walks every key to find the enclosing rectangle. Prefer {@link #getBounds()}, which caches the result.
+     */
+    Bounds computeBounds() {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        for (OverlayConfig.KeyDefinition key : keys) {
+            int x = key.x;
+            int y = key.y;
+            int right = key.x + key.width;
+            int bottom = key.y + key.height;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, right);
+            maxY = Math.max(maxY, bottom);
+        }
+
+        if (minX == Integer.MAX_VALUE) {
+            return new Bounds(0, 0, 0, 0);
+        }
+
+        return new Bounds(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    void moveBy(int dx, int dy) {
+        for (OverlayConfig.KeyDefinition key : keys) {
+            key.x += dx;
+            key.y += dy;
+        }
+        invalidate();
+    }
+
+    void resizeTo(Bounds start, Bounds target) {
+        resizeTo(start, target, null);
+    }
+
+    void resizeTo(Bounds start, Bounds target, List<KeySnapshot> snapshots) {
+        if (start.width <= 0 || start.height <= 0) {
+            return;
+        }
+        double scaleX = target.width / (double) start.width;
+        double scaleY = target.height / (double) start.height;
+
+        if (snapshots == null) {
+            for (OverlayConfig.KeyDefinition key : keys) {
+                int offsetX = key.x - start.x;
+                int offsetY = key.y - start.y;
+
+                key.x = (int) Math.round(target.x + offsetX * scaleX);
+                key.y = (int) Math.round(target.y + offsetY * scaleY);
+                key.width = Math.max(4, (int) Math.round(key.width * scaleX));
+                key.height = Math.max(4, (int) Math.round(key.height * scaleY));
+            }
+            invalidate();
+            return;
+        }
+
+        for (KeySnapshot snapshot : snapshots) {
+            int offsetX = snapshot.x - start.x;
+            int offsetY = snapshot.y - start.y;
+
+            snapshot.key.x = (int) Math.round(target.x + offsetX * scaleX);
+            snapshot.key.y = (int) Math.round(target.y + offsetY * scaleY);
+            snapshot.key.width = Math.max(4, (int) Math.round(snapshot.width * scaleX));
+            snapshot.key.height = Math.max(4, (int) Math.round(snapshot.height * scaleY));
+        }
+        invalidate();
+    }
+
+    boolean containsKey(OverlayConfig.KeyDefinition key) {
+        return keys.contains(key);
+    }
+
+    boolean matchesFilter(String filter) {
+        if (filter == null || filter.isEmpty()) {
+            return true;
+        }
+        return displayName.toLowerCase().contains(filter);
+    }
+}
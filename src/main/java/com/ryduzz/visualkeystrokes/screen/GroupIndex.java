@@ -0,0 +1,168 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform-grid spatial index over visible editor groups. Each item is registered in every cell its bounds touch, so
+ * a point query only inspects one cell and a rectangle query only the cells it covers. Items are updated one at a
+ * time as they move, resize or change visibility; the ordinal is the item's position in the editor's group list and
+ * is used to keep results in list order.
+ */
+final class GroupIndex<T> {
+    private static final Comparator<Entry<?>> BY_ORDINAL = Comparator.comparingInt(entry -> entry.ordinal);
+
+    private final int cellShift;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+    private final List<Entry<T>> scratch = new ArrayList<>();
+    private int queryStamp;
+
+    /**
+     * @param cellShift log2 of the cell size in overlay pixels
+     */
+    GroupIndex(int cellShift) {
+        this.cellShift = cellShift;
+    }
+
+    void clear() {
+        cells.clear();
+        entries.clear();
+    }
+
+    /**
+     * Re-files {@code item} under its new bounds. Invisible items are removed from the index.
+     */
+    void update(T item, int ordinal, Bounds bounds, boolean visible) {
+        Entry<T> entry = entries.get(item);
+        if (entry != null) {
+            unlink(entry);
+        }
+        if (!visible) {
+            entries.remove(item);
+            return;
+        }
+        if (entry == null) {
+            entry = new Entry<>(item);
+            entries.put(item, entry);
+        }
+        entry.ordinal = ordinal;
+        entry.bounds = bounds;
+        entry.minCellX = cell(bounds.x);
+        entry.minCellY = cell(bounds.y);
+        entry.maxCellX = cell(bounds.x + bounds.width);
+        entry.maxCellY = cell(bounds.y + bounds.height);
+        for (int cy = entry.minCellY; cy <= entry.maxCellY; cy++) {
+            for (int cx = entry.minCellX; cx <= entry.maxCellX; cx++) {
+                cells.computeIfAbsent(key(cx, cy), ignored -> new ArrayList<>(4)).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Returns the largest item containing the point, preferring the lowest ordinal on ties, or {@code null}.
+     */
+    T queryPoint(double x, double y) {
+        List<Entry<T>> cell = cells.get(key(cell((int) Math.floor(x)), cell((int) Math.floor(y))));
+        if (cell == null) {
+            return null;
+        }
+        Entry<T> best = null;
+        for (Entry<T> entry : cell) {
+            if (!entry.bounds.contains(x, y)) {
+                continue;
+            }
+            if (best == null
+                || entry.bounds.area() > best.bounds.area()
+                || (entry.bounds.area() == best.bounds.area() && entry.ordinal < best.ordinal)) {
+                best = entry;
+            }
+        }
+        return best == null ? null : best.item;
+    }
+
+    /**
+     * Adds every item intersecting {@code rect} to {@code out} in ordinal order.
+     */
+    void queryRect(Bounds rect, List<T> out) {
+        int minCellX = cell(rect.x);
+        int minCellY = cell(rect.y);
+        int maxCellX = cell(rect.x + rect.width);
+        int maxCellY = cell(rect.y + rect.height);
+        long cellCount = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+
+        scratch.clear();
+        if (cellCount > entries.size()) {
+            // A rectangle spanning more cells than there are items is cheaper to answer with a flat scan.
+            for (Entry<T> entry : entries.values()) {
+                if (entry.bounds.intersects(rect)) {
+                    scratch.add(entry);
+                }
+            }
+        } else {
+            int stamp = ++queryStamp;
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                for (int cx = minCellX; cx <= maxCellX; cx++) {
+                    List<Entry<T>> cell = cells.get(key(cx, cy));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Entry<T> entry : cell) {
+                        if (entry.stamp != stamp && entry.bounds.intersects(rect)) {
+                            entry.stamp = stamp;
+                            scratch.add(entry);
+                        }
+                    }
+                }
+            }
+        }
+        scratch.sort(BY_ORDINAL);
+        for (Entry<T> entry : scratch) {
+            out.add(entry.item);
+        }
+        scratch.clear();
+    }
+
+    private void unlink(Entry<T> entry) {
+        for (int cy = entry.minCellY; cy <= entry.maxCellY; cy++) {
+            for (int cx = entry.minCellX; cx <= entry.maxCellX; cx++) {
+                long key = key(cx, cy);
+                List<Entry<T>> cell = cells.get(key);
+                if (cell == null) {
+                    continue;
+                }
+                cell.remove(entry);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+    }
+
+    private int cell(int coordinate) {
+        return coordinate >> cellShift;
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private int ordinal;
+        private Bounds bounds;
+        private int minCellX;
+        private int minCellY;
+        private int maxCellX;
+        private int maxCellY;
+        private int stamp;
+
+        private Entry(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Position and size of a key at the start of a resize, so scaling is always applied to the original geometry.
+ */
+final class KeySnapshot {
+    final OverlayConfig.KeyDefinition key;
+    final int x;
+    final int y;
+    final int width;
+    final int height;
+
+    KeySnapshot(OverlayConfig.KeyDefinition key) {
+        this.key = key;
+        this.x = key.x;
+        this.y = key.y;
+        this.width = key.width;
+        this.height = key.height;
+    }
+
+    static List<KeySnapshot> capture(List<OverlayConfig.KeyDefinition> keys) {
+        List<KeySnapshot> snapshots = new ArrayList<>(keys.size());
+        for (OverlayConfig.KeyDefinition key : keys) {
+            snapshots.add(new KeySnapshot(key));
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,223 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Snapping candidates for a single drag. {@link #begin} collects the screen guides and the edges and centers of every
+ * stationary group into sorted arrays, so each drag event only binary-searches the threshold window around the
+ * moving edges. Guides are written into reusable primitive buffers; nothing is allocated per event.
+ */
+final class SnapEngine {
+    private double[] xEdges = new double[0];
+    private double[] xCenters = new double[0];
+    private double[] yEdges = new double[0];
+    private double[] yCenters = new double[0];
+    private int xEdgeCount;
+    private int xCenterCount;
+    private int yEdgeCount;
+    private int yCenterCount;
+    private boolean prepared;
+
+    private int[] verticalGuides = new int[0];
+    private int[] horizontalGuides = new int[0];
+    private int verticalGuideCount;
+    private int horizontalGuideCount;
+    private double bestDeltaX;
+    private double bestDeltaY;
+    private boolean snappedX;
+    private boolean snappedY;
+
+    boolean isPrepared() {
+        return prepared;
+    }
+
+    /**
+     * Builds the candidate arrays for a drag. Coordinates are converted to screen space once here, since the overlay
+     * offset and scale cannot change while a drag is in progress.
+     */
+    void begin(List<Bounds> stationary, double offsetX, double offsetY, double scale, int screenWidth, int screenHeight) {
+        int count = stationary.size();
+        xEdges = ensureCapacity(xEdges, count * 2 + 3);
+        yEdges = ensureCapacity(yEdges, count * 2 + 3);
+        xCenters = ensureCapacity(xCenters, count + 3);
+        yCenters = ensureCapacity(yCenters, count + 3);
+        xEdgeCount = 0;
+        yEdgeCount = 0;
+        xCenterCount = 0;
+        yCenterCount = 0;
+
+        // Screen edges and center snap against every moving edge as well as the moving center.
+        double[] xScreen = {0.0, screenWidth / 2.0, screenWidth};
+        double[] yScreen = {0.0, screenHeight / 2.0, screenHeight};
+        for (int i = 0; i < 3; i++) {
+            xEdges[xEdgeCount++] = xScreen[i];
+            xCenters[xCenterCount++] = xScreen[i];
+            yEdges[yEdgeCount++] = yScreen[i];
+            yCenters[yCenterCount++] = yScreen[i];
+        }
+
+        for (Bounds bounds : stationary) {
+            double left = offsetX + bounds.x * scale;
+            double right = offsetX + (bounds.x + bounds.width) * scale;
+            double top = offsetY + bounds.y * scale;
+            double bottom = offsetY + (bounds.y + bounds.height) * scale;
+            xEdges[xEdgeCount++] = left;
+            xEdges[xEdgeCount++] = right;
+            xCenters[xCenterCount++] = offsetX + (bounds.x + bounds.width / 2.0) * scale;
+            yEdges[yEdgeCount++] = top;
+            yEdges[yEdgeCount++] = bottom;
+            yCenters[yCenterCount++] = offsetY + (bounds.y + bounds.height / 2.0) * scale;
+        }
+
+        Arrays.sort(xEdges, 0, xEdgeCount);
+        Arrays.sort(xCenters, 0, xCenterCount);
+        Arrays.sort(yEdges, 0, yEdgeCount);
+        Arrays.sort(yCenters, 0, yCenterCount);
+
+        // Each axis queries at most three moving features against one array each.
+        verticalGuides = ensureCapacity(verticalGuides, xEdgeCount * 2 + xCenterCount);
+        horizontalGuides = ensureCapacity(horizontalGuides, yEdgeCount * 2 + yCenterCount);
+        clearGuides();
+        prepared = true;
+    }
+
+    void reset() {
+        prepared = false;
+        clearGuides();
+    }
+
+    void clearGuides() {
+        verticalGuideCount = 0;
+        horizontalGuideCount = 0;
+        snappedX = false;
+        snappedY = false;
+        bestDeltaX = 0;
+        bestDeltaY = 0;
+    }
+
+    /**
+     * Finds every candidate within {@code threshold} screen pixels of the requested moving features, all given in
+     * screen space. Results replace those of the previous call.
+     */
+    void snap(
+        double left,
+        double right,
+        double centerX,
+        double top,
+        double bottom,
+        double centerY,
+        boolean includeLeft,
+        boolean includeRight,
+        boolean includeCenterX,
+        boolean includeTop,
+        boolean includeBottom,
+        boolean includeCenterY,
+        int threshold
+    ) {
+        clearGuides();
+        if (includeCenterX) {
+            considerX(centerX, xCenters, xCenterCount, threshold);
+        }
+        if (includeLeft) {
+            considerX(left, xEdges, xEdgeCount, threshold);
+        }
+        if (includeRight) {
+            considerX(right, xEdges, xEdgeCount, threshold);
+        }
+        if (includeCenterY) {
+            considerY(centerY, yCenters, yCenterCount, threshold);
+        }
+        if (includeTop) {
+            considerY(top, yEdges, yEdgeCount, threshold);
+        }
+        if (includeBottom) {
+            considerY(bottom, yEdges, yEdgeCount, threshold);
+        }
+    }
+
+    boolean snappedX() {
+        return snappedX;
+    }
+
+    boolean snappedY() {
+        return snappedY;
+    }
+
+    /**
+     * Screen-space delta to the nearest x candidate; only meaningful when {@link #snappedX()} is true.
+     */
+    double bestDeltaX() {
+        return bestDeltaX;
+    }
+
+    double bestDeltaY() {
+        return bestDeltaY;
+    }
+
+    int verticalGuideCount() {
+        return verticalGuideCount;
+    }
+
+    int verticalGuide(int index) {
+        return verticalGuides[index];
+    }
+
+    int horizontalGuideCount() {
+        return horizontalGuideCount;
+    }
+
+    int horizontalGuide(int index) {
+        return horizontalGuides[index];
+    }
+
+    private void considerX(double edge, double[] candidates, int count, int threshold) {
+        for (int i = lowerBound(candidates, count, edge - threshold); i < count; i++) {
+            double delta = candidates[i] - edge;
+            if (delta > threshold) {
+                break;
+            }
+            verticalGuides[verticalGuideCount++] = (int) Math.round(candidates[i]);
+            if (!snappedX || Math.abs(delta) < Math.abs(bestDeltaX)) {
+                bestDeltaX = delta;
+                snappedX = true;
+            }
+        }
+    }
+
+    private void considerY(double edge, double[] candidates, int count, int threshold) {
+        for (int i = lowerBound(candidates, count, edge - threshold); i < count; i++) {
+            double delta = candidates[i] - edge;
+            if (delta > threshold) {
+                break;
+            }
+            horizontalGuides[horizontalGuideCount++] = (int) Math.round(candidates[i]);
+            if (!snappedY || Math.abs(delta) < Math.abs(bestDeltaY)) {
+                bestDeltaY = delta;
+                snappedY = true;
+            }
+        }
+    }
+
+    private static int lowerBound(double[] values, int count, double key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static double[] ensureCapacity(double[] array, int capacity) {
+        return array.length >= capacity ? array : new double[capacity];
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return array.length >= capacity ? array : new int[capacity];
+    }
+}
@@ -0,0 +1,53 @@
+package com.ryduzz.visualkeystrokes.screen;
+
+import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A sidebar entry: the default keys of one overlay element, copied into the config when the element is first added.
+ */
+final class Template {
+    final String id;
+    final String displayName;
+    final List<OverlayConfig.KeyDefinition> keys;
+
+    private Template(String id, String displayName, List<OverlayConfig.KeyDefinition> keys) {
+        this.id = id;
+        this.displayName = displayName;
+        this.keys = keys;
+    }
+
+    static Template keys(String id, String displayName, List<OverlayConfig.KeyDefinition> keys) {
+        return new Template(id, displayName, keys);
+    }
+
+    static Template stat(String id, String displayName, OverlayConfig.KeyDefinition key) {
+        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
+        keys.add(key);
+        return new Template(id, displayName, keys);
+    }
+
+    boolean matchesFilter(String filter) {
+        if (filter == null || filter.isEmpty()) {
+            return true;
+        }
+        return displayName.toLowerCase().contains(filter);
+    }
+
+    List<OverlayConfig.KeyDefinition> createKeys() {
+        List<OverlayConfig.KeyDefinition> copies = new ArrayList<>();
+        for (OverlayConfig.KeyDefinition key : keys) {
+            copies.add(copyKey(key, id));
+        }
+        return copies;
+    }
+
+    private OverlayConfig.KeyDefinition copyKey(OverlayConfig.KeyDefinition key, String groupId) {
+        if (key.type == OverlayConfig.InputType.STAT) {
+            return new OverlayConfig.KeyDefinition(key.label, key.statId, key.x, key.y, key.width, key.height, groupId);
+        }
+        return new OverlayConfig.KeyDefinition(key.label, key.type, key.code, key.x, key.y, key.width, key.height, groupId);
+    }
+}
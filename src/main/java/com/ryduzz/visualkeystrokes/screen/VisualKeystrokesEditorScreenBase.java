@@ -1,6 +1,18 @@
 package com.ryduzz.visualkeystrokes.screen;
 
+import com.ryduzz.visualkeystrokes.config.ConfigStore;
 import com.ryduzz.visualkeystrokes.config.OverlayConfig;
+import com.ryduzz.visualkeystrokes.perf.PerfMetric;
+import com.ryduzz.visualkeystrokes.perf.PerfMonitor;
+import com.ryduzz.visualkeystrokes.render.BatchingCanvas;
+import com.ryduzz.visualkeystrokes.render.DrawContextCanvas;
+import com.ryduzz.visualkeystrokes.render.OverlayCanvas;
+import com.ryduzz.visualkeystrokes.screen.EditorModel.ColorState;
+import com.ryduzz.visualkeystrokes.screen.EditorModel.ColorTarget;
+import com.ryduzz.visualkeystrokes.screen.EditorModel.DistanceLabel;
+import com.ryduzz.visualkeystrokes.screen.EditorModel.DragMode;
+import com.ryduzz.visualkeystrokes.screen.EditorModel.ResizeHandle;
+import com.ryduzz.visualkeystrokes.util.ArgbTexture;
 import net.minecraft.client.MinecraftClient;
 import com.ryduzz.visualkeystrokes.util.MatrixStackCompat;
 import com.ryduzz.visualkeystrokes.util.RenderSnap;
@@ -11,12 +23,7 @@ import net.minecraft.text.Text;
 import org.lwjgl.glfw.GLFW;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 public abstract class VisualKeystrokesEditorScreenBase extends Screen implements VisualKeystrokesEditor {
     private static final int SIDEBAR_WIDTH = 160;
@@ -25,7 +32,6 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
     private static final int SIDEBAR_SCROLL_SPEED = 12;
     private static final int SIDEBAR_SCROLLBAR_WIDTH = 2;
     private static final int HANDLE_SIZE = 6;
-    private static final int MIN_GROUP_SIZE = 12;
     private static final int TOOL_BUTTON_SIZE = 18;
     private static final int TOOL_BUTTON_PADDING = 6;
     private static final int TRASH_SIZE = 8;
@@ -54,27 +60,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
     private static Method legacyTextFieldCharTyped;
 
     private final OverlayConfig config;
-    private final List<Group> groups;
-    private final Map<String, Group> groupById = new HashMap<>();
-    private final Map<String, Template> templates = new LinkedHashMap<>();
-
-    private final List<Group> selectedGroups = new ArrayList<>();
-    private DragMode dragMode = DragMode.NONE;
-    private ResizeHandle resizeHandle = ResizeHandle.NONE;
-    private double dragOffsetX;
-    private double dragOffsetY;
-    private Bounds dragStartBounds;
-    private double dragStartX;
-    private double dragStartY;
-    private boolean draggingFromSidebar;
-    private List<KeySnapshot> resizeSnapshots;
-    private boolean lassoActive;
-    private double lassoStartX;
-    private double lassoStartY;
-    private double lassoEndX;
-    private double lassoEndY;
-    private final List<GuideLine> guideLines = new ArrayList<>();
-    private final List<DistanceLabel> distanceLabels = new ArrayList<>();
+    private final EditorModel model;
 
     private boolean sidebarOpen;
     private float sidebarProgress;
@@ -124,23 +110,27 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
     private float pickerHue = 0.0f;
     private float pickerSaturation = 0.0f;
     private float pickerValue = 1.0f;
+    private final ColorWheelCache colorWheel = new ColorWheelCache(COLOR_PICKER_RADIUS);
+    private final ArgbTexture colorWheelTexture =
+        new ArgbTexture("visualkeystrokes", "color_wheel", colorWheel.size, colorWheel.size);
     private int colorPickerX;
     private int colorPickerY;
     private int colorPickerWidth;
     private int colorPickerHeight;
     private TextFieldWidget colorHexField;
+    private DrawContextCanvas keyCanvasTarget;
+    private BatchingCanvas keyCanvas;
 
     protected VisualKeystrokesEditorScreenBase(OverlayConfig config) {
         super(Text.literal("Visual Keystrokes"));
         this.config = config;
-        this.groups = buildGroups(config);
-        rebuildGroups();
-        buildTemplates();
+        this.model = new EditorModel(config);
     }
 
     @Override
     protected void init() {
         super.init();
+        model.setViewport(width, height);
         searchField = new TextFieldWidget(textRenderer, 0, 0, SIDEBAR_WIDTH - SIDEBAR_PADDING * 2, SEARCH_HEIGHT, Text.empty());
         searchField.setMaxLength(32);
         searchField.setSuggestion("Search...");
@@ -177,11 +167,12 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
 
     @Override
     public void render(DrawContext context, int mouseX, int mouseY, float delta) {
+        long start = PerfMonitor.start();
         renderInGameBackground(context);
 
         drawHeader(context, mouseX, mouseY);
 
-        boolean dragging = dragMode == DragMode.MOVE || dragMode == DragMode.RESIZE;
+        boolean dragging = model.isDragging();
         drawOverlayBase(context, !dragging);
         drawSidebar(context, mouseX, mouseY);
         drawSidebarToggle(context, mouseX, mouseY);
@@ -203,6 +194,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         }
 
         super.render(context, mouseX, mouseY, delta);
+        PerfMonitor.stop(PerfMetric.EDITOR_RENDER, start);
     }
 
     @Override
@@ -278,9 +270,9 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         double overlayX = toOverlayX(mouseX);
         double overlayY = toOverlayY(mouseY);
 
-        Group primary = primarySelected();
+        Group primary = model.primarySelected();
         if (primary != null && primary.isVisible()) {
-            Bounds selectionBounds = selectedBounds();
+            Bounds selectionBounds = model.selectedBounds();
             if (selectionBounds != null) {
                 if (hitTestEditIcon(selectionBounds, overlayX, overlayY)) {
                     openEditor();
@@ -292,43 +284,21 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
                 }
             }
             ResizeHandle handle = selectionBounds == null ? ResizeHandle.NONE : hitTestHandle(selectionBounds, overlayX, overlayY);
-            if (handle != ResizeHandle.NONE) {
-                dragMode = DragMode.RESIZE;
-                resizeHandle = handle;
-                dragStartBounds = selectionBounds;
-                resizeSnapshots = KeySnapshot.capture(keysForSelectedGroups());
-                dragStartX = overlayX;
-                dragStartY = overlayY;
+            if (model.beginResize(handle, overlayX, overlayY)) {
                 return true;
             }
         }
 
-        Group hit = hitTestGroup(overlayX, overlayY);
+        Group hit = model.hitTest(overlayX, overlayY);
         if (hit != null) {
-            if (!selectedGroups.contains(hit)) {
-                selectedGroups.clear();
-                selectedGroups.add(hit);
+            if (model.beginMove(hit, overlayX, overlayY)) {
                 closeColorPicker();
             }
-            dragMode = DragMode.MOVE;
-            draggingFromSidebar = false;
-            Bounds bounds = selectedGroups.size() > 1 ? selectedBounds() : hit.getBounds();
-            if (bounds == null) {
-                bounds = hit.getBounds();
-            }
-            dragOffsetX = overlayX - bounds.x;
-            dragOffsetY = overlayY - bounds.y;
             return true;
         }
 
-        selectedGroups.clear();
         closeEditor();
-        dragMode = DragMode.LASSO;
-        lassoActive = true;
-        lassoStartX = overlayX;
-        lassoStartY = overlayY;
-        lassoEndX = overlayX;
-        lassoEndY = overlayY;
+        model.beginLasso(overlayX, overlayY);
         return true;
     }
 
@@ -336,78 +306,19 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         if (colorPickerOpen && button == GLFW.GLFW_MOUSE_BUTTON_LEFT && handleColorPickerDrag(mouseX, mouseY)) {
             return true;
         }
-        if (dragMode == DragMode.NONE) {
-            return false;
-        }
-
-        double overlayX = toOverlayX(mouseX);
-        double overlayY = toOverlayY(mouseY);
-
-        if (dragMode == DragMode.LASSO) {
-            lassoEndX = overlayX;
-            lassoEndY = overlayY;
-            updateLassoSelection();
-            return true;
-        }
-
-        if (selectedGroups.isEmpty()) {
-            return false;
-        }
-
-        if (dragMode == DragMode.MOVE) {
-            Group primary = primarySelected();
-            if (primary == null) {
-                return false;
-            }
-            Bounds bounds = selectedBounds();
-            if (bounds == null) {
-                bounds = primary.getBounds();
-            }
-            double targetX = overlayX - dragOffsetX;
-            double targetY = overlayY - dragOffsetY;
-            if (draggingFromSidebar) {
-                targetX = overlayX - bounds.width / 2.0;
-                targetY = overlayY - bounds.height / 2.0;
-            }
-            Bounds targetBounds = new Bounds((int) Math.round(targetX), (int) Math.round(targetY), bounds.width, bounds.height);
-            Bounds snapped = applySnapping(targetBounds);
-            int dx = snapped.x - bounds.x;
-            int dy = snapped.y - bounds.y;
-            moveSelectedBy(dx, dy);
-            return true;
-        }
-
-        if (dragMode == DragMode.RESIZE) {
-            resizeSelectedGroup(overlayX, overlayY);
-            return true;
-        }
-
-        return false;
+        return model.dragTo(toOverlayX(mouseX), toOverlayY(mouseY));
     }
 
     protected boolean handleMouseReleased(double mouseX, double mouseY, int button) {
         if (colorPickerDragArea != ColorPickerDragArea.NONE) {
             colorPickerDragArea = ColorPickerDragArea.NONE;
+            commitConfig();
             return true;
         }
-        if (dragMode != DragMode.NONE) {
-            if (dragMode == DragMode.MOVE && !selectedGroups.isEmpty() && isInSidebarArea(mouseX, mouseY)) {
-                for (Group group : selectedGroups) {
-                    group.setVisible(false);
-                }
-                selectedGroups.clear();
-            }
-            if (dragMode == DragMode.LASSO) {
-                selectGroupInLasso();
-                lassoActive = false;
+        if (model.dragMode() != DragMode.NONE) {
+            if (model.endDrag(isInSidebarArea(mouseX, mouseY))) {
+                commitConfig();
             }
-            dragMode = DragMode.NONE;
-            resizeHandle = ResizeHandle.NONE;
-            draggingFromSidebar = false;
-            dragStartBounds = null;
-            resizeSnapshots = null;
-            guideLines.clear();
-            distanceLabels.clear();
             return true;
         }
         return false;
@@ -485,29 +396,26 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
 
     @Override
     public void close() {
-        OverlayConfig.save(config);
+        commitConfig();
         MinecraftClient.getInstance().setScreen(null);
     }
 
     @Override
-    public boolean shouldPause() {
-        return false;
+    public void removed() {
+        colorWheelTexture.close();
+        super.removed();
     }
 
-    private Group primarySelected() {
-        if (selectedGroups.isEmpty()) {
-            return null;
-        }
-        return selectedGroups.get(selectedGroups.size() - 1);
+    @Override
+    public boolean shouldPause() {
+        return false;
     }
 
-    private boolean isKeySelected(OverlayConfig.KeyDefinition key) {
-        for (Group group : selectedGroups) {
-            if (group.containsKey(key)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Publishes the edited config to the HUD and schedules a save. Continuous drags only commit on release.
+     */
+    private void commitConfig() {
+        ConfigStore.commit(config);
     }
 
     private void drawOverlayBase(DrawContext context, boolean includeSelected) {
@@ -518,40 +426,28 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         MatrixStackCompat.translate(context.getMatrices(), offsetX, offsetY);
         MatrixStackCompat.scale(context.getMatrices(), renderScale, renderScale);
 
+        BatchingCanvas keyCanvas = keyCanvas(context);
         for (OverlayConfig.KeyDefinition key : config.keys) {
             if (!key.isVisible()) {
                 continue;
             }
-            if (!includeSelected && isKeySelected(key)) {
+            if (!includeSelected && model.isKeySelected(key)) {
                 continue;
             }
-            int x = key.x;
-            int y = key.y;
-            int width = key.width;
-            int height = key.height;
-
-            int background = resolveBackgroundColor(key);
-            int border = resolveBorderColor(key);
-            int textColor = resolveTextColor(key);
-            context.fill(x, y, x + width, y + height, background);
-            drawBorder(context, x, y, width, height, border);
-
-            int textWidth = textRenderer.getWidth(key.label);
-            int textX = x + (width - textWidth) / 2;
-            int textY = y + (height - textRenderer.fontHeight) / 2;
-            context.drawTextWithShadow(textRenderer, key.label, textX, textY, textColor);
-        }
-
-        if (includeSelected && !selectedGroups.isEmpty()) {
-            if (selectedGroups.size() > 1) {
-                for (Group group : selectedGroups) {
+            drawKey(keyCanvas, key);
+        }
+        keyCanvas.flush();
+
+        if (includeSelected && model.hasSelection()) {
+            if (model.selection().size() > 1) {
+                for (Group group : model.selection()) {
                     if (group.isVisible()) {
                         drawSelection(context, group.getBounds(), false);
                     }
                 }
             }
 
-            Bounds combined = selectedBounds();
+            Bounds combined = model.selectedBounds();
             if (combined != null) {
                 drawSelection(context, combined, true);
                 drawTrashIcon(context, combined);
@@ -559,15 +455,43 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
             }
         }
 
-        if (lassoActive && dragMode == DragMode.LASSO) {
-            drawLasso(context);
+        Bounds lasso = model.lassoBounds();
+        if (lasso != null) {
+            drawLasso(context, lasso);
         }
 
         MatrixStackCompat.pop(context.getMatrices());
     }
 
+    private void drawKey(OverlayCanvas canvas, OverlayConfig.KeyDefinition key) {
+        int x = key.x;
+        int y = key.y;
+        int width = key.width;
+        int height = key.height;
+
+        canvas.fill(x, y, x + width, y + height, model.resolveColor(key, ColorTarget.BACKGROUND));
+        canvas.drawBorder(x, y, x + width, y + height, model.resolveColor(key, ColorTarget.BORDER));
+
+        int textX = x + (width - canvas.getWidth(key.label)) / 2;
+        int textY = y + (height - canvas.fontHeight()) / 2;
+        canvas.drawText(key.label, textX, textY, model.resolveColor(key, ColorTarget.TEXT));
+    }
+
+    /**
+     * The key batch bound to this frame's context. Keys are drawn through it so their rectangles and labels reach
+     * the game in two batched passes rather than alternating per key.
+     */
+    private BatchingCanvas keyCanvas(DrawContext context) {
+        if (keyCanvas == null || keyCanvasTarget.textRenderer() != textRenderer) {
+            keyCanvasTarget = new DrawContextCanvas(textRenderer);
+            keyCanvas = new BatchingCanvas(keyCanvasTarget);
+        }
+        keyCanvasTarget.bind(context);
+        return keyCanvas;
+    }
+
     private void drawSelectedOverlay(DrawContext context) {
-        if (selectedGroups.isEmpty()) {
+        if (!model.hasSelection()) {
             return;
         }
 
@@ -578,49 +502,36 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         MatrixStackCompat.translate(context.getMatrices(), offsetX, offsetY);
         MatrixStackCompat.scale(context.getMatrices(), renderScale, renderScale);
 
-        for (Group group : selectedGroups) {
+        BatchingCanvas keyCanvas = keyCanvas(context);
+        for (Group group : model.selection()) {
             for (OverlayConfig.KeyDefinition key : group.keys) {
-                if (!key.isVisible()) {
-                    continue;
+                if (key.isVisible()) {
+                    drawKey(keyCanvas, key);
                 }
-                int x = key.x;
-                int y = key.y;
-                int width = key.width;
-                int height = key.height;
-
-                int background = resolveBackgroundColor(key);
-                int border = resolveBorderColor(key);
-                int textColor = resolveTextColor(key);
-                context.fill(x, y, x + width, y + height, background);
-                drawBorder(context, x, y, width, height, border);
-
-                int textWidth = textRenderer.getWidth(key.label);
-                int textX = x + (width - textWidth) / 2;
-                int textY = y + (height - textRenderer.fontHeight) / 2;
-                context.drawTextWithShadow(textRenderer, key.label, textX, textY, textColor);
             }
         }
+        keyCanvas.flush();
 
-        if (selectedGroups.size() > 1) {
-            for (Group group : selectedGroups) {
+        if (model.selection().size() > 1) {
+            for (Group group : model.selection()) {
                 drawSelection(context, group.getBounds(), false);
             }
         }
 
-        Bounds combined = selectedBounds();
+        Bounds combined = model.selectedBounds();
         if (combined != null) {
             drawSelection(context, combined, true);
             drawTrashIcon(context, combined);
             drawEditIcon(context, combined);
         }
 
-        if ((dragMode == DragMode.MOVE || dragMode == DragMode.RESIZE) && config.guidesEnabled) {
+        if (model.isDragging() && config.guidesEnabled) {
             drawGuides(context);
         }
-        if ((dragMode == DragMode.MOVE || dragMode == DragMode.RESIZE) && config.distanceLabelsEnabled) {
+        if (model.isDragging() && config.distanceLabelsEnabled) {
             drawDistanceLabels(context);
         }
-        if (dragMode == DragMode.RESIZE) {
+        if (model.dragMode() == DragMode.RESIZE) {
             if (combined != null) {
                 drawResizeSizeLabels(context, combined);
             }
@@ -670,7 +581,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
             lastSearchText = filterText;
         }
 
-        List<Template> filtered = getTemplates(filterText);
+        List<Template> filtered = model.templates(filterText);
         int totalHeight = filtered.isEmpty() ? 0 : filtered.size() * (SIDEBAR_ENTRY_HEIGHT + 6) - 6;
         sidebarMaxScroll = Math.max(0, totalHeight - listHeight);
         sidebarScroll = Math.max(0, Math.min(sidebarScroll, sidebarMaxScroll));
@@ -685,7 +596,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
             int entryY = y;
             int entryWidth = sidebarWidth - SIDEBAR_PADDING * 2;
             int entryHeight = SIDEBAR_ENTRY_HEIGHT;
-            Group existing = groupById.get(template.id);
+            Group existing = model.group(template.id);
             boolean active = existing != null && existing.isVisible();
             int entryColor = isPointInside(mouseX, mouseY, entryX, entryY, entryWidth, entryHeight)
                 ? 0xFF2B2B2B
@@ -951,39 +862,15 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         }
 
         int y = listTop - scrollOffset;
-        for (Template template : getTemplates(searchField.getText())) {
+        for (Template template : model.templates(searchField.getText())) {
             int entryX = sidebarX + SIDEBAR_PADDING;
             int entryY = y;
             int entryWidth = sidebarWidth - SIDEBAR_PADDING * 2;
             int entryHeight = SIDEBAR_ENTRY_HEIGHT;
             if (isPointInside(mouseX, mouseY, entryX, entryY, entryWidth, entryHeight)) {
-                Group group = groupById.get(template.id);
-                if (group == null) {
-                    addTemplate(template);
-                    rebuildGroups();
-                    group = groupById.get(template.id);
-                }
-                if (group != null) {
-                    boolean wasVisible = group.isVisible();
-                    if (!wasVisible) {
-                        resetGroupLayout(group, template);
-                    }
-                    group.setVisible(true);
-                    selectedGroups.clear();
-                    selectedGroups.add(group);
-                    dragMode = DragMode.MOVE;
-                    draggingFromSidebar = true;
-                    Bounds bounds = group.getBounds();
-                    dragOffsetX = bounds.width / 2.0;
-                    dragOffsetY = bounds.height / 2.0;
-                    double overlayX = toOverlayX(mouseX);
-                    double overlayY = toOverlayY(mouseY);
-                    int targetX = (int) Math.round(overlayX - bounds.width / 2.0);
-                    int targetY = (int) Math.round(overlayY - bounds.height / 2.0);
-                    moveSelectedBy(targetX - bounds.x, targetY - bounds.y);
-                    return true;
+                if (model.beginTemplateDrag(template, toOverlayX(mouseX), toOverlayY(mouseY))) {
+                    commitConfig();
                 }
-                dragMode = DragMode.MOVE;
                 return true;
             }
             y += entryHeight + 6;
@@ -1072,6 +959,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         drawSettingsRow(context, "Guides", config.guidesEnabled, left, top + lineHeight);
         drawSettingsRow(context, "Distance Labels", config.distanceLabelsEnabled, left, top + lineHeight * 2);
         drawThresholdRow(context, left, top + lineHeight * 3);
+        drawSettingsRow(context, "Frame Cache", ConfigStore.frameCacheEnabled(), left, top + lineHeight * 4);
     }
 
     private void drawSettingsRow(DrawContext context, String label, boolean enabled, int x, int y) {
@@ -1128,17 +1016,22 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
 
         if (isPointInside(mouseX, mouseY, buttonX, top, buttonWidth, buttonHeight)) {
             config.snappingEnabled = !config.snappingEnabled;
-            OverlayConfig.save(config);
+            commitConfig();
             return true;
         }
         if (isPointInside(mouseX, mouseY, buttonX, top + lineHeight, buttonWidth, buttonHeight)) {
             config.guidesEnabled = !config.guidesEnabled;
-            OverlayConfig.save(config);
+            commitConfig();
             return true;
         }
         if (isPointInside(mouseX, mouseY, buttonX, top + lineHeight * 2, buttonWidth, buttonHeight)) {
             config.distanceLabelsEnabled = !config.distanceLabelsEnabled;
-            OverlayConfig.save(config);
+            commitConfig();
+            return true;
+        }
+        if (isPointInside(mouseX, mouseY, buttonX, top + lineHeight * 4, buttonWidth, buttonHeight)) {
+            ConfigStore.setFrameCacheEnabled(!ConfigStore.frameCacheEnabled());
+            commitConfig();
             return true;
         }
 
@@ -1151,12 +1044,12 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
 
         if (isPointInside(mouseX, mouseY, minusX, buttonY, buttonSize, buttonSize)) {
             config.snapThreshold = Math.max(1, config.snapThreshold - 1);
-            OverlayConfig.save(config);
+            commitConfig();
             return true;
         }
         if (isPointInside(mouseX, mouseY, plusX, buttonY, buttonSize, buttonSize)) {
             config.snapThreshold = Math.min(20, config.snapThreshold + 1);
-            OverlayConfig.save(config);
+            commitConfig();
             return true;
         }
 
@@ -1164,7 +1057,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
     }
 
     private void drawEditorPopup(DrawContext context, int mouseX, int mouseY) {
-        if (selectedGroups.isEmpty()) {
+        if (!model.hasSelection()) {
             closeEditor();
             return;
         }
@@ -1180,9 +1073,9 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
 
         int titleX = editorPanelX + 12;
         int titleY = editorPanelY + 12;
-        String title = selectedGroups.size() == 1
-            ? "Edit " + primarySelected().displayName
-            : "Edit " + selectedGroups.size() + " Elements";
+        String title = model.selection().size() == 1
+            ? "Edit " + model.primarySelected().displayName
+            : "Edit " + model.selection().size() + " Elements";
         context.drawTextWithShadow(textRenderer, title, titleX, titleY, 0xFFFFFFFF);
 
         editorCloseWidth = 14;
@@ -1209,7 +1102,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
             int rowY = rowStartY + i * rowHeight;
             context.drawTextWithShadow(textRenderer, labels[i], titleX, rowY + 4, 0xFFFFFFFF);
 
-            ColorState state = selectionColorState(targets[i]);
+            ColorState state = model.selectionColorState(targets[i]);
             int boxX = editorPanelX + editorPanelWidth - 12 - boxSize;
             int boxY = rowY + 2;
             context.fill(boxX, boxY, boxX + boxSize, boxY + boxSize, state.color);
@@ -1298,14 +1191,14 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         }
 
         if (isPointInside(mouseX, mouseY, editorVisibilityX, editorVisibilityY, editorVisibilityWidth, editorVisibilityHeight)) {
-            toggleSelectionVisibility();
-            OverlayConfig.save(config);
+            model.toggleSelectionVisibility();
+            commitConfig();
             return true;
         }
 
         if (isPointInside(mouseX, mouseY, editorResetX, editorResetY, editorResetWidth, editorResetHeight)) {
-            clearSelectionColorOverrides();
-            OverlayConfig.save(config);
+            model.clearSelectionColorOverrides();
+            commitConfig();
             return true;
         }
 
@@ -1406,7 +1299,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
     }
 
     private void openEditor() {
-        if (selectedGroups.isEmpty()) {
+        if (!model.hasSelection()) {
             return;
         }
         editorOpen = true;
@@ -1419,13 +1312,13 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
     }
 
     private void openColorPicker(ColorTarget target) {
-        if (selectedGroups.isEmpty()) {
+        if (!model.hasSelection()) {
             return;
         }
         activeColorTarget = target;
         colorPickerOpen = true;
         colorPickerDragArea = ColorPickerDragArea.NONE;
-        ColorState state = selectionColorState(target);
+        ColorState state = model.selectionColorState(target);
         updatePickerFromColor(state.color);
         syncHexField(state.color);
     }
@@ -1457,7 +1350,8 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
             return;
         }
         int color = 0xFF000000 | rgb;
-        applySelectionColor(activeColorTarget, color);
+        model.applySelectionColor(activeColorTarget, color);
+        commitConfig();
         updatePickerFromColor(color);
         syncHexField(color);
     }
@@ -1480,7 +1374,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         pickerHue = (float) ((angle / (Math.PI * 2) + 1.0) % 1.0);
         pickerSaturation = (float) (clamped / COLOR_PICKER_RADIUS);
         int color = hsvToRgb(pickerHue, pickerSaturation, pickerValue);
-        applySelectionColor(activeColorTarget, color);
+        model.applySelectionColor(activeColorTarget, color);
         syncHexField(color);
     }
 
@@ -1490,47 +1384,12 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         double t = (mouseY - sliderY) / sliderHeight;
         pickerValue = (float) (1.0 - Math.max(0.0, Math.min(1.0, t)));
         int color = hsvToRgb(pickerHue, pickerSaturation, pickerValue);
-        applySelectionColor(activeColorTarget, color);
+        model.applySelectionColor(activeColorTarget, color);
         syncHexField(color);
     }
 
-    private void applySelectionColor(ColorTarget target, int color) {
-        for (OverlayConfig.KeyDefinition key : keysForSelectedGroups()) {
-            setColorOverride(key, target, color);
-        }
-        OverlayConfig.save(config);
-    }
-
-    private void clearSelectionColorOverrides() {
-        for (OverlayConfig.KeyDefinition key : keysForSelectedGroups()) {
-            setColorOverride(key, ColorTarget.BACKGROUND, null);
-            setColorOverride(key, ColorTarget.PRESSED, null);
-            setColorOverride(key, ColorTarget.BORDER, null);
-            setColorOverride(key, ColorTarget.TEXT, null);
-        }
-        OverlayConfig.save(config);
-    }
-
-    private void toggleSelectionVisibility() {
-        List<OverlayConfig.KeyDefinition> keys = keysForSelectedGroups();
-        if (keys.isEmpty()) {
-            return;
-        }
-        boolean allVisible = true;
-        for (OverlayConfig.KeyDefinition key : keys) {
-            if (!key.isVisible()) {
-                allVisible = false;
-                break;
-            }
-        }
-        boolean next = !allVisible;
-        for (OverlayConfig.KeyDefinition key : keys) {
-            key.setVisible(next);
-        }
-    }
-
     private String visibilityLabelForSelection() {
-        List<OverlayConfig.KeyDefinition> keys = keysForSelectedGroups();
+        List<OverlayConfig.KeyDefinition> keys = model.keysForSelectedGroups();
         if (keys.isEmpty()) {
             return "Shown";
         }
@@ -1549,66 +1408,6 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         return "Mixed";
     }
 
-    private ColorState selectionColorState(ColorTarget target) {
-        List<OverlayConfig.KeyDefinition> keys = keysForSelectedGroups();
-        int fallback = resolveConfigColor(target);
-        if (keys.isEmpty()) {
-            return new ColorState(fallback, false);
-        }
-        int color = resolveColor(keys.get(0), target);
-        boolean mixed = false;
-        for (OverlayConfig.KeyDefinition key : keys) {
-            if (resolveColor(key, target) != color) {
-                mixed = true;
-                break;
-            }
-        }
-        return new ColorState(color, mixed);
-    }
-
-    private int resolveColor(OverlayConfig.KeyDefinition key, ColorTarget target) {
-        return switch (target) {
-            case BACKGROUND -> resolveBackgroundColor(key);
-            case PRESSED -> resolvePressedColor(key);
-            case BORDER -> resolveBorderColor(key);
-            case TEXT -> resolveTextColor(key);
-        };
-    }
-
-    private int resolveConfigColor(ColorTarget target) {
-        return switch (target) {
-            case BACKGROUND -> config.backgroundColor;
-            case PRESSED -> config.pressedColor;
-            case BORDER -> config.borderColor;
-            case TEXT -> config.textColor;
-        };
-    }
-
-    private void setColorOverride(OverlayConfig.KeyDefinition key, ColorTarget target, Integer color) {
-        switch (target) {
-            case BACKGROUND -> key.backgroundColorOverride = color;
-            case PRESSED -> key.pressedColorOverride = color;
-            case BORDER -> key.borderColorOverride = color;
-            case TEXT -> key.textColorOverride = color;
-        }
-    }
-
-    private int resolveBackgroundColor(OverlayConfig.KeyDefinition key) {
-        return OverlayConfig.resolveColor(key.backgroundColorOverride, config.backgroundColor);
-    }
-
-    private int resolvePressedColor(OverlayConfig.KeyDefinition key) {
-        return OverlayConfig.resolveColor(key.pressedColorOverride, config.pressedColor);
-    }
-
-    private int resolveBorderColor(OverlayConfig.KeyDefinition key) {
-        return OverlayConfig.resolveColor(key.borderColorOverride, config.borderColor);
-    }
-
-    private int resolveTextColor(OverlayConfig.KeyDefinition key) {
-        return OverlayConfig.resolveColor(key.textColorOverride, config.textColor);
-    }
-
     private int colorWheelCenterX() {
         return colorPickerX + COLOR_PICKER_PADDING + COLOR_PICKER_RADIUS;
     }
@@ -1639,29 +1438,30 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
 
     private void drawColorWheel(DrawContext context, int centerX, int centerY) {
         int radius = COLOR_PICKER_RADIUS;
-        for (int dy = -radius; dy <= radius; dy++) {
-            for (int dx = -radius; dx <= radius; dx++) {
-                double dist = Math.sqrt(dx * dx + dy * dy);
-                if (dist > radius) {
-                    continue;
-                }
-                float hue = (float) ((Math.atan2(dy, dx) / (Math.PI * 2) + 1.0) % 1.0);
-                float sat = (float) (dist / radius);
-                int color = hsvToRgb(hue, sat, pickerValue);
-                context.fill(centerX + dx, centerY + dy, centerX + dx + 1, centerY + dy + 1, color);
+        boolean regenerated = colorWheel.update(pickerValue);
+        if (colorWheelTexture.isSupported()) {
+            if (regenerated) {
+                colorWheelTexture.upload(colorWheel.pixels);
             }
+            colorWheelTexture.draw(context, centerX - radius, centerY - radius);
+            return;
+        }
+
+        // No texture path on this target: replay the cached runs, rebuilt only when the value changes.
+        if (regenerated || !colorWheel.hasRuns()) {
+            colorWheel.buildRuns();
         }
+        colorWheel.drawRuns(context, centerX - radius, centerY - radius);
     }
 
     private void drawValueSlider(DrawContext context, int centerX, int centerY) {
         int sliderX = colorValueSliderX();
         int sliderY = colorValueSliderY();
         int sliderHeight = colorValueSliderHeight();
-        for (int i = 0; i < sliderHeight; i++) {
-            float value = 1.0f - (i / (float) (sliderHeight - 1));
-            int color = hsvToRgb(pickerHue, pickerSaturation, value);
-            context.fill(sliderX, sliderY + i, sliderX + COLOR_PICKER_SLIDER_WIDTH, sliderY + i + 1, color);
-        }
+        // RGB scales linearly with HSV value, so a two-stop gradient reproduces the slider exactly.
+        int top = hsvToRgb(pickerHue, pickerSaturation, 1.0f);
+        int bottom = hsvToRgb(pickerHue, pickerSaturation, 0.0f);
+        context.fillGradient(sliderX, sliderY, sliderX + COLOR_PICKER_SLIDER_WIDTH, sliderY + sliderHeight, top, bottom);
         drawBorder(context, sliderX, sliderY, COLOR_PICKER_SLIDER_WIDTH, sliderHeight, 0xFF000000);
     }
 
@@ -1675,7 +1475,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         }
     }
 
-    private int hsvToRgb(float hue, float saturation, float value) {
+    private static int hsvToRgb(float hue, float saturation, float value) {
         float h = (hue % 1.0f + 1.0f) % 1.0f;
         float c = value * saturation;
         float hPrime = h * 6.0f;
@@ -1743,7 +1543,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         return new float[] { h, s, v };
     }
 
-    private int clampColor(float value) {
+    private static int clampColor(float value) {
         if (value < 0.0f) {
             return 0;
         }
@@ -1835,15 +1635,11 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
     }
 
 
-    private void drawLasso(DrawContext context) {
-        int left = (int) Math.round(Math.min(lassoStartX, lassoEndX));
-        int right = (int) Math.round(Math.max(lassoStartX, lassoEndX));
-        int top = (int) Math.round(Math.min(lassoStartY, lassoEndY));
-        int bottom = (int) Math.round(Math.max(lassoStartY, lassoEndY));
-
-        if (right - left < 2 || bottom - top < 2) {
-            return;
-        }
+    private void drawLasso(DrawContext context, Bounds lasso) {
+        int left = lasso.x;
+        int right = lasso.x + lasso.width;
+        int top = lasso.y;
+        int bottom = lasso.y + lasso.height;
 
         int fill = 0x22FFFFFF;
         int outline = 0xFFFFFFFF;
@@ -1860,85 +1656,6 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         drawBorder(context, x, y, size, size, 0xFF000000);
     }
 
-    private void resizeSelectedGroup(double overlayX, double overlayY) {
-        Group primary = primarySelected();
-        if (dragStartBounds == null || primary == null) {
-            return;
-        }
-
-        int left = dragStartBounds.x;
-        int top = dragStartBounds.y;
-        int right = dragStartBounds.x + dragStartBounds.width;
-        int bottom = dragStartBounds.y + dragStartBounds.height;
-
-        int newLeft = left;
-        int newTop = top;
-        int newRight = right;
-        int newBottom = bottom;
-
-        int dx = (int) Math.round(overlayX - dragStartX);
-        int dy = (int) Math.round(overlayY - dragStartY);
-
-        double aspect = dragStartBounds.width / (double) dragStartBounds.height;
-        int width;
-        int height;
-        boolean horizontalDominant = Math.abs(dx) >= Math.abs(dy);
-
-        switch (resizeHandle) {
-            case TOP_LEFT -> {
-                width = Math.max(MIN_GROUP_SIZE, right - (left + dx));
-                height = Math.max(MIN_GROUP_SIZE, bottom - (top + dy));
-                if (horizontalDominant) {
-                    height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
-                } else {
-                    width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
-                }
-                newLeft = right - width;
-                newTop = bottom - height;
-            }
-            case TOP_RIGHT -> {
-                width = Math.max(MIN_GROUP_SIZE, (right + dx) - left);
-                height = Math.max(MIN_GROUP_SIZE, bottom - (top + dy));
-                if (horizontalDominant) {
-                    height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
-                } else {
-                    width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
-                }
-                newRight = left + width;
-                newTop = bottom - height;
-            }
-            case BOTTOM_LEFT -> {
-                width = Math.max(MIN_GROUP_SIZE, right - (left + dx));
-                height = Math.max(MIN_GROUP_SIZE, (bottom + dy) - top);
-                if (horizontalDominant) {
-                    height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
-                } else {
-                    width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
-                }
-                newLeft = right - width;
-                newBottom = top + height;
-            }
-            case BOTTOM_RIGHT -> {
-                width = Math.max(MIN_GROUP_SIZE, (right + dx) - left);
-                height = Math.max(MIN_GROUP_SIZE, (bottom + dy) - top);
-                if (horizontalDominant) {
-                    height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
-                } else {
-                    width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
-                }
-                newRight = left + width;
-                newBottom = top + height;
-            }
-            case NONE -> {
-                return;
-            }
-        }
-
-        Bounds target = new Bounds(newLeft, newTop, newRight - newLeft, newBottom - newTop);
-        Bounds snapped = applyResizeSnapping(target, resizeHandle, horizontalDominant, aspect);
-        primary.resizeTo(dragStartBounds, snapped, resizeSnapshots);
-    }
-
     private ResizeHandle hitTestHandle(Bounds bounds, double overlayX, double overlayY) {
         int x = bounds.x;
         int y = bounds.y;
@@ -1999,564 +1716,13 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         return mouseX >= sidebarX && mouseY >= 0 && mouseY <= height;
     }
 
-    private void selectGroupInLasso() {
-        if (!lassoActive) {
-            return;
-        }
-        int left = (int) Math.round(Math.min(lassoStartX, lassoEndX));
-        int right = (int) Math.round(Math.max(lassoStartX, lassoEndX));
-        int top = (int) Math.round(Math.min(lassoStartY, lassoEndY));
-        int bottom = (int) Math.round(Math.max(lassoStartY, lassoEndY));
-
-        if (right - left < 2 || bottom - top < 2) {
-            return;
-        }
-
-        Bounds lasso = new Bounds(left, top, right - left, bottom - top);
-        selectedGroups.clear();
-        for (Group group : groups) {
-            if (group.isVisible() && group.intersects(lasso)) {
-                selectedGroups.add(group);
-            }
-        }
-    }
-
-    private void updateLassoSelection() {
-        if (!lassoActive) {
-            return;
-        }
-        int left = (int) Math.round(Math.min(lassoStartX, lassoEndX));
-        int right = (int) Math.round(Math.max(lassoStartX, lassoEndX));
-        int top = (int) Math.round(Math.min(lassoStartY, lassoEndY));
-        int bottom = (int) Math.round(Math.max(lassoStartY, lassoEndY));
-
-        if (right - left < 2 || bottom - top < 2) {
-            selectedGroups.clear();
-            return;
-        }
-
-        Bounds lasso = new Bounds(left, top, right - left, bottom - top);
-        selectedGroups.clear();
-        for (Group group : groups) {
-            if (group.isVisible() && group.intersects(lasso)) {
-                selectedGroups.add(group);
-            }
-        }
-    }
-
     private void resetWorkspace() {
-        config.resetLayout();
-        OverlayConfig.save(config);
-        selectedGroups.clear();
+        model.resetLayout();
+        commitConfig();
         closeEditor();
-        dragMode = DragMode.NONE;
-        resizeHandle = ResizeHandle.NONE;
-        draggingFromSidebar = false;
-        dragStartBounds = null;
-        resizeSnapshots = null;
-        lassoActive = false;
-        guideLines.clear();
-        distanceLabels.clear();
         if (searchField != null) {
             searchField.setText("");
         }
-        rebuildGroups();
-    }
-
-    private void buildTemplates() {
-        templates.clear();
-
-        templates.put("wasd", Template.keys("wasd", "WASD", List.of(
-            key("W", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_W, 28, 0, 24, 24),
-            key("A", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_A, 0, 28, 24, 24),
-            key("S", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_S, 28, 28, 24, 24),
-            key("D", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_D, 56, 28, 24, 24)
-        )));
-
-        templates.put("space", Template.keys("space", "SPACE", List.of(
-            key("SPACE", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_SPACE, 0, 0, 80, 24)
-        )));
-
-        templates.put("shift", Template.keys("shift", "SHIFT", List.of(
-            key("SHIFT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_SHIFT, 0, 0, 52, 24)
-        )));
-
-        templates.put("ctrl", Template.keys("ctrl", "CTRL", List.of(
-            key("CTRL", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_CONTROL, 0, 0, 52, 24)
-        )));
-
-        templates.put("lmb", Template.keys("lmb", "LMB", List.of(
-            key("LMB", OverlayConfig.InputType.MOUSE, GLFW.GLFW_MOUSE_BUTTON_LEFT, 0, 0, 32, 32)
-        )));
-
-        templates.put("rmb", Template.keys("rmb", "RMB", List.of(
-            key("RMB", OverlayConfig.InputType.MOUSE, GLFW.GLFW_MOUSE_BUTTON_RIGHT, 0, 0, 32, 32)
-        )));
-
-        templates.put("mmb", Template.keys("mmb", "MMB", List.of(
-            key("MMB", OverlayConfig.InputType.MOUSE, GLFW.GLFW_MOUSE_BUTTON_MIDDLE, 0, 0, 32, 24)
-        )));
-
-        templates.put("keyboard", Template.keys("keyboard", "Mini Keyboard", miniKeyboardKeys()));
-        templates.put("numbers", Template.keys("numbers", "Number Row", numberRowKeys()));
-        templates.put("function", Template.keys("function", "Function Keys", functionKeys()));
-        templates.put("arrows", Template.keys("arrows", "Arrow Keys", arrowKeys()));
-        templates.put("utility", Template.keys("utility", "Utility Keys", utilityKeys()));
-        templates.put("full_keyboard", Template.keys("full_keyboard", "Full Keyboard", fullKeyboardKeys()));
-
-        templates.put("cps", Template.stat("cps", "CPS Counter", statKey("CPS", "cps", 0, 0)));
-        templates.put("cps_rmb", Template.stat("cps_rmb", "RMB CPS", statKey("RMB CPS", "cps_rmb", 0, 0)));
-        templates.put("cps_mmb", Template.stat("cps_mmb", "MMB CPS", statKey("MMB CPS", "cps_mmb", 0, 0)));
-    }
-
-    private List<Template> getTemplates(String filterText) {
-        String filter = filterText == null ? "" : filterText.trim().toLowerCase();
-        List<Template> list = new ArrayList<>();
-        for (Template template : templates.values()) {
-            if (template.matchesFilter(filter)) {
-                list.add(template);
-            }
-        }
-        return list;
-    }
-
-    private void addTemplate(Template template) {
-        for (OverlayConfig.KeyDefinition key : template.createKeys()) {
-            config.keys.add(key);
-        }
-        OverlayConfig.save(config);
-    }
-
-    private OverlayConfig.KeyDefinition key(String label, OverlayConfig.InputType type, int code, int x, int y, int width, int height) {
-        return new OverlayConfig.KeyDefinition(label, type, code, x, y, width, height, type == OverlayConfig.InputType.MOUSE ? label.toLowerCase() : "keyboard");
-    }
-
-    private OverlayConfig.KeyDefinition statKey(String label, String statId, int x, int y) {
-        return new OverlayConfig.KeyDefinition(label, statId, x, y, 64, 28, "stats");
-    }
-
-    private List<OverlayConfig.KeyDefinition> miniKeyboardKeys() {
-        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
-        keys.add(key("1", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_1, 0, 0, 14, 14));
-        keys.add(key("2", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_2, 16, 0, 14, 14));
-        keys.add(key("3", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_3, 32, 0, 14, 14));
-        keys.add(key("4", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_4, 48, 0, 14, 14));
-        keys.add(key("5", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_5, 64, 0, 14, 14));
-
-        keys.add(key("Q", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_Q, 0, 16, 14, 14));
-        keys.add(key("W", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_W, 16, 16, 14, 14));
-        keys.add(key("E", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_E, 32, 16, 14, 14));
-        keys.add(key("R", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_R, 48, 16, 14, 14));
-        keys.add(key("T", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_T, 64, 16, 14, 14));
-
-        keys.add(key("A", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_A, 0, 32, 14, 14));
-        keys.add(key("S", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_S, 16, 32, 14, 14));
-        keys.add(key("D", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_D, 32, 32, 14, 14));
-        keys.add(key("F", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_F, 48, 32, 14, 14));
-        keys.add(key("G", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_G, 64, 32, 14, 14));
-
-        keys.add(key("Z", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_Z, 8, 48, 14, 14));
-        keys.add(key("X", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_X, 24, 48, 14, 14));
-        keys.add(key("C", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_C, 40, 48, 14, 14));
-        keys.add(key("V", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_V, 56, 48, 14, 14));
-        return keys;
-    }
-
-    private List<OverlayConfig.KeyDefinition> numberRowKeys() {
-        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
-        int x = 0;
-        for (int i = 1; i <= 9; i++) {
-            keys.add(key(Integer.toString(i), OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_0 + i, x, 0, 14, 14));
-            x += 16;
-        }
-        keys.add(key("0", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_0, x, 0, 14, 14));
-        return keys;
-    }
-
-    private List<OverlayConfig.KeyDefinition> functionKeys() {
-        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
-        int x = 0;
-        for (int i = 1; i <= 12; i++) {
-            keys.add(key("F" + i, OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_F1 + (i - 1), x, 0, 18, 14));
-            x += 20;
-        }
-        return keys;
-    }
-
-    private List<OverlayConfig.KeyDefinition> arrowKeys() {
-        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
-        keys.add(key("↑", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_UP, 18, 0, 18, 18));
-        keys.add(key("←", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT, 0, 20, 18, 18));
-        keys.add(key("↓", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_DOWN, 18, 20, 18, 18));
-        keys.add(key("→", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT, 36, 20, 18, 18));
-        return keys;
-    }
-
-    private List<OverlayConfig.KeyDefinition> utilityKeys() {
-        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
-        keys.add(key("ESC", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_ESCAPE, 0, 0, 24, 18));
-        keys.add(key("TAB", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_TAB, 28, 0, 24, 18));
-        keys.add(key("E", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_E, 56, 0, 18, 18));
-        keys.add(key("Q", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_Q, 78, 0, 18, 18));
-        keys.add(key("R", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_R, 100, 0, 18, 18));
-        keys.add(key("F", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_F, 122, 0, 18, 18));
-        return keys;
-    }
-
-    private List<OverlayConfig.KeyDefinition> fullKeyboardKeys() {
-        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
-        int key = 18;
-        int gap = 2;
-        int row0 = 0;
-        int row1 = key + gap;
-        int row2 = row1 + key + gap;
-        int row3 = row2 + key + gap;
-        int row4 = row3 + key + gap;
-        int row5 = row4 + key + gap;
-
-        int x = 0;
-        keys.add(key("ESC", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_ESCAPE, x, row0, 24, key));
-        x += 28;
-        for (int i = 1; i <= 12; i++) {
-            keys.add(key("F" + i, OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_F1 + (i - 1), x, row0, key, key));
-            x += key + gap;
-        }
-
-        x = 0;
-        keys.add(key("~", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_GRAVE_ACCENT, x, row1, key, key));
-        x += key + gap;
-        for (int i = 1; i <= 9; i++) {
-            keys.add(key(Integer.toString(i), OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_0 + i, x, row1, key, key));
-            x += key + gap;
-        }
-        keys.add(key("0", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_0, x, row1, key, key));
-        x += key + gap;
-        keys.add(key("-", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_MINUS, x, row1, key, key));
-        x += key + gap;
-        keys.add(key("=", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_EQUAL, x, row1, key, key));
-        x += key + gap;
-        keys.add(key("BACK", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_BACKSPACE, x, row1, 34, key));
-
-        x = 0;
-        keys.add(key("TAB", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_TAB, x, row2, 28, key));
-        x += 30;
-        String[] rowQ = {"Q","W","E","R","T","Y","U","I","O","P","[","]"};
-        int[] rowQCodes = {GLFW.GLFW_KEY_Q,GLFW.GLFW_KEY_W,GLFW.GLFW_KEY_E,GLFW.GLFW_KEY_R,GLFW.GLFW_KEY_T,GLFW.GLFW_KEY_Y,
-            GLFW.GLFW_KEY_U,GLFW.GLFW_KEY_I,GLFW.GLFW_KEY_O,GLFW.GLFW_KEY_P,GLFW.GLFW_KEY_LEFT_BRACKET,GLFW.GLFW_KEY_RIGHT_BRACKET};
-        for (int i = 0; i < rowQ.length; i++) {
-            keys.add(key(rowQ[i], OverlayConfig.InputType.KEY, rowQCodes[i], x, row2, key, key));
-            x += key + gap;
-        }
-        keys.add(key("\\", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_BACKSLASH, x, row2, 28, key));
-
-        x = 0;
-        keys.add(key("CAPS", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_CAPS_LOCK, x, row3, 32, key));
-        x += 34;
-        String[] rowA = {"A","S","D","F","G","H","J","K","L",";","'"};
-        int[] rowACodes = {GLFW.GLFW_KEY_A,GLFW.GLFW_KEY_S,GLFW.GLFW_KEY_D,GLFW.GLFW_KEY_F,GLFW.GLFW_KEY_G,GLFW.GLFW_KEY_H,
-            GLFW.GLFW_KEY_J,GLFW.GLFW_KEY_K,GLFW.GLFW_KEY_L,GLFW.GLFW_KEY_SEMICOLON,GLFW.GLFW_KEY_APOSTROPHE};
-        for (int i = 0; i < rowA.length; i++) {
-            keys.add(key(rowA[i], OverlayConfig.InputType.KEY, rowACodes[i], x, row3, key, key));
-            x += key + gap;
-        }
-        keys.add(key("ENTER", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_ENTER, x, row3, 36, key));
-
-        x = 0;
-        keys.add(key("SHIFT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_SHIFT, x, row4, 40, key));
-        x += 42;
-        String[] rowZ = {"Z","X","C","V","B","N","M",",",".","/"};
-        int[] rowZCodes = {GLFW.GLFW_KEY_Z,GLFW.GLFW_KEY_X,GLFW.GLFW_KEY_C,GLFW.GLFW_KEY_V,GLFW.GLFW_KEY_B,GLFW.GLFW_KEY_N,
-            GLFW.GLFW_KEY_M,GLFW.GLFW_KEY_COMMA,GLFW.GLFW_KEY_PERIOD,GLFW.GLFW_KEY_SLASH};
-        for (int i = 0; i < rowZ.length; i++) {
-            keys.add(key(rowZ[i], OverlayConfig.InputType.KEY, rowZCodes[i], x, row4, key, key));
-            x += key + gap;
-        }
-        keys.add(key("SHIFT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT_SHIFT, x, row4, 44, key));
-
-        x = 0;
-        keys.add(key("CTRL", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_CONTROL, x, row5, 28, key));
-        x += 30;
-        keys.add(key("WIN", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_SUPER, x, row5, 24, key));
-        x += 26;
-        keys.add(key("ALT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_LEFT_ALT, x, row5, 24, key));
-        x += 26;
-        keys.add(key("SPACE", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_SPACE, x, row5, 90, key));
-        x += 92;
-        keys.add(key("ALT", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT_ALT, x, row5, 24, key));
-        x += 26;
-        keys.add(key("WIN", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT_SUPER, x, row5, 24, key));
-        x += 26;
-        keys.add(key("MENU", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_MENU, x, row5, 24, key));
-        x += 26;
-        keys.add(key("CTRL", OverlayConfig.InputType.KEY, GLFW.GLFW_KEY_RIGHT_CONTROL, x, row5, 28, key));
-
-        return keys;
-    }
-
-    private Bounds selectedBounds() {
-        if (selectedGroups.isEmpty()) {
-            return null;
-        }
-        int minX = Integer.MAX_VALUE;
-        int minY = Integer.MAX_VALUE;
-        int maxX = Integer.MIN_VALUE;
-        int maxY = Integer.MIN_VALUE;
-
-        for (Group group : selectedGroups) {
-            Bounds bounds = group.getBounds();
-            minX = Math.min(minX, bounds.x);
-            minY = Math.min(minY, bounds.y);
-            maxX = Math.max(maxX, bounds.x + bounds.width);
-            maxY = Math.max(maxY, bounds.y + bounds.height);
-        }
-
-        return new Bounds(minX, minY, maxX - minX, maxY - minY);
-    }
-
-    private List<OverlayConfig.KeyDefinition> keysForSelectedGroups() {
-        List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
-        for (Group group : selectedGroups) {
-            keys.addAll(group.keys);
-        }
-        return keys;
-    }
-
-    private Bounds applySnapping(Bounds target) {
-        guideLines.clear();
-        distanceLabels.clear();
-
-        if (!config.snappingEnabled && !config.guidesEnabled && !config.distanceLabelsEnabled) {
-            return target;
-        }
-
-        SnapPair snap = computeSnapResults(target, true, true, true, true, true, true);
-        Bounds snapped = new Bounds(
-            (int) Math.round(target.x + snap.snapDx),
-            (int) Math.round(target.y + snap.snapDy),
-            target.width,
-            target.height
-        );
-        updateSnapOverlays(snap.xResult, snap.yResult, snapped);
-        return snapped;
-    }
-
-    private Bounds applyResizeSnapping(Bounds target, ResizeHandle handle, boolean horizontalDominant, double aspect) {
-        guideLines.clear();
-        distanceLabels.clear();
-
-        if (!config.snappingEnabled && !config.guidesEnabled && !config.distanceLabelsEnabled) {
-            return target;
-        }
-
-        boolean moveLeft = handle == ResizeHandle.TOP_LEFT || handle == ResizeHandle.BOTTOM_LEFT;
-        boolean moveRight = handle == ResizeHandle.TOP_RIGHT || handle == ResizeHandle.BOTTOM_RIGHT;
-        boolean moveTop = handle == ResizeHandle.TOP_LEFT || handle == ResizeHandle.TOP_RIGHT;
-        boolean moveBottom = handle == ResizeHandle.BOTTOM_LEFT || handle == ResizeHandle.BOTTOM_RIGHT;
-
-        SnapPair snap = computeSnapResults(target, moveLeft, moveRight, false, moveTop, moveBottom, false);
-
-        int left = target.x;
-        int top = target.y;
-        int right = target.x + target.width;
-        int bottom = target.y + target.height;
-
-        // Snap along the dominant axis to preserve the resize aspect ratio.
-        if (horizontalDominant) {
-            if (moveLeft && snap.snapDx != 0) {
-                left = (int) Math.round(target.x + snap.snapDx);
-            }
-            if (moveRight && snap.snapDx != 0) {
-                right = (int) Math.round(target.x + target.width + snap.snapDx);
-            }
-            int width = Math.max(MIN_GROUP_SIZE, right - left);
-            int height = Math.max(MIN_GROUP_SIZE, (int) Math.round(width / aspect));
-            if (moveTop) {
-                top = bottom - height;
-            } else if (moveBottom) {
-                bottom = top + height;
-            }
-        } else {
-            if (moveTop && snap.snapDy != 0) {
-                top = (int) Math.round(target.y + snap.snapDy);
-            }
-            if (moveBottom && snap.snapDy != 0) {
-                bottom = (int) Math.round(target.y + target.height + snap.snapDy);
-            }
-            int height = Math.max(MIN_GROUP_SIZE, bottom - top);
-            int width = Math.max(MIN_GROUP_SIZE, (int) Math.round(height * aspect));
-            if (moveLeft) {
-                left = right - width;
-            } else if (moveRight) {
-                right = left + width;
-            }
-        }
-
-        Bounds snapped = new Bounds(left, top, right - left, bottom - top);
-        updateSnapOverlays(snap.xResult, snap.yResult, snapped);
-        return snapped;
-    }
-
-    private SnapPair computeSnapResults(
-        Bounds target,
-        boolean includeLeft,
-        boolean includeRight,
-        boolean includeCenterX,
-        boolean includeTop,
-        boolean includeBottom,
-        boolean includeCenterY
-    ) {
-        int threshold = Math.max(1, config.snapThreshold);
-        double scale = config.scale;
-
-        double left = target.x;
-        double right = target.x + target.width;
-        double top = target.y;
-        double bottom = target.y + target.height;
-        double centerX = left + target.width / 2.0;
-        double centerY = top + target.height / 2.0;
-
-        double leftScreen = config.offsetX + left * scale;
-        double rightScreen = config.offsetX + right * scale;
-        double topScreen = config.offsetY + top * scale;
-        double bottomScreen = config.offsetY + bottom * scale;
-        double centerXScreen = config.offsetX + centerX * scale;
-        double centerYScreen = config.offsetY + centerY * scale;
-
-        double snapDx = 0;
-        double snapDy = 0;
-
-        SnapResult xResult = new SnapResult();
-        SnapResult yResult = new SnapResult();
-
-        if (config.snappingEnabled || config.guidesEnabled) {
-            double[] xGuides = new double[] {0.0, width / 2.0, width};
-            double[] yGuides = new double[] {0.0, height / 2.0, height};
-
-            for (double guide : xGuides) {
-                if (includeCenterX) {
-                    considerSnapScreen(centerXScreen, guide, threshold, xResult, false);
-                }
-                if (includeLeft) {
-                    considerSnapScreen(leftScreen, guide, threshold, xResult, false);
-                }
-                if (includeRight) {
-                    considerSnapScreen(rightScreen, guide, threshold, xResult, false);
-                }
-            }
-
-            for (double guide : yGuides) {
-                if (includeCenterY) {
-                    considerSnapScreen(centerYScreen, guide, threshold, yResult, true);
-                }
-                if (includeTop) {
-                    considerSnapScreen(topScreen, guide, threshold, yResult, true);
-                }
-                if (includeBottom) {
-                    considerSnapScreen(bottomScreen, guide, threshold, yResult, true);
-                }
-            }
-
-            for (Group group : groups) {
-                if (!group.isVisible() || selectedGroups.contains(group)) {
-                    continue;
-                }
-                Bounds bounds = group.getBounds();
-                double gLeft = bounds.x;
-                double gRight = bounds.x + bounds.width;
-                double gTop = bounds.y;
-                double gBottom = bounds.y + bounds.height;
-                double gCenterX = gLeft + bounds.width / 2.0;
-                double gCenterY = gTop + bounds.height / 2.0;
-
-                double gLeftScreen = config.offsetX + gLeft * scale;
-                double gRightScreen = config.offsetX + gRight * scale;
-                double gTopScreen = config.offsetY + gTop * scale;
-                double gBottomScreen = config.offsetY + gBottom * scale;
-                double gCenterXScreen = config.offsetX + gCenterX * scale;
-                double gCenterYScreen = config.offsetY + gCenterY * scale;
-
-                if (includeLeft) {
-                    considerSnapScreen(leftScreen, gLeftScreen, threshold, xResult, false);
-                    considerSnapScreen(leftScreen, gRightScreen, threshold, xResult, false);
-                }
-                if (includeRight) {
-                    considerSnapScreen(rightScreen, gRightScreen, threshold, xResult, false);
-                    considerSnapScreen(rightScreen, gLeftScreen, threshold, xResult, false);
-                }
-                if (includeCenterX) {
-                    considerSnapScreen(centerXScreen, gCenterXScreen, threshold, xResult, false);
-                }
-
-                if (includeTop) {
-                    considerSnapScreen(topScreen, gTopScreen, threshold, yResult, true);
-                    considerSnapScreen(topScreen, gBottomScreen, threshold, yResult, true);
-                }
-                if (includeBottom) {
-                    considerSnapScreen(bottomScreen, gBottomScreen, threshold, yResult, true);
-                    considerSnapScreen(bottomScreen, gTopScreen, threshold, yResult, true);
-                }
-                if (includeCenterY) {
-                    considerSnapScreen(centerYScreen, gCenterYScreen, threshold, yResult, true);
-                }
-            }
-        }
-
-        if (config.snappingEnabled) {
-            if (xResult.bestDeltaScreen != null) {
-                snapDx = xResult.bestDeltaScreen / scale;
-            }
-            if (yResult.bestDeltaScreen != null) {
-                snapDy = yResult.bestDeltaScreen / scale;
-            }
-        }
-
-        return new SnapPair(xResult, yResult, snapDx, snapDy);
-    }
-
-    private void updateSnapOverlays(SnapResult xResult, SnapResult yResult, Bounds snapped) {
-        if (config.guidesEnabled) {
-            guideLines.addAll(xResult.guides);
-            guideLines.addAll(yResult.guides);
-        }
-
-        if (config.distanceLabelsEnabled) {
-            int threshold = Math.max(1, config.snapThreshold);
-            int distanceThreshold = threshold * 2;
-            double scale = config.scale;
-            int snappedLeft = snapped.x;
-            int snappedTop = snapped.y;
-            int snappedRight = snapped.x + snapped.width;
-            int snappedBottom = snapped.y + snapped.height;
-
-            int distLeft = (int) Math.round(config.offsetX + snappedLeft * scale);
-            int distTop = (int) Math.round(config.offsetY + snappedTop * scale);
-            int distRight = (int) Math.round(width - (config.offsetX + snappedRight * scale));
-            int distBottom = (int) Math.round(height - (config.offsetY + snappedBottom * scale));
-
-            if (distLeft <= distanceThreshold) {
-                distanceLabels.add(new DistanceLabel(snappedLeft + 2, snappedTop + snapped.height / 2, distLeft));
-            }
-            if (distRight <= distanceThreshold) {
-                distanceLabels.add(new DistanceLabel(snappedRight - 2, snappedTop + snapped.height / 2, distRight));
-            }
-            if (distTop <= distanceThreshold) {
-                distanceLabels.add(new DistanceLabel(snappedLeft + snapped.width / 2, snappedTop + 2, distTop));
-            }
-            if (distBottom <= distanceThreshold) {
-                distanceLabels.add(new DistanceLabel(snappedLeft + snapped.width / 2, snappedBottom - 2, distBottom));
-            }
-        }
-    }
-
-    private void considerSnapScreen(double targetEdge, double guide, int threshold, SnapResult result, boolean horizontal) {
-        double delta = guide - targetEdge;
-        double distance = Math.abs(delta);
-        if (distance <= threshold) {
-            result.guides.add(new GuideLine(horizontal, (int) Math.round(guide)));
-            if (result.bestDeltaScreen == null || distance < Math.abs(result.bestDeltaScreen)) {
-                result.bestDeltaScreen = delta;
-            }
-        }
     }
 
     private void drawGuides(DrawContext context) {
@@ -2565,14 +1731,14 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         double maxX = (width - config.offsetX) / config.scale;
         double maxY = (height - config.offsetY) / config.scale;
 
-        for (GuideLine line : guideLines) {
-            if (line.horizontal) {
-                double overlayY = (line.screenPosition - config.offsetY) / config.scale;
-                drawDottedHorizontal(context, minX, maxX, overlayY, GUIDE_COLOR);
-            } else {
-                double overlayX = (line.screenPosition - config.offsetX) / config.scale;
-                drawDottedVertical(context, minY, maxY, overlayX, GUIDE_COLOR);
-            }
+        SnapEngine snapEngine = model.snapEngine();
+        for (int i = 0; i < snapEngine.horizontalGuideCount(); i++) {
+            double overlayY = (snapEngine.horizontalGuide(i) - config.offsetY) / config.scale;
+            drawDottedHorizontal(context, minX, maxX, overlayY, GUIDE_COLOR);
+        }
+        for (int i = 0; i < snapEngine.verticalGuideCount(); i++) {
+            double overlayX = (snapEngine.verticalGuide(i) - config.offsetX) / config.scale;
+            drawDottedVertical(context, minY, maxY, overlayX, GUIDE_COLOR);
         }
     }
 
@@ -2601,7 +1767,7 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
     }
 
     private void drawDistanceLabels(DrawContext context) {
-        for (DistanceLabel label : distanceLabels) {
+        for (DistanceLabel label : model.distanceLabels()) {
             String text = Integer.toString(label.value);
             int textWidth = textRenderer.getWidth(text);
             int x = label.x - textWidth / 2;
@@ -2627,76 +1793,10 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         context.drawTextWithShadow(textRenderer, heightText, heightX, heightY, 0xFFFFFFFF);
     }
 
-    private void resetGroupLayout(Group group, Template template) {
-        List<OverlayConfig.KeyDefinition> templateKeys = template.keys;
-        List<OverlayConfig.KeyDefinition> groupKeys = group.keys;
-        if (templateKeys.size() == groupKeys.size()) {
-            for (int i = 0; i < groupKeys.size(); i++) {
-                applyTemplateLayout(groupKeys.get(i), templateKeys.get(i));
-            }
-            return;
-        }
-        Map<String, OverlayConfig.KeyDefinition> lookup = new HashMap<>();
-        for (OverlayConfig.KeyDefinition key : templateKeys) {
-            lookup.put(templateSignature(key), key);
-        }
-        for (OverlayConfig.KeyDefinition key : groupKeys) {
-            OverlayConfig.KeyDefinition templateKey = lookup.get(templateSignature(key));
-            if (templateKey != null) {
-                applyTemplateLayout(key, templateKey);
-            }
-        }
-    }
-
-    private void applyTemplateLayout(OverlayConfig.KeyDefinition target, OverlayConfig.KeyDefinition template) {
-        target.x = template.x;
-        target.y = template.y;
-        target.width = template.width;
-        target.height = template.height;
-    }
-
-    private String templateSignature(OverlayConfig.KeyDefinition key) {
-        if (key.type == OverlayConfig.InputType.STAT) {
-            return key.type + ":" + key.statId + ":" + key.label;
-        }
-        return key.type + ":" + key.code + ":" + key.label;
-    }
-
-    private Group hitTestGroup(double overlayX, double overlayY) {
-        return groups.stream()
-            .filter(Group::isVisible)
-            .sorted(Comparator.comparingInt(group -> -group.getBounds().area()))
-            .filter(group -> group.contains(overlayX, overlayY))
-            .findFirst()
-            .orElse(null);
-    }
-
-    private void moveSelectedBy(int dx, int dy) {
-        for (Group group : selectedGroups) {
-            group.moveBy(dx, dy);
-        }
-    }
-
     private void removeSelected() {
-        if (selectedGroups.isEmpty()) {
-            return;
-        }
-        for (Group group : selectedGroups) {
-            group.setVisible(false);
-        }
-        selectedGroups.clear();
-        closeEditor();
-    }
-
-    private List<Group> getHiddenGroups(String filterText) {
-        String filter = filterText == null ? "" : filterText.trim().toLowerCase();
-        List<Group> hidden = new ArrayList<>();
-        for (Group group : groups) {
-            if (!group.isVisible() && group.matchesFilter(filter)) {
-                hidden.add(group);
-            }
+        if (model.hideSelected()) {
+            closeEditor();
         }
-        return hidden;
     }
 
     private double toOverlayX(double screenX) {
@@ -2729,329 +1829,116 @@ public abstract class VisualKeystrokesEditorScreenBase extends Screen implements
         return x >= rectX && x <= rectX + width && y >= rectY && y <= rectY + height;
     }
 
-    private void rebuildGroups() {
-        groups.clear();
-        groups.addAll(buildGroups(config));
-        groupById.clear();
-        for (Group group : groups) {
-            groupById.put(group.id, group);
-        }
-    }
-
-    private static List<Group> buildGroups(OverlayConfig config) {
-        Map<String, List<OverlayConfig.KeyDefinition>> grouped = new LinkedHashMap<>();
-        for (OverlayConfig.KeyDefinition key : config.keys) {
-            grouped.computeIfAbsent(key.group, ignored -> new ArrayList<>()).add(key);
-        }
-
-        List<Group> groups = new ArrayList<>();
-        for (Map.Entry<String, List<OverlayConfig.KeyDefinition>> entry : grouped.entrySet()) {
-            groups.add(new Group(entry.getKey(), displayName(entry.getKey()), entry.getValue()));
-        }
-        return groups;
-    }
-
-    private static String displayName(String id) {
-        return switch (id) {
-            case "keyboard" -> "Keyboard";
-            case "wasd" -> "WASD";
-            case "space" -> "SPACE";
-            case "shift" -> "SHIFT";
-            case "ctrl" -> "CTRL";
-            case "numbers" -> "Number Row";
-            case "function" -> "Function Keys";
-            case "arrows" -> "Arrow Keys";
-            case "utility" -> "Utility Keys";
-            case "full_keyboard" -> "Full Keyboard";
-            case "cps" -> "CPS Counter";
-            case "cps_rmb" -> "RMB CPS";
-            case "cps_mmb" -> "MMB CPS";
-            case "lmb" -> "LMB";
-            case "rmb" -> "RMB";
-            case "mmb" -> "MMB";
-            default -> id.toUpperCase();
-        };
-    }
-
-    private enum ColorTarget {
-        BACKGROUND,
-        PRESSED,
-        BORDER,
-        TEXT
-    }
-
     private enum ColorPickerDragArea {
         NONE,
         WHEEL,
         VALUE
     }
 
-    private enum DragMode {
-        NONE,
-        MOVE,
-        RESIZE,
-        LASSO
-    }
-
-    private enum ResizeHandle {
-        NONE,
-        TOP_LEFT,
-        TOP_RIGHT,
-        BOTTOM_LEFT,
-        BOTTOM_RIGHT
-    }
-
-    private static final class Group {
-        private final String id;
-        private final String displayName;
-        private final List<OverlayConfig.KeyDefinition> keys;
-
-        private Group(String id, String displayName, List<OverlayConfig.KeyDefinition> keys) {
-            this.id = id;
-            this.displayName = displayName;
-            this.keys = keys;
-        }
-
-        private boolean isVisible() {
-            for (OverlayConfig.KeyDefinition key : keys) {
-                if (key.isVisible()) {
-                    return true;
+    /**
+     * Rasterized color wheel for the current picker value. Hue and saturation per pixel never change, so they are
+     * computed once; moving the value slider only re-runs the HSV conversion.
+     * <p>
+     * Targets without a texture path draw the wheel with fills. Neighbouring pixels of a hue wheel almost never
+     * match, so for those the raster is sampled in {@link #FALLBACK_CELL}-pixel squares and merged into horizontal
+     * runs once per value, which cuts the fills per frame to roughly a quarter and keeps the per-frame work to
+     * replaying the runs.
+     */
+    private static final class ColorWheelCache {
+        private static final int FALLBACK_CELL = 2;
+
+        private final int size;
+        private final float[] hues;
+        private final float[] saturations;
+        private final int[] pixels;
+        private float value = Float.NaN;
+        private int[] runX;
+        private int[] runY;
+        private int[] runWidth;
+        private int[] runColor;
+        private int runCount = -1;
+
+        private ColorWheelCache(int radius) {
+            this.size = radius * 2 + 1;
+            this.hues = new float[size * size];
+            this.saturations = new float[size * size];
+            this.pixels = new int[size * size];
+            for (int dy = -radius; dy <= radius; dy++) {
+                for (int dx = -radius; dx <= radius; dx++) {
+                    int index = (dy + radius) * size + dx + radius;
+                    double dist = Math.sqrt(dx * dx + dy * dy);
+                    if (dist > radius) {
+                        saturations[index] = -1.0f;
+                        continue;
+                    }
+                    hues[index] = (float) ((Math.atan2(dy, dx) / (Math.PI * 2) + 1.0) % 1.0);
+                    saturations[index] = (float) (dist / radius);
                 }
             }
-            return false;
-        }
-
-        private void setVisible(boolean visible) {
-            for (OverlayConfig.KeyDefinition key : keys) {
-                key.setVisible(visible);
-            }
         }
 
-        private Bounds getBounds() {
-            int minX = Integer.MAX_VALUE;
-            int minY = Integer.MAX_VALUE;
-            int maxX = Integer.MIN_VALUE;
-            int maxY = Integer.MIN_VALUE;
-
-            for (OverlayConfig.KeyDefinition key : keys) {
-                int x = key.x;
-                int y = key.y;
-                int right = key.x + key.width;
-                int bottom = key.y + key.height;
-                minX = Math.min(minX, x);
-                minY = Math.min(minY, y);
-                maxX = Math.max(maxX, right);
-                maxY = Math.max(maxY, bottom);
-            }
-
-            if (minX == Integer.MAX_VALUE) {
-                return new Bounds(0, 0, 0, 0);
+        /**
+         * Regenerates the raster if {@code value} changed. Returns whether the pixels were rewritten.
+         */
+        private boolean update(float value) {
+            if (value == this.value) {
+                return false;
             }
-
-            return new Bounds(minX, minY, maxX - minX, maxY - minY);
-        }
-
-        private boolean contains(double x, double y) {
-            Bounds bounds = getBounds();
-            return x >= bounds.x && x <= bounds.x + bounds.width && y >= bounds.y && y <= bounds.y + bounds.height;
-        }
-
-        private void moveBy(int dx, int dy) {
-            for (OverlayConfig.KeyDefinition key : keys) {
-                key.x += dx;
-                key.y += dy;
+            this.value = value;
+            for (int i = 0; i < pixels.length; i++) {
+                float saturation = saturations[i];
+                pixels[i] = saturation < 0.0f ? 0 : hsvToRgb(hues[i], saturation, value);
             }
+            runCount = -1;
+            return true;
         }
 
-        private void resizeTo(Bounds start, Bounds target) {
-            resizeTo(start, target, null);
-        }
-
-        private void resizeTo(Bounds start, Bounds target, List<KeySnapshot> snapshots) {
-            if (start.width <= 0 || start.height <= 0) {
-                return;
-            }
-            double scaleX = target.width / (double) start.width;
-            double scaleY = target.height / (double) start.height;
-
-            if (snapshots == null) {
-                for (OverlayConfig.KeyDefinition key : keys) {
-                    int offsetX = key.x - start.x;
-                    int offsetY = key.y - start.y;
-
-                    key.x = (int) Math.round(target.x + offsetX * scaleX);
-                    key.y = (int) Math.round(target.y + offsetY * scaleY);
-                    key.width = Math.max(4, (int) Math.round(key.width * scaleX));
-                    key.height = Math.max(4, (int) Math.round(key.height * scaleY));
+        private boolean hasRuns() {
+            return runCount >= 0;
+        }
+
+        /**
+         * Samples each cell at its centre pixel and merges equal neighbouring cells of a row into one run.
+         */
+        private void buildRuns() {
+            int cells = (size + FALLBACK_CELL - 1) / FALLBACK_CELL;
+            if (runX == null) {
+                runX = new int[cells * cells];
+                runY = new int[cells * cells];
+                runWidth = new int[cells * cells];
+                runColor = new int[cells * cells];
+            }
+            runCount = 0;
+            for (int cellY = 0; cellY < cells; cellY++) {
+                int sampleRow = Math.min(size - 1, cellY * FALLBACK_CELL + FALLBACK_CELL / 2) * size;
+                int cellX = 0;
+                while (cellX < cells) {
+                    int color = pixels[sampleRow + Math.min(size - 1, cellX * FALLBACK_CELL + FALLBACK_CELL / 2)];
+                    int end = cellX + 1;
+                    while (end < cells
+                        && pixels[sampleRow + Math.min(size - 1, end * FALLBACK_CELL + FALLBACK_CELL / 2)] == color) {
+                        end++;
+                    }
+                    if ((color >>> 24) != 0) {
+                        runX[runCount] = cellX * FALLBACK_CELL;
+                        runY[runCount] = cellY * FALLBACK_CELL;
+                        runWidth[runCount] = Math.min(size, end * FALLBACK_CELL) - cellX * FALLBACK_CELL;
+                        runColor[runCount] = color;
+                        runCount++;
+                    }
+                    cellX = end;
                 }
-                return;
-            }
-
-            for (KeySnapshot snapshot : snapshots) {
-                int offsetX = snapshot.x - start.x;
-                int offsetY = snapshot.y - start.y;
-
-                snapshot.key.x = (int) Math.round(target.x + offsetX * scaleX);
-                snapshot.key.y = (int) Math.round(target.y + offsetY * scaleY);
-                snapshot.key.width = Math.max(4, (int) Math.round(snapshot.width * scaleX));
-                snapshot.key.height = Math.max(4, (int) Math.round(snapshot.height * scaleY));
             }
         }
 
-        private boolean containsKey(OverlayConfig.KeyDefinition key) {
-            return keys.contains(key);
-        }
-
-        private boolean matchesFilter(String filter) {
-            if (filter == null || filter.isEmpty()) {
-                return true;
+        private void drawRuns(DrawContext context, int left, int top) {
+            for (int i = 0; i < runCount; i++) {
+                int x = left + runX[i];
+                int y = top + runY[i];
+                int height = Math.min(FALLBACK_CELL, size - runY[i]);
+                context.fill(x, y, x + runWidth[i], y + height, runColor[i]);
             }
-            return displayName.toLowerCase().contains(filter);
-        }
-
-        private boolean intersects(Bounds other) {
-            Bounds bounds = getBounds();
-            return bounds.x <= other.x + other.width
-                && bounds.x + bounds.width >= other.x
-                && bounds.y <= other.y + other.height
-                && bounds.y + bounds.height >= other.y;
         }
     }
 
-    private static final class Template {
-        private final String id;
-        private final String displayName;
-        private final List<OverlayConfig.KeyDefinition> keys;
-
-        private Template(String id, String displayName, List<OverlayConfig.KeyDefinition> keys) {
-            this.id = id;
-            this.displayName = displayName;
-            this.keys = keys;
-        }
-
-        private static Template keys(String id, String displayName, List<OverlayConfig.KeyDefinition> keys) {
-            return new Template(id, displayName, keys);
-        }
-
-        private static Template stat(String id, String displayName, OverlayConfig.KeyDefinition key) {
-            List<OverlayConfig.KeyDefinition> keys = new ArrayList<>();
-            keys.add(key);
-            return new Template(id, displayName, keys);
-        }
-
-        private boolean matchesFilter(String filter) {
-            if (filter == null || filter.isEmpty()) {
-                return true;
-            }
-            return displayName.toLowerCase().contains(filter);
-        }
-
-        private List<OverlayConfig.KeyDefinition> createKeys() {
-            List<OverlayConfig.KeyDefinition> copies = new ArrayList<>();
-            for (OverlayConfig.KeyDefinition key : keys) {
-                copies.add(copyKey(key, id));
-            }
-            return copies;
-        }
-
-        private OverlayConfig.KeyDefinition copyKey(OverlayConfig.KeyDefinition key, String groupId) {
-            if (key.type == OverlayConfig.InputType.STAT) {
-                return new OverlayConfig.KeyDefinition(key.label, key.statId, key.x, key.y, key.width, key.height, groupId);
-            }
-            return new OverlayConfig.KeyDefinition(key.label, key.type, key.code, key.x, key.y, key.width, key.height, groupId);
-        }
-    }
-
-    private static final class Bounds {
-        private final int x;
-        private final int y;
-        private final int width;
-        private final int height;
-
-        private Bounds(int x, int y, int width, int height) {
-            this.x = x;
-            this.y = y;
-            this.width = width;
-            this.height = height;
-        }
-
-        private int area() {
-            return width * height;
-        }
-    }
-
-    private static final class ColorState {
-        private final int color;
-        private final boolean mixed;
-
-        private ColorState(int color, boolean mixed) {
-            this.color = color;
-            this.mixed = mixed;
-        }
-    }
-
-    private static final class GuideLine {
-        private final boolean horizontal;
-        private final int screenPosition;
-
-        private GuideLine(boolean horizontal, int screenPosition) {
-            this.horizontal = horizontal;
-            this.screenPosition = screenPosition;
-        }
-    }
-
-    private static final class DistanceLabel {
-        private final int x;
-        private final int y;
-        private final int value;
-
-        private DistanceLabel(int x, int y, int value) {
-            this.x = x;
-            this.y = y;
-            this.value = value;
-        }
-    }
-
-    private static final class SnapResult {
-        private final List<GuideLine> guides = new ArrayList<>();
-        private Double bestDeltaScreen;
-    }
-
-    private static final class SnapPair {
-        private final SnapResult xResult;
-        private final SnapResult yResult;
-        private final double snapDx;
-        private final double snapDy;
-
-        private SnapPair(SnapResult xResult, SnapResult yResult, double snapDx, double snapDy) {
-            this.xResult = xResult;
-            this.yResult = yResult;
-            this.snapDx = snapDx;
-            this.snapDy = snapDy;
-        }
-    }
-
-    private static final class KeySnapshot {
-        private final OverlayConfig.KeyDefinition key;
-        private final int x;
-        private final int y;
-        private final int width;
-        private final int height;
-
-        private KeySnapshot(OverlayConfig.KeyDefinition key) {
-            this.key = key;
-            this.x = key.x;
-            this.y = key.y;
-            this.width = key.width;
-            this.height = key.height;
-        }
-
-        private static List<KeySnapshot> capture(List<OverlayConfig.KeyDefinition> keys) {
-            List<KeySnapshot> snapshots = new ArrayList<>(keys.size());
-            for (OverlayConfig.KeyDefinition key : keys) {
-                snapshots.add(new KeySnapshot(key));
-            }
-            return snapshots;
-        }
-    }
 }
@@ -5,26 +5,62 @@ import net.minecraft.client.util.InputUtil;
 import net.minecraft.client.util.Window;
 import org.lwjgl.glfw.GLFW;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 
 public final class InputUtilCompat {
-    private static final Method IS_KEY_PRESSED_WINDOW = findMethod(InputUtil.class, "isKeyPressed", Window.class, int.class);
-    private static final Method IS_KEY_PRESSED_HANDLE = findMethod(InputUtil.class, "isKeyPressed", long.class, int.class);
+    private static final MethodType KEY_QUERY = MethodType.methodType(boolean.class, MinecraftClient.class, int.class);
+    /**
+     * Version-appropriate key query, resolved once and adapted to {@code (MinecraftClient, int) -> boolean}. Held in a
+     * static final field so {@code invokeExact} is treated as a constant and inlined by the JIT.
+     */
+    private static final MethodHandle IS_KEY_PRESSED = resolveKeyQuery();
 
     private InputUtilCompat() {
     }
 
     public static boolean isKeyPressed(MinecraftClient client, int keyCode) {
         try {
-            if (IS_KEY_PRESSED_WINDOW != null) {
-                return (boolean) IS_KEY_PRESSED_WINDOW.invoke(null, client.getWindow(), keyCode);
+            return (boolean) IS_KEY_PRESSED.invokeExact(client, keyCode);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to query key state", t);
+        }
+    }
+
+    private static MethodHandle resolveKeyQuery() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Method windowVariant = findMethod(InputUtil.class, "isKeyPressed", Window.class, int.class);
+            if (windowVariant != null) {
+                MethodHandle window = lookup.findStatic(
+                    InputUtilCompat.class, "window", MethodType.methodType(Window.class, MinecraftClient.class));
+                return MethodHandles.filterArguments(lookup.unreflect(windowVariant), 0, window).asType(KEY_QUERY);
             }
-            if (IS_KEY_PRESSED_HANDLE != null) {
-                return (boolean) IS_KEY_PRESSED_HANDLE.invoke(null, client.getWindow().getHandle(), keyCode);
+            Method handleVariant = findMethod(InputUtil.class, "isKeyPressed", long.class, int.class);
+            if (handleVariant != null) {
+                MethodHandle handle = lookup.findStatic(
+                    InputUtilCompat.class, "handle", MethodType.methodType(long.class, MinecraftClient.class));
+                return MethodHandles.filterArguments(lookup.unreflect(handleVariant), 0, handle).asType(KEY_QUERY);
             }
+            return lookup.findStatic(InputUtilCompat.class, "glfwKeyPressed", KEY_QUERY);
         } catch (ReflectiveOperationException e) {
-            throw new IllegalStateException("Failed to query key state", e);
+            throw new IllegalStateException("Failed to bind key state query", e);
         }
+    }
+
+    private static Window window(MinecraftClient client) {
+        return client.getWindow();
+    }
+
+    private static long handle(MinecraftClient client) {
+        return client.getWindow().getHandle();
+    }
+
+    private static boolean glfwKeyPressed(MinecraftClient client, int keyCode) {
         return GLFW.glfwGetKey(client.getWindow().getHandle(), keyCode) == GLFW.GLFW_PRESS;
     }
 
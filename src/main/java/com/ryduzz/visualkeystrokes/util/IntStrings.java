@@ -0,0 +1,55 @@
+package com.ryduzz.visualkeystrokes.util;
+
+/**
+ * Cached decimal strings for small non-negative integers and one-decimal values so per-frame stat text does not
+ * allocate.
+ */
+public final class IntStrings {
+    private static final int CACHE_SIZE = 1000;
+    private static final String[] CACHE = new String[CACHE_SIZE];
+    private static final String[] TENTHS = new String[CACHE_SIZE];
+
+    static {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            CACHE[i] = Integer.toString(i);
+            TENTHS[i] = format(i);
+        }
+    }
+
+    private IntStrings() {
+    }
+
+    public static String of(int value) {
+        if (value >= 0 && value < CACHE_SIZE) {
+            return CACHE[value];
+        }
+        return Integer.toString(value);
+    }
+
+    /**
+     * {@code value} left-padded with zeros to at least {@code digits} characters, e.g. {@code (7, 3) -> "007"}.
+     * Negative values are not padded.
+     */
+    public static String zeroPadded(int value, int digits) {
+        String text = of(value);
+        if (value < 0 || text.length() >= digits) {
+            return text;
+        }
+        return "0".repeat(digits - text.length()) + text;
+    }
+
+    /**
+     * Formats {@code tenths / 10} with one decimal, e.g. {@code 125 -> "12.5"}. Values from 0.0 to 99.9 are cached.
+     */
+    public static String tenths(int tenths) {
+        if (tenths >= 0 && tenths < CACHE_SIZE) {
+            return TENTHS[tenths];
+        }
+        return format(tenths);
+    }
+
+    private static String format(int tenths) {
+        int abs = Math.abs(tenths);
+        return (tenths < 0 ? "-" : "") + abs / 10 + "." + abs % 10;
+    }
+}
@@ -0,0 +1,197 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import com.mojang.blaze3d.systems.GpuDevice;
+import com.mojang.blaze3d.systems.ProjectionType;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.textures.GpuTexture;
+import com.mojang.blaze3d.textures.GpuTextureView;
+import com.mojang.blaze3d.textures.TextureFormat;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gl.RenderPipelines;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.LightmapTextureManager;
+import net.minecraft.client.render.ProjectionMatrix2;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.texture.AbstractTexture;
+import net.minecraft.client.util.BufferAllocator;
+import net.minecraft.util.Identifier;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fStack;
+
+/**
+ * Offscreen copy of the overlay for the frame cache. A changed frame is rendered once into a GPU texture at
+ * framebuffer resolution; every frame then submits that texture as a single quad instead of the batch's fills and
+ * text. The texture is rendered with premultiplied alpha and blitted with the matching GUI pipeline.
+ */
+public final class OverlayRenderTarget {
+    private static final Identifier ID = Identifier.of("visualkeystrokes", "overlay_frame");
+    private static final int BUFFER_BYTES = 1 << 18;
+
+    private final TextRenderer textRenderer;
+    private final VertexConsumerProvider.Immediate vertices = VertexConsumerProvider.immediate(new BufferAllocator(BUFFER_BYTES));
+    private final ProjectionMatrix2 projection = new ProjectionMatrix2("Visual Keystrokes overlay", -1000.0f, 1000.0f, false);
+    private final Matrix4f transform = new Matrix4f();
+    private final TargetCanvas canvas = new TargetCanvas();
+    private TargetTexture texture;
+    private GpuTexture depth;
+    private GpuTextureView depthView;
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private int pixelWidth;
+    private int pixelHeight;
+    private float pixelScale;
+
+    public OverlayRenderTarget(TextRenderer textRenderer) {
+        this.textRenderer = textRenderer;
+    }
+
+    public boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Whether the texture holds a frame covering the given overlay area at {@code pixelScale} framebuffer pixels per
+     * overlay unit.
+     */
+    public boolean matches(int x, int y, int width, int height, float pixelScale) {
+        return texture != null && this.x == x && this.y == y && this.width == width && this.height == height
+            && this.pixelScale == pixelScale;
+    }
+
+    /**
+     * Renders {@code batch} into the texture, reallocating it when the area's size in pixels changed. The batch is
+     * kept; the area is in overlay coordinates and anything drawn outside it is clipped.
+     */
+    public void update(BatchingCanvas batch, int x, int y, int width, int height, float pixelScale) {
+        int pixelWidth = Math.max(1, Math.round(width * pixelScale));
+        int pixelHeight = Math.max(1, Math.round(height * pixelScale));
+        if (texture == null || pixelWidth != this.pixelWidth || pixelHeight != this.pixelHeight) {
+            allocate(pixelWidth, pixelHeight);
+        }
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.pixelScale = pixelScale;
+
+        RenderSystem.getDevice().createCommandEncoder().clearColorAndDepthTextures(texture.getGlTexture(), 0, depth, 1.0);
+        RenderSystem.backupProjectionMatrix();
+        RenderSystem.setProjectionMatrix(projection.set(pixelWidth, pixelHeight), ProjectionType.ORTHOGRAPHIC);
+        Matrix4fStack modelView = RenderSystem.getModelViewStack();
+        modelView.pushMatrix();
+        modelView.identity();
+        RenderSystem.outputColorTextureOverride = texture.getGlTextureView();
+        RenderSystem.outputDepthTextureOverride = depthView;
+        try {
+            transform.identity().scale(pixelScale, pixelScale, 1.0f).translate(-x, -y, 0.0f);
+            canvas.textStarted = false;
+            batch.replayTo(canvas);
+            vertices.draw();
+        } finally {
+            RenderSystem.outputColorTextureOverride = null;
+            RenderSystem.outputDepthTextureOverride = null;
+            modelView.popMatrix();
+            RenderSystem.restoreProjectionMatrix();
+        }
+    }
+
+    /**
+     * Submits the last rendered frame as one quad over its overlay area.
+     */
+    public void draw(DrawContext context) {
+        context.drawTexture(RenderPipelines.GUI_TEXTURED_PREMULTIPLIED_ALPHA, ID, x, y, 0.0f, 0.0f, width, height,
+            pixelWidth, pixelHeight, pixelWidth, pixelHeight);
+    }
+
+    public void close() {
+        if (texture != null) {
+            MinecraftClient.getInstance().getTextureManager().destroyTexture(ID);
+            texture = null;
+        }
+        closeDepth();
+        projection.close();
+        vertices.close();
+    }
+
+    private void allocate(int pixelWidth, int pixelHeight) {
+        if (texture == null) {
+            texture = new TargetTexture();
+            MinecraftClient.getInstance().getTextureManager().registerTexture(ID, texture);
+        }
+        texture.allocate(pixelWidth, pixelHeight);
+        closeDepth();
+        GpuDevice device = RenderSystem.getDevice();
+        depth = device.createTexture("Visual Keystrokes overlay depth", GpuTexture.USAGE_RENDER_ATTACHMENT,
+            TextureFormat.DEPTH32, pixelWidth, pixelHeight, 1, 1);
+        depthView = device.createTextureView(depth);
+        this.pixelWidth = pixelWidth;
+        this.pixelHeight = pixelHeight;
+    }
+
+    private void closeDepth() {
+        if (depthView != null) {
+            depthView.close();
+            depthView = null;
+        }
+        if (depth != null) {
+            depth.close();
+            depth = null;
+        }
+    }
+
+    /**
+     * Color attachment registered with the texture manager so the GUI can blit it by id.
+     */
+    private static final class TargetTexture extends AbstractTexture {
+        void allocate(int width, int height) {
+            close();
+            GpuDevice device = RenderSystem.getDevice();
+            glTexture = device.createTexture("Visual Keystrokes overlay",
+                GpuTexture.USAGE_RENDER_ATTACHMENT | GpuTexture.USAGE_TEXTURE_BINDING, TextureFormat.RGBA8, width,
+                height, 1, 1);
+            glTextureView = device.createTextureView(glTexture);
+        }
+    }
+
+    /**
+     * Writes the replayed batch into {@link #vertices}. Fills are flushed before the first string so text stays on
+     * top, as it does when the batch is drawn through the GUI.
+     */
+    private final class TargetCanvas implements OverlayCanvas {
+        private boolean textStarted;
+
+        @Override
+        public void fill(int x1, int y1, int x2, int y2, int color) {
+            VertexConsumer buffer = vertices.getBuffer(RenderLayer.getDebugQuads());
+            buffer.vertex(transform, x1, y1, 0.0f).color(color);
+            buffer.vertex(transform, x1, y2, 0.0f).color(color);
+            buffer.vertex(transform, x2, y2, 0.0f).color(color);
+            buffer.vertex(transform, x2, y1, 0.0f).color(color);
+        }
+
+        @Override
+        public void drawText(String text, int x, int y, int color) {
+            if (!textStarted) {
+                vertices.draw();
+                textStarted = true;
+            }
+            textRenderer.draw(text, x, y, color, true, transform, vertices, TextRenderer.TextLayerType.NORMAL, 0,
+                LightmapTextureManager.MAX_LIGHT_COORDINATE);
+        }
+
+        @Override
+        public int getWidth(String text) {
+            return textRenderer.getWidth(text);
+        }
+
+        @Override
+        public int fontHeight() {
+            return textRenderer.fontHeight;
+        }
+    }
+}
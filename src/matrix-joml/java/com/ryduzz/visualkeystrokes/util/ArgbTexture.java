@@ -0,0 +1,60 @@
+package com.ryduzz.visualkeystrokes.util;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.RenderPipelines;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.texture.NativeImage;
+import net.minecraft.client.texture.NativeImageBackedTexture;
+import net.minecraft.util.Identifier;
+
+/**
+ * Small dynamic GUI texture filled from an ARGB buffer and drawn as a single textured quad.
+ */
+public final class ArgbTexture {
+    private final Identifier id;
+    private final int width;
+    private final int height;
+    private NativeImageBackedTexture texture;
+
+    public ArgbTexture(String namespace, String path, int width, int height) {
+        this.id = Identifier.of(namespace, path);
+        this.width = width;
+        this.height = height;
+    }
+
+    public boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Copies {@code pixels} (row-major, {@code width * height}) into the texture and uploads it to the GPU.
+     */
+    public void upload(int[] pixels) {
+        if (texture == null) {
+            texture = new NativeImageBackedTexture(id::toString, width, height, false);
+            MinecraftClient.getInstance().getTextureManager().registerTexture(id, texture);
+        }
+        NativeImage image = texture.getImage();
+        if (image == null) {
+            return;
+        }
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                image.setColorArgb(x, y, pixels[row + x]);
+            }
+        }
+        texture.upload();
+    }
+
+    public void draw(DrawContext context, int x, int y) {
+        context.drawTexture(RenderPipelines.GUI_TEXTURED, id, x, y, 0.0f, 0.0f, width, height, width, height);
+    }
+
+    public void close() {
+        if (texture != null) {
+            MinecraftClient.getInstance().getTextureManager().destroyTexture(id);
+            texture = null;
+        }
+    }
+}
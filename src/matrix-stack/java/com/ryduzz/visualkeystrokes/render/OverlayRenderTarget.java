@@ -0,0 +1,30 @@
+package com.ryduzz.visualkeystrokes.render;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+
+/**
+ * Offscreen targets and the GUI's texture blit changed several times before 1.21.6, so older targets replay the
+ * cached batch instead. {@link #isSupported()} tells the renderer to take that path.
+ */
+public final class OverlayRenderTarget {
+    public OverlayRenderTarget(TextRenderer textRenderer) {
+    }
+
+    public boolean isSupported() {
+        return false;
+    }
+
+    public boolean matches(int x, int y, int width, int height, float pixelScale) {
+        return false;
+    }
+
+    public void update(BatchingCanvas batch, int x, int y, int width, int height, float pixelScale) {
+    }
+
+    public void draw(DrawContext context) {
+    }
+
+    public void close() {
+    }
+}
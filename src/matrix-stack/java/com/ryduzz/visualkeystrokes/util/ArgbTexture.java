@@ -0,0 +1,25 @@
+package com.ryduzz.visualkeystrokes.util;
+
+import net.minecraft.client.gui.DrawContext;
+
+/**
+ * Texture upload and blit signatures changed several times before 1.21.6, so older targets keep drawing from the
+ * caller's ARGB buffer instead. {@link #isSupported()} tells callers to take that path.
+ */
+public final class ArgbTexture {
+    public ArgbTexture(String namespace, String path, int width, int height) {
+    }
+
+    public boolean isSupported() {
+        return false;
+    }
+
+    public void upload(int[] pixels) {
+    }
+
+    public void draw(DrawContext context, int x, int y) {
+    }
+
+    public void close() {
+    }
+}